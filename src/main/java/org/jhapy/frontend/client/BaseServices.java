@@ -40,6 +40,10 @@ public class BaseServices {
     return getApplicationContext().getBean(ResourceService.class);
   }
 
+  public static ResourceContentClient getResourceContentClient() {
+    return getApplicationContext().getBean(ResourceContentClient.class);
+  }
+
   public static AuthService getAuthService() {
     return getApplicationContext().getBean(AuthService.class);
   }
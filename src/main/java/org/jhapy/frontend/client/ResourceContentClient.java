@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.vaadin.flow.server.StreamResource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.jhapy.dto.utils.StoredFile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Transfers the content of the stored files, the metadata staying on {@link ResourceService}.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-17
+ */
+@Component
+public class ResourceContentClient {
+
+  private static final String REMOTE_SERVICE = "resource-server";
+  private static final String SERVICE_PATH = "/resourceService/content";
+  private static final TypeReference<ServiceResult<StoredFile>> SAVE_RESULT =
+      new TypeReference<>() {
+      };
+
+  private final StreamingClient streamingClient;
+
+  public ResourceContentClient(StreamingClient streamingClient) {
+    this.streamingClient = streamingClient;
+  }
+
+  /**
+   * Upload the content of a file, read until the end of the stream
+   *
+   * @param storedFile the metadata of the file (filename, mime type and size if known)
+   * @return the saved metadata (with the id of the file), without the content
+   */
+  public ServiceResult<StoredFile> upload(StoredFile storedFile, InputStream content) {
+    URI uri = UriComponentsBuilder.fromUri(streamingClient.getServiceUri(REMOTE_SERVICE))
+        .path(SERVICE_PATH)
+        .queryParam("filename", storedFile.getFilename())
+        .build().encode().toUri();
+
+    return streamingClient.upload(uri, storedFile.getMimeType() == null
+            ? MediaType.APPLICATION_OCTET_STREAM
+            : MediaType.parseMediaType(storedFile.getMimeType()), storedFile.getFilesize(),
+        content, SAVE_RESULT);
+  }
+
+  /**
+   * Copy the content of a file to the given stream, as it is received
+   */
+  public void download(String id, OutputStream outputStream) {
+    URI uri = UriComponentsBuilder.fromUri(streamingClient.getServiceUri(REMOTE_SERVICE))
+        .path(SERVICE_PATH + "/{id}")
+        .buildAndExpand(id).encode().toUri();
+
+    streamingClient.download(uri, outputStream);
+  }
+
+  /**
+   * The resource to display or download a file. The content is streamed from the resource server
+   * when it is not already loaded.
+   */
+  public StreamResource createStreamResource(StoredFile storedFile) {
+    StreamResource streamResource;
+    if (storedFile.getContent() != null) {
+      streamResource = new StreamResource(storedFile.getFilename(),
+          () -> new ByteArrayInputStream(storedFile.getContent()));
+    } else {
+      streamResource = new StreamResource(storedFile.getFilename(),
+          (outputStream, session) -> download(storedFile.getId(), outputStream));
+    }
+    if (storedFile.getMimeType() != null) {
+      streamResource.setContentType(storedFile.getMimeType());
+    }
+    return streamResource;
+  }
+}
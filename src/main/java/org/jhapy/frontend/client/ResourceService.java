@@ -43,6 +43,12 @@ public interface ResourceService {
   @PostMapping(value = "/getById")
   ServiceResult<StoredFile> getById(@RequestBody GetByStrIdQuery query);
 
+  /**
+   * The stored file without its content, which is transferred by {@link ResourceContentClient}
+   */
+  @PostMapping(value = "/getMetadataById")
+  ServiceResult<StoredFile> getMetadataById(@RequestBody GetByStrIdQuery query);
+
   @PostMapping(value = "/delete")
   ServiceResult<Void> delete(@RequestBody DeleteByStrIdQuery query);
 }
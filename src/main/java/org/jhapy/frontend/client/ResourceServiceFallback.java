@@ -72,6 +72,13 @@ public class ResourceServiceFallback implements ResourceService, HasLogger,
     return new ServiceResult<>(false, "Cannot connect to server", null);
   }
 
+  @Override
+  public ServiceResult<StoredFile> getMetadataById(GetByStrIdQuery query) {
+    logger().error(getLoggerPrefix("getMetadataById") + "Cannot connect to the server");
+
+    return new ServiceResult<>(false, "Cannot connect to server", null);
+  }
+
   @Override
   public ServiceResult<Void> delete(DeleteByStrIdQuery query) {
     logger().error(getLoggerPrefix("delete") + "Cannot connect to the server");
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jhapy.commons.security.oauth2.AuthorizationHeaderUtil;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Transfers files to and from the remote services as raw octet streams, which Feign cannot do.
+ * Nothing is buffered: uploads are sent chunked while they are read, downloads are copied to the
+ * caller's stream (usually the browser) while they are received.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-17
+ */
+@Component
+public class StreamingClient implements HasLogger {
+
+  private final CloseableHttpClient httpClient;
+  private final RestTemplate restTemplate;
+  private final ObjectMapper objectMapper;
+  private final Environment env;
+  private final LoadBalancerClient loadBalancerClient;
+  private final AuthorizationHeaderUtil authorizationHeaderUtil;
+
+  public StreamingClient(AppProperties appProperties, ObjectMapper objectMapper,
+      Environment env, LoadBalancerClient loadBalancerClient,
+      AuthorizationHeaderUtil authorizationHeaderUtil) {
+    AppProperties.StreamingClient clientProperties = appProperties.getStreamingClient();
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(clientProperties.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(clientProperties.getMaxConnections());
+
+    RequestConfig requestConfig = RequestConfig.custom()
+        .setConnectTimeout((int) clientProperties.getConnectTimeout().toMillis())
+        .setConnectionRequestTimeout((int) clientProperties.getConnectTimeout().toMillis())
+        .setSocketTimeout((int) clientProperties.getReadTimeout().toMillis())
+        // The content is mostly already compressed (images, pdf, xlsx)
+        .setContentCompressionEnabled(false)
+        .build();
+
+    this.httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictIdleConnections(clientProperties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+        .build();
+
+    HttpComponentsClientHttpRequestFactory requestFactory =
+        new HttpComponentsClientHttpRequestFactory(httpClient);
+    // Write the body straight to the connection instead of a byte array
+    requestFactory.setBufferRequestBody(false);
+    this.restTemplate = new RestTemplate(requestFactory);
+
+    this.objectMapper = objectMapper;
+    this.env = env;
+    this.loadBalancerClient = loadBalancerClient;
+    this.authorizationHeaderUtil = authorizationHeaderUtil;
+  }
+
+  /**
+   * Post the content, read until the end of the stream, and decode the JSON response
+   *
+   * @param contentLength the size of the content if known, else it is sent chunked
+   */
+  public <T> T upload(URI uri, MediaType contentType, Long contentLength, InputStream content,
+      TypeReference<T> resultType) {
+    String loggerPrefix = getLoggerPrefix("upload", uri);
+
+    return restTemplate.execute(uri, HttpMethod.POST, request -> {
+      setHeaders(request);
+      request.getHeaders().setContentType(contentType);
+      if (contentLength != null) {
+        request.getHeaders().setContentLength(contentLength);
+      }
+      long size = StreamUtils.copy(content, request.getBody());
+      logger().debug(loggerPrefix + "Sent " + size + " bytes");
+    }, response -> objectMapper.readValue(response.getBody(), resultType));
+  }
+
+  /**
+   * Copy the response to the given stream, as it is received
+   */
+  public void download(URI uri, OutputStream outputStream) {
+    String loggerPrefix = getLoggerPrefix("download", uri);
+
+    restTemplate.execute(uri, HttpMethod.GET, request -> {
+      setHeaders(request);
+      request.getHeaders().setAccept(Collections.singletonList(MediaType.ALL));
+    }, response -> {
+      long size = StreamUtils.copy(response.getBody(), outputStream);
+      logger().debug(loggerPrefix + "Received " + size + " bytes");
+      return null;
+    });
+  }
+
+  /**
+   * Same resolution as the Feign clients : the configured url, else an instance of the service
+   * registered in Eureka
+   *
+   * @param remoteService the name of the service in <code>jhapy.remote-services</code>, like
+   * <code>resource-server</code>
+   */
+  public URI getServiceUri(String remoteService) {
+    String url = env.getProperty("jhapy.remote-services." + remoteService + ".url");
+    if (StringUtils.isBlank(url)) {
+      String name = env.getProperty("jhapy.remote-services." + remoteService + ".name");
+      ServiceInstance serviceInstance = loadBalancerClient.choose(name);
+      if (serviceInstance == null) {
+        throw new IllegalStateException("No instance available for " + name);
+      }
+      url = serviceInstance.getUri().toString();
+    }
+    return URI.create(StringUtils.removeEnd(url, "/"));
+  }
+
+  @PreDestroy
+  public void close() {
+    try {
+      httpClient.close();
+    } catch (IOException e) {
+      logger().warn(getLoggerPrefix("close") + "Cannot close the HTTP client : " + e
+          .getMessage());
+    }
+  }
+
+  private void setHeaders(ClientHttpRequest request) {
+    authorizationHeaderUtil.getAuthorizationHeader()
+        .ifPresent(header -> request.getHeaders().set(HttpHeaders.AUTHORIZATION, header));
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.client.i18n;
+
+import javax.jms.ConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-09
+ */
+@Component
+public class I18NCacheUpdateQueue {
+
+  public static final String TOPIC = "i18nTranslationUpdate";
+
+  private final JmsTemplate jmsTemplate;
+
+  public I18NCacheUpdateQueue(ConnectionFactory connectionFactory) {
+    this.jmsTemplate = new JmsTemplate(connectionFactory);
+    this.jmsTemplate.setPubSubDomain(true);
+  }
+
+  public void translationUpdated(final TranslationUpdate translationUpdate) {
+    jmsTemplate.send(TOPIC, translationUpdate::toMessage);
+  }
+}
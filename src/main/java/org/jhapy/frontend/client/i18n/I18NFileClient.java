@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.i18n;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.jhapy.frontend.client.StreamingClient;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Export and import of the translations workbook, streamed as raw xlsx bytes.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-17
+ */
+@Component
+public class I18NFileClient {
+
+  public static final MediaType XLSX = MediaType
+      .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+  private static final String REMOTE_SERVICE = "i18n-server";
+  private static final String SERVICE_PATH = "/api/i18NService/i18NFile";
+  private static final TypeReference<ServiceResult<Void>> IMPORT_RESULT =
+      new TypeReference<>() {
+      };
+
+  private final StreamingClient streamingClient;
+
+  public I18NFileClient(StreamingClient streamingClient) {
+    this.streamingClient = streamingClient;
+  }
+
+  /**
+   * Copy the workbook with all the translations to the given stream
+   */
+  public void exportI18NFile(OutputStream outputStream) {
+    streamingClient.download(getUri(), outputStream);
+  }
+
+  /**
+   * Import the workbook, read until the end of the stream
+   *
+   * @param contentLength the size of the workbook if known
+   */
+  public ServiceResult<Void> importI18NFile(InputStream content, Long contentLength) {
+    return streamingClient.upload(getUri(), XLSX, contentLength, content, IMPORT_RESULT);
+  }
+
+  private URI getUri() {
+    return UriComponentsBuilder.fromUri(streamingClient.getServiceUri(REMOTE_SERVICE))
+        .path(SERVICE_PATH).build().toUri();
+  }
+}
@@ -35,9 +35,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 @Primary
 public interface I18NService {
 
+  /**
+   * @deprecated the workbook travels as a JSON array of numbers, use {@link
+   * I18NFileClient#exportI18NFile}
+   */
+  @Deprecated
   @PostMapping(value = "/getI18NFile")
   ServiceResult<Byte[]> getI18NFile(@RequestBody BaseRemoteQuery query);
 
+  /**
+   * @deprecated the workbook travels as a JSON array of numbers, use {@link
+   * I18NFileClient#importI18NFile}
+   */
+  @Deprecated
   @PostMapping(value = "/importI18NFile")
   ServiceResult<Void> importI18NFile(@RequestBody ImportI18NFileQuery query);
 }
@@ -36,6 +36,10 @@ public class I18NServices {
     return getApplicationContext().getBean(I18NService.class);
   }
 
+  public static I18NFileClient getI18NFileClient() {
+    return getApplicationContext().getBean(I18NFileClient.class);
+  }
+
   public static ActionService getActionService() {
     return getApplicationContext().getBean(ActionService.class);
   }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.client.i18n;
+
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import javax.jms.Session;
+import lombok.Getter;
+
+/**
+ * Change of one translation key in one language, sent as a {@link MapMessage} so any node (or
+ * the i18n server) can publish it without sharing classes.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-09
+ */
+@Getter
+public class TranslationUpdate {
+
+  public static final String ELEMENT = "element";
+  public static final String ACTION = "action";
+  public static final String MESSAGE = "message";
+
+  public static final String OPERATION_UPDATE = "update";
+  public static final String OPERATION_DELETE = "delete";
+
+  private final String type;
+  private final String operation;
+  private final String name;
+  private final String iso3Language;
+  private final String value;
+
+  public TranslationUpdate(String type, String operation, String name, String iso3Language,
+      String value) {
+    this.type = type;
+    this.operation = operation;
+    this.name = name;
+    this.iso3Language = iso3Language;
+    this.value = value;
+  }
+
+  public static TranslationUpdate fromMessage(MapMessage message) throws JMSException {
+    return new TranslationUpdate(message.getString("type"), message.getString("operation"),
+        message.getString("name"), message.getString("iso3Language"),
+        message.getString("value"));
+  }
+
+  public MapMessage toMessage(Session session) throws JMSException {
+    MapMessage message = session.createMapMessage();
+    message.setString("type", type);
+    message.setString("operation", operation);
+    message.setString("name", name);
+    message.setString("iso3Language", iso3Language);
+    message.setString("value", value);
+    return message;
+  }
+
+  public boolean isDelete() {
+    return OPERATION_DELETE.equals(operation);
+  }
+
+  @Override
+  public String toString() {
+    return type + " '" + name + "' (" + iso3Language + ") : " + operation;
+  }
+}
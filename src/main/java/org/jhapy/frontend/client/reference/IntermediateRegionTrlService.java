@@ -18,11 +18,13 @@
 
 package org.jhapy.frontend.client.reference;
 
+import java.util.Map;
 import org.jhapy.dto.domain.reference.IntermediateRegionTrl;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.GetByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
+import org.jhapy.dto.serviceQuery.i18n.FindByIso3Query;
 import org.jhapy.dto.serviceQuery.reference.intermediateRegionTrl.GetIntermediateRegionTrlQuery;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.context.annotation.Primary;
@@ -42,6 +44,12 @@ public interface IntermediateRegionTrlService {
   ServiceResult<IntermediateRegionTrl> getIntermediateRegionTrl(
       @RequestBody GetIntermediateRegionTrlQuery query);
 
+  /**
+   * The name of all the intermediate regions in the given language, by intermediate region id
+   */
+  @PostMapping(value = "/findNamesByIso3")
+  ServiceResult<Map<Long, String>> findNamesByIso3(@RequestBody FindByIso3Query query);
+
   @PostMapping(value = "/getById")
   ServiceResult<IntermediateRegionTrl> getById(@RequestBody GetByIdQuery query);
 
@@ -18,12 +18,14 @@
 
 package org.jhapy.frontend.client.reference;
 
+import java.util.Map;
 import org.jhapy.commons.utils.HasLogger;
 import org.jhapy.dto.domain.reference.IntermediateRegionTrl;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.GetByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
+import org.jhapy.dto.serviceQuery.i18n.FindByIso3Query;
 import org.jhapy.dto.serviceQuery.reference.intermediateRegionTrl.GetIntermediateRegionTrlQuery;
 import org.springframework.stereotype.Component;
 
@@ -44,6 +46,13 @@ public class IntermediateRegionTrlServiceFallback implements IntermediateRegionT
     return new ServiceResult<>(false, "Cannot connect to server", null);
   }
 
+  @Override
+  public ServiceResult<Map<Long, String>> findNamesByIso3(FindByIso3Query query) {
+    logger().error(getLoggerPrefix("findNamesByIso3") + "Cannot connect to the server");
+
+    return new ServiceResult<>(false, "Cannot connect to server", null);
+  }
+
   @Override
   public ServiceResult<IntermediateRegionTrl> getById(GetByIdQuery query) {
     logger().error(getLoggerPrefix("getById") + "Cannot connect to the server");
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.reference;
+
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.dto.domain.reference.Country;
+import org.jhapy.dto.domain.reference.IntermediateRegion;
+import org.jhapy.dto.domain.reference.Region;
+import org.jhapy.dto.domain.reference.SubRegion;
+import org.jhapy.dto.serviceQuery.BaseRemoteQuery;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.jhapy.dto.serviceQuery.generic.FindAnyMatchingQuery;
+import org.jhapy.dto.utils.Page;
+import org.jhapy.dto.utils.Pageable;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jms.JmsException;
+import org.springframework.stereotype.Component;
+
+/**
+ * The reference data of the whole application, loaded at startup and shared by all the sessions.
+ * Every <code>jhapy.reference-cache.snapshot-check-interval</code> the version of the server is
+ * compared with the loaded one, and everything is loaded again only when it changed (or when the
+ * server cannot tell its version and the snapshot is older than
+ * <code>snapshot-max-age</code>). The countries saved from this node are applied at once, and
+ * published to the other nodes through {@link ReferenceDataUpdateQueue}.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+@Component
+public class ReferenceDataCache implements HasLogger {
+
+  private static final int COUNTRIES_PAGE_SIZE = 500;
+
+  private final ReferenceDataService referenceDataService;
+  private final RegionService regionService;
+  private final SubRegionService subRegionService;
+  private final IntermediateRegionService intermediateRegionService;
+  private final CountryService countryService;
+  private final ReferenceDataUpdateQueue referenceDataUpdateQueue;
+  private final AppProperties.ReferenceCache settings;
+  private final ScheduledExecutorService scheduler;
+
+  private volatile ReferenceDataSnapshot snapshot = ReferenceDataSnapshot.EMPTY;
+
+  public ReferenceDataCache(ReferenceDataService referenceDataService,
+      RegionService regionService, SubRegionService subRegionService,
+      IntermediateRegionService intermediateRegionService, CountryService countryService,
+      ReferenceDataUpdateQueue referenceDataUpdateQueue, AppProperties appProperties) {
+    this.referenceDataService = referenceDataService;
+    this.regionService = regionService;
+    this.subRegionService = subRegionService;
+    this.intermediateRegionService = intermediateRegionService;
+    this.countryService = countryService;
+    this.referenceDataUpdateQueue = referenceDataUpdateQueue;
+    this.settings = appProperties.getReferenceCache();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    scheduler.execute(this::refreshIfChanged);
+    long interval = settings.getSnapshotCheckInterval().toMillis();
+    scheduler.scheduleWithFixedDelay(this::refreshIfChanged, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public ReferenceDataSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  public ListDataProvider<Region> getRegionDataProvider() {
+    return DataProvider.ofCollection(snapshot.getRegions());
+  }
+
+  public ListDataProvider<SubRegion> getSubRegionDataProvider() {
+    return DataProvider.ofCollection(snapshot.getSubRegions());
+  }
+
+  public ListDataProvider<IntermediateRegion> getIntermediateRegionDataProvider() {
+    return DataProvider.ofCollection(snapshot.getIntermediateRegions());
+  }
+
+  public ListDataProvider<Country> getCountryDataProvider() {
+    return DataProvider.ofCollection(snapshot.getCountries());
+  }
+
+  /**
+   * Apply a country saved from this node, without waiting for the next check
+   */
+  public void countrySaved(Country country) {
+    synchronized (this) {
+      snapshot = snapshot.withCountry(country);
+    }
+    publish(ReferenceDataUpdateQueue.COUNTRY);
+  }
+
+  public void countryDeleted(Long countryId) {
+    synchronized (this) {
+      snapshot = snapshot.withoutCountry(countryId);
+    }
+    publish(ReferenceDataUpdateQueue.COUNTRY);
+  }
+
+  /**
+   * Load everything again in the background, whatever the version
+   */
+  public void reload() {
+    scheduler.execute(() -> load(currentVersion()));
+  }
+
+  @PreDestroy
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  protected void refreshIfChanged() {
+    String loggerPrefix = getLoggerPrefix("refreshIfChanged");
+    try {
+      ReferenceDataSnapshot current = snapshot;
+      Long version = currentVersion();
+      if (current == ReferenceDataSnapshot.EMPTY) {
+        load(version);
+      } else if (version != null ? !version.equals(current.getVersion())
+          : System.currentTimeMillis() - current.getLoadedAt() > settings.getSnapshotMaxAge()
+              .toMillis()) {
+        logger().info(
+            loggerPrefix + "Version changed from " + current.getVersion() + " to " + version);
+        load(version);
+      }
+    } catch (Exception e) {
+      // Keep the current snapshot, and try again at the next check
+      logger().warn(loggerPrefix + "Cannot refresh the reference data : " + e.getMessage());
+    }
+  }
+
+  private void publish(String type) {
+    try {
+      referenceDataUpdateQueue.referenceDataUpdated(type);
+    } catch (JmsException e) {
+      logger().warn(getLoggerPrefix("publish", type) + "Cannot publish the change, the other "
+          + "nodes will get it with their next check : " + e.getMessage());
+    }
+  }
+
+  private Long currentVersion() {
+    ServiceResult<Long> result = referenceDataService.getVersion();
+    return result.getIsSuccess() ? result.getData() : null;
+  }
+
+  private void load(Long version) {
+    String loggerPrefix = getLoggerPrefix("load", version);
+
+    ServiceResult<List<Region>> regions = regionService.findAll();
+    ServiceResult<List<SubRegion>> subRegions = subRegionService.findAll();
+    ServiceResult<List<IntermediateRegion>> intermediateRegions = intermediateRegionService
+        .findAll(new BaseRemoteQuery());
+    List<Country> countries = findAllCountries();
+    if (!regions.getIsSuccess() || !subRegions.getIsSuccess() || !intermediateRegions
+        .getIsSuccess() || countries == null) {
+      logger().warn(loggerPrefix + "Cannot load the reference data, keep current values");
+      return;
+    }
+
+    ReferenceDataSnapshot newSnapshot = new ReferenceDataSnapshot(version,
+        System.currentTimeMillis(), regions.getData(), subRegions.getData(),
+        intermediateRegions.getData(), countries);
+    synchronized (this) {
+      snapshot = newSnapshot;
+    }
+    logger().info(loggerPrefix + "Loaded " + regions.getData().size() + " regions, "
+        + subRegions.getData().size() + " sub regions, " + intermediateRegions.getData().size()
+        + " intermediate regions, " + countries.size() + " countries");
+  }
+
+  private List<Country> findAllCountries() {
+    List<Country> countries = new ArrayList<>();
+    int pageNumber = 0;
+    while (true) {
+      ServiceResult<Page<Country>> result = countryService.findAnyMatching(
+          new FindAnyMatchingQuery(null, true,
+              new Pageable(pageNumber, COUNTRIES_PAGE_SIZE, pageNumber * COUNTRIES_PAGE_SIZE,
+                  null)));
+      if (!result.getIsSuccess() || result.getData() == null) {
+        return null;
+      }
+      List<Country> content = result.getData().getContent();
+      countries.addAll(content);
+      if (content.size() < COUNTRIES_PAGE_SIZE) {
+        return countries;
+      }
+      pageNumber++;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.reference;
+
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+@Component
+public class ReferenceDataServiceFallback implements ReferenceDataService, HasLogger {
+
+  @Override
+  public ServiceResult<Long> getVersion() {
+    logger().error(getLoggerPrefix("getVersion") + "Cannot connect to the server");
+
+    return new ServiceResult<>(false, "Cannot connect to server", null);
+  }
+}
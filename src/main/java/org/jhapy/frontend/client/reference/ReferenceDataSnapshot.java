@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.reference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jhapy.dto.domain.reference.Country;
+import org.jhapy.dto.domain.reference.IntermediateRegion;
+import org.jhapy.dto.domain.reference.Region;
+import org.jhapy.dto.domain.reference.SubRegion;
+
+/**
+ * Immutable view of all the reference data at one version, indexed by id and by ISO code. A new
+ * snapshot is built on every change, so readers never need to lock.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+public final class ReferenceDataSnapshot {
+
+  public static final ReferenceDataSnapshot EMPTY = new ReferenceDataSnapshot(null, 0,
+      Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+      Collections.emptyList());
+
+  private final Long version;
+  private final long loadedAt;
+
+  private final List<Region> regions;
+  private final List<SubRegion> subRegions;
+  private final List<IntermediateRegion> intermediateRegions;
+  private final List<Country> countries;
+
+  private final Map<Long, Region> regionsById;
+  private final Map<Long, SubRegion> subRegionsById;
+  private final Map<Long, IntermediateRegion> intermediateRegionsById;
+  private final Map<Long, Country> countriesById;
+  private final Map<String, Country> countriesByIso;
+
+  public ReferenceDataSnapshot(Long version, long loadedAt, List<Region> regions,
+      List<SubRegion> subRegions, List<IntermediateRegion> intermediateRegions,
+      List<Country> countries) {
+    this.version = version;
+    this.loadedAt = loadedAt;
+    this.regions = Collections.unmodifiableList(new ArrayList<>(regions));
+    this.subRegions = Collections.unmodifiableList(new ArrayList<>(subRegions));
+    this.intermediateRegions = Collections.unmodifiableList(new ArrayList<>(intermediateRegions));
+    this.countries = Collections.unmodifiableList(new ArrayList<>(countries));
+
+    this.regionsById = index(regions, Region::getId);
+    this.subRegionsById = index(subRegions, SubRegion::getId);
+    this.intermediateRegionsById = index(intermediateRegions, IntermediateRegion::getId);
+    this.countriesById = index(countries, Country::getId);
+
+    Map<String, Country> byIso = new HashMap<>();
+    for (Country country : countries) {
+      if (country.getIso2() != null) {
+        byIso.put(country.getIso2().toUpperCase(), country);
+      }
+      if (country.getIso3() != null) {
+        byIso.put(country.getIso3().toUpperCase(), country);
+      }
+    }
+    this.countriesByIso = byIso;
+  }
+
+  /**
+   * @return the version given by the server, null if unknown
+   */
+  public Long getVersion() {
+    return version;
+  }
+
+  public long getLoadedAt() {
+    return loadedAt;
+  }
+
+  public List<Region> getRegions() {
+    return regions;
+  }
+
+  public List<SubRegion> getSubRegions() {
+    return subRegions;
+  }
+
+  public List<IntermediateRegion> getIntermediateRegions() {
+    return intermediateRegions;
+  }
+
+  public List<Country> getCountries() {
+    return countries;
+  }
+
+  public Region getRegion(Long id) {
+    return id == null ? null : regionsById.get(id);
+  }
+
+  public SubRegion getSubRegion(Long id) {
+    return id == null ? null : subRegionsById.get(id);
+  }
+
+  public IntermediateRegion getIntermediateRegion(Long id) {
+    return id == null ? null : intermediateRegionsById.get(id);
+  }
+
+  public Country getCountry(Long id) {
+    return id == null ? null : countriesById.get(id);
+  }
+
+  /**
+   * @param iso the ISO 3166 alpha-2 or alpha-3 code, in any case
+   */
+  public Country getCountryByIso(String iso) {
+    return iso == null ? null : countriesByIso.get(iso.toUpperCase());
+  }
+
+  /**
+   * A copy with the given country added or replaced, at the same version
+   */
+  public ReferenceDataSnapshot withCountry(Country country) {
+    List<Country> newCountries = new ArrayList<>(countries.size() + 1);
+    boolean replaced = false;
+    for (Country existing : countries) {
+      if (existing.getId().equals(country.getId())) {
+        newCountries.add(country);
+        replaced = true;
+      } else {
+        newCountries.add(existing);
+      }
+    }
+    if (!replaced) {
+      newCountries.add(country);
+    }
+    return new ReferenceDataSnapshot(version, loadedAt, regions, subRegions, intermediateRegions,
+        newCountries);
+  }
+
+  /**
+   * A copy without the given country, at the same version
+   */
+  public ReferenceDataSnapshot withoutCountry(Long countryId) {
+    List<Country> newCountries = new ArrayList<>(countries);
+    newCountries.removeIf(country -> country.getId().equals(countryId));
+    return new ReferenceDataSnapshot(version, loadedAt, regions, subRegions, intermediateRegions,
+        newCountries);
+  }
+
+  private static <T> Map<Long, T> index(List<T> values, Function<T, Long> idGetter) {
+    Map<Long, T> result = new HashMap<>();
+    for (T value : values) {
+      result.put(idGetter.apply(value), value);
+    }
+    return result;
+  }
+}
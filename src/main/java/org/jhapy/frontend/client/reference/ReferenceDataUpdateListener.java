@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.reference;
+
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.config.JmsConfiguration;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Forgets the cached reference data changed by any node or by the backend. The message gives the
+ * <code>type</code> of data changed ({@link ReferenceLabelCache#REGION}...), all the names are
+ * forgotten when it is missing. The reference data snapshot is always reloaded.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+@Component
+public class ReferenceDataUpdateListener implements HasLogger {
+
+  private final ReferenceLabelCache referenceLabelCache;
+  private final ReferenceDataCache referenceDataCache;
+
+  public ReferenceDataUpdateListener(ReferenceLabelCache referenceLabelCache,
+      ReferenceDataCache referenceDataCache) {
+    this.referenceLabelCache = referenceLabelCache;
+    this.referenceDataCache = referenceDataCache;
+  }
+
+  @JmsListener(destination = ReferenceLabelCache.TOPIC, containerFactory = JmsConfiguration.TOPIC_LISTENER_FACTORY)
+  public void onReferenceDataUpdate(MapMessage message) throws JMSException {
+    String type = message.getString("type");
+    logger().debug(getLoggerPrefix("onReferenceDataUpdate") + type);
+
+    if (type == null) {
+      referenceLabelCache.invalidateAll();
+    } else {
+      referenceLabelCache.invalidate(type);
+    }
+    referenceDataCache.reload();
+  }
+}
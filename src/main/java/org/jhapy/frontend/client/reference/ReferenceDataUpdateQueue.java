@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.reference;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.MapMessage;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the reference data changed on this node on {@link ReferenceLabelCache#TOPIC}, so every
+ * node (this one included) forgets its cached names and reloads its snapshot, see {@link
+ * ReferenceDataUpdateListener}.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+@Component
+public class ReferenceDataUpdateQueue {
+
+  public static final String COUNTRY = "country";
+
+  private final JmsTemplate jmsTemplate;
+
+  public ReferenceDataUpdateQueue(ConnectionFactory connectionFactory) {
+    this.jmsTemplate = new JmsTemplate(connectionFactory);
+    this.jmsTemplate.setPubSubDomain(true);
+  }
+
+  /**
+   * @param type the type of data changed ({@link ReferenceLabelCache#REGION}, {@link
+   * #COUNTRY}...), <code>null</code> when everything may have changed
+   */
+  public void referenceDataUpdated(final String type) {
+    jmsTemplate.send(ReferenceLabelCache.TOPIC, session -> {
+      MapMessage message = session.createMapMessage();
+      message.setString("type", type);
+      return message;
+    });
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.reference;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.jhapy.dto.serviceQuery.i18n.FindByIso3Query;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Names of the regions, sub regions and intermediate regions, loaded for a whole language with
+ * one call and shared by all the sessions. They are loaded again after
+ * <code>jhapy.reference-cache.labels-ttl</code>, or as soon as a change is published on {@link
+ * #TOPIC} (see {@link ReferenceDataUpdateQueue}).
+ *
+ * <p>Each language is loaded by the first session asking for it, outside of the map, while the
+ * others wait for its result.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+@Component
+public class ReferenceLabelCache implements HasLogger {
+
+  public static final String TOPIC = "referenceDataUpdate";
+
+  public static final String REGION = "region";
+  public static final String SUB_REGION = "subRegion";
+  public static final String INTERMEDIATE_REGION = "intermediateRegion";
+
+  private final Map<String, Function<FindByIso3Query, ServiceResult<Map<Long, String>>>> loaders =
+      new HashMap<>();
+  private final Map<String, CompletableFuture<Labels>> labels = new ConcurrentHashMap<>();
+  private final long ttl;
+  private final long retryDelay;
+
+  public ReferenceLabelCache(RegionTrlService regionTrlService,
+      SubRegionTrlService subRegionTrlService,
+      IntermediateRegionTrlService intermediateRegionTrlService, AppProperties appProperties) {
+    loaders.put(REGION, regionTrlService::findNamesByIso3);
+    loaders.put(SUB_REGION, subRegionTrlService::findNamesByIso3);
+    loaders.put(INTERMEDIATE_REGION, intermediateRegionTrlService::findNamesByIso3);
+    this.ttl = appProperties.getReferenceCache().getLabelsTtl().toMillis();
+    this.retryDelay = appProperties.getReferenceCache().getRetryDelay().toMillis();
+  }
+
+  public String getRegionName(Long regionId, String iso3Language) {
+    return getName(REGION, regionId, iso3Language);
+  }
+
+  public String getSubRegionName(Long subRegionId, String iso3Language) {
+    return getName(SUB_REGION, subRegionId, iso3Language);
+  }
+
+  public String getIntermediateRegionName(Long intermediateRegionId, String iso3Language) {
+    return getName(INTERMEDIATE_REGION, intermediateRegionId, iso3Language);
+  }
+
+  /**
+   * @return the name, or an empty string if there is no translation in this language
+   */
+  public String getName(String type, Long id, String iso3Language) {
+    if (id == null) {
+      return "";
+    }
+    String name = getNames(type, iso3Language).get(id);
+    return name == null ? "" : name;
+  }
+
+  /**
+   * All the names of the given type in one language, by id
+   */
+  public Map<Long, String> getNames(String type, String iso3Language) {
+    String key = type + ":" + iso3Language;
+    CompletableFuture<Labels> current = labels.get(key);
+    if (current == null || isExpired(current)) {
+      // Only one session loads a language, the others wait for it
+      CompletableFuture<Labels> loading = new CompletableFuture<>();
+      CompletableFuture<Labels> expired = current;
+      current = labels.compute(key,
+          (k, existing) -> existing != null && !isExpired(existing) ? existing : loading);
+      if (current == loading) {
+        try {
+          loading.complete(load(type, iso3Language,
+              expired == null || expired.isCompletedExceptionally() ? null : expired.join()));
+        } catch (RuntimeException e) {
+          labels.remove(key, loading);
+          loading.completeExceptionally(e);
+          throw e;
+        }
+      }
+    }
+    return current.join().names;
+  }
+
+  /**
+   * Forget the names of the given type, in all the languages
+   */
+  public void invalidate(String type) {
+    labels.keySet().removeIf(key -> key.startsWith(type + ":"));
+  }
+
+  public void invalidateAll() {
+    labels.clear();
+  }
+
+  /**
+   * A language still loading is not expired, its result is awaited
+   */
+  private static boolean isExpired(CompletableFuture<Labels> labels) {
+    return labels.isDone() && (labels.isCompletedExceptionally() || labels.join().isExpired());
+  }
+
+  private Labels load(String type, String iso3Language, Labels previous) {
+    String loggerPrefix = getLoggerPrefix("load", type, iso3Language);
+
+    Function<FindByIso3Query, ServiceResult<Map<Long, String>>> loader = loaders.get(type);
+    if (loader == null) {
+      throw new IllegalArgumentException("Unknown reference type : " + type);
+    }
+    ServiceResult<Map<Long, String>> result = loader.apply(new FindByIso3Query(iso3Language));
+    if (result.getIsSuccess() && result.getData() != null) {
+      logger().debug(loggerPrefix + "Loaded " + result.getData().size() + " names");
+      return new Labels(Collections.unmodifiableMap(new HashMap<>(result.getData())),
+          System.currentTimeMillis() + ttl);
+    } else {
+      // Keep what we had, and try again a bit later
+      logger().warn(loggerPrefix + "Cannot load the names : " + result.getMessage());
+      return new Labels(previous != null ? previous.names : Collections.emptyMap(),
+          System.currentTimeMillis() + retryDelay);
+    }
+  }
+
+  private static class Labels {
+
+    private final Map<Long, String> names;
+    private final long expiresAt;
+
+    Labels(Map<Long, String> names, long expiresAt) {
+      this.names = names;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired() {
+      return System.currentTimeMillis() > expiresAt;
+    }
+  }
+}
@@ -64,6 +64,14 @@ public class ReferenceServices {
     return getApplicationContext().getBean(SubRegionTrlService.class);
   }
 
+  public static ReferenceDataCache getReferenceDataCache() {
+    return getApplicationContext().getBean(ReferenceDataCache.class);
+  }
+
+  public static ReferenceLabelCache getReferenceLabelCache() {
+    return getApplicationContext().getBean(ReferenceLabelCache.class);
+  }
+
   public static ApplicationContext getApplicationContext() {
     ServletContext servletContext = SpringServlet.getCurrent().getServletContext();
     return WebApplicationContextUtils.getWebApplicationContext(servletContext);
@@ -18,11 +18,13 @@
 
 package org.jhapy.frontend.client.reference;
 
+import java.util.Map;
 import org.jhapy.dto.domain.reference.RegionTrl;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.GetByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
+import org.jhapy.dto.serviceQuery.i18n.FindByIso3Query;
 import org.jhapy.dto.serviceQuery.reference.regionTrl.GetRegionTrlQuery;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.context.annotation.Primary;
@@ -41,6 +43,12 @@ public interface RegionTrlService {
   @PostMapping(value = "/getRegionTrl")
   ServiceResult<RegionTrl> getRegionTrl(@RequestBody GetRegionTrlQuery query);
 
+  /**
+   * The name of all the regions in the given language, by region id
+   */
+  @PostMapping(value = "/findNamesByIso3")
+  ServiceResult<Map<Long, String>> findNamesByIso3(@RequestBody FindByIso3Query query);
+
   @PostMapping(value = "/getById")
   ServiceResult<RegionTrl> getById(@RequestBody GetByIdQuery query);
 
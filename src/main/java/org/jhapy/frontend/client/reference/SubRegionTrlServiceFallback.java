@@ -18,12 +18,14 @@
 
 package org.jhapy.frontend.client.reference;
 
+import java.util.Map;
 import org.jhapy.commons.utils.HasLogger;
 import org.jhapy.dto.domain.reference.SubRegionTrl;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.GetByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
+import org.jhapy.dto.serviceQuery.i18n.FindByIso3Query;
 import org.jhapy.dto.serviceQuery.reference.subRegionTrl.GetSubRegionTrlQuery;
 import org.springframework.stereotype.Component;
 
@@ -42,6 +44,13 @@ public class SubRegionTrlServiceFallback implements SubRegionTrlService, HasLogg
     return new ServiceResult<>(false, "Cannot connect to server", null);
   }
 
+  @Override
+  public ServiceResult<Map<Long, String>> findNamesByIso3(FindByIso3Query query) {
+    logger().error(getLoggerPrefix("findNamesByIso3") + "Cannot connect to the server");
+
+    return new ServiceResult<>(false, "Cannot connect to server", null);
+  }
+
   @Override
   public ServiceResult<SubRegionTrl> getById(GetByIdQuery query) {
     logger().error(getLoggerPrefix("getById") + "Cannot connect to the server");
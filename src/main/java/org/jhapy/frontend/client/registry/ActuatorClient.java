@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * HTTP client shared by the actuator and config server admin views. Connections to the
+ * instances are pooled and kept alive between refreshes, responses are gzip compressed, and each
+ * call is timed per target instance and endpoint (<code>actuator.client.requests</code>).
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-14
+ */
+@Component
+public class ActuatorClient implements HasLogger {
+
+  private final CloseableHttpClient httpClient;
+  private final RestTemplate restTemplate;
+  private final ObjectMapper objectMapper;
+
+  public ActuatorClient(AppProperties appProperties, MeterRegistry meterRegistry) {
+    AppProperties.ActuatorClient clientProperties = appProperties.getActuatorClient();
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(clientProperties.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(clientProperties.getMaxConnectionsPerRoute());
+
+    RequestConfig requestConfig = RequestConfig.custom()
+        .setConnectTimeout((int) clientProperties.getConnectTimeout().toMillis())
+        .setConnectionRequestTimeout((int) clientProperties.getConnectTimeout().toMillis())
+        .setSocketTimeout((int) clientProperties.getReadTimeout().toMillis())
+        .build();
+
+    // Content compression (Accept-Encoding: gzip,deflate) is enabled by default
+    this.httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictIdleConnections(clientProperties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+        .build();
+
+    this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    this.restTemplate.getInterceptors().add(new MetricsInterceptor(meterRegistry));
+
+    // The payloads of the instances may have more fields than the model
+    this.objectMapper = Jackson2ObjectMapperBuilder.json().failOnUnknownProperties(false)
+        .build();
+  }
+
+  public RestTemplate getRestTemplate() {
+    return restTemplate;
+  }
+
+  /**
+   * A client sharing the connection pool, with its own timeouts (a quick health check doesn't
+   * wait as long as a thread dump)
+   */
+  public RestTemplate createRestTemplate(Duration timeout) {
+    HttpComponentsClientHttpRequestFactory requestFactory =
+        new HttpComponentsClientHttpRequestFactory(httpClient);
+    requestFactory.setConnectTimeout((int) timeout.toMillis());
+    requestFactory.setConnectionRequestTimeout((int) timeout.toMillis());
+    requestFactory.setReadTimeout((int) timeout.toMillis());
+    RestTemplate result = new RestTemplate(requestFactory);
+    result.setInterceptors(restTemplate.getInterceptors());
+    return result;
+  }
+
+  /**
+   * @return the mapper used to decode the actuator payloads, thread safe and shared
+   */
+  public ObjectMapper getObjectMapper() {
+    return objectMapper;
+  }
+
+  @PreDestroy
+  public void close() {
+    try {
+      httpClient.close();
+    } catch (IOException e) {
+      logger().warn(getLoggerPrefix("close") + "Cannot close the actuator client : " + e
+          .getMessage());
+    }
+  }
+
+  /**
+   * The endpoint is the first path segment after the actuator base path (<code>/loggers/ROOT</code>
+   * is tagged <code>loggers</code>), so the number of timers stays bounded. The paths outside of
+   * the actuator base path are all tagged <code>other</code>, their segments may be names or ids.
+   */
+  static String getEndpoint(URI uri) {
+    String path = uri.getPath();
+    if (path == null || path.isEmpty() || path.equals("/")) {
+      return "/";
+    }
+    String[] segments = path.substring(1).split("/");
+    for (int i = 0; i < segments.length; i++) {
+      if (segments[i].equals("actuator") || segments[i].equals("management")) {
+        // The base path itself lists the endpoints
+        return i + 1 < segments.length ? segments[i + 1] : segments[i];
+      }
+    }
+    return "other";
+  }
+
+  private static class MetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsInterceptor(MeterRegistry meterRegistry) {
+      this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+        ClientHttpRequestExecution execution) throws IOException {
+      long start = System.nanoTime();
+      String status = "IO_ERROR";
+      try {
+        ClientHttpResponse response = execution.execute(request, body);
+        status = String.valueOf(response.getRawStatusCode());
+        return response;
+      } finally {
+        URI uri = request.getURI();
+        meterRegistry.timer("actuator.client.requests",
+            "instance", uri.getHost() + ":" + uri.getPort(),
+            "endpoint", getEndpoint(uri),
+            "method", request.getMethodValue(),
+            "status", status)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import com.vaadin.flow.shared.Registration;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Polls actuator endpoints on behalf of all the admin UIs. An endpoint (its url identifies both
+ * the instance and the endpoint) is fetched once per interval however many views subscribed to
+ * it, at the shortest interval requested. The last snapshot is kept, so a view refreshing after a
+ * notification (or opening while the endpoint is polled) doesn't call the instance again. Polling
+ * stops when the last subscriber leaves. The subscribers are grouped by headers (the credentials
+ * of the user), each group being polled with its own headers and getting only the snapshots
+ * fetched with them: a subscriber refused by the instance never sees another user's data.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-14
+ */
+@Component
+public class ActuatorPollingHub implements HasLogger {
+
+  private final ActuatorClient actuatorClient;
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, Poll> polls = new ConcurrentHashMap<>();
+
+  public ActuatorPollingHub(ActuatorClient actuatorClient, AppProperties appProperties) {
+    this.actuatorClient = actuatorClient;
+    this.scheduler = Executors
+        .newScheduledThreadPool(appProperties.getActuatorClient().getPollerThreads());
+  }
+
+  /**
+   * Subscribe to an endpoint, the listener is called from the poller thread after each fetch (and
+   * right away with the last snapshot if there is one)
+   *
+   * @param url the endpoint url
+   * @param interval how often the listener wants a fresh snapshot
+   * @param headers the headers to use, evaluated on each poll (authorization tokens expire)
+   * @param listener the listener
+   * @return the registration to remove to stop receiving snapshots
+   */
+  public Registration subscribe(String url, Duration interval, Supplier<HttpHeaders> headers,
+      Consumer<ActuatorSnapshot> listener) {
+    Subscription subscription = new Subscription(interval.toMillis(), headers, listener);
+    Poll poll = polls.compute(url, (key, existing) -> {
+      Poll result = existing == null ? new Poll(url) : existing;
+      result.add(subscription);
+      return result;
+    });
+    ActuatorSnapshot lastSnapshot = poll.lastSnapshots.get(headers.get());
+    if (lastSnapshot != null) {
+      listener.accept(lastSnapshot);
+    }
+    return () -> polls.computeIfPresent(url, (key, existing) -> existing.remove(subscription)
+        ? null : existing);
+  }
+
+  /**
+   * Get the body of an endpoint, from the last snapshot fetched with the same headers if the
+   * endpoint is polled and the snapshot is not older than the polling interval, from the instance
+   * otherwise
+   */
+  public ActuatorSnapshot get(String url, Supplier<HttpHeaders> headers) {
+    HttpHeaders httpHeaders = headers.get();
+    Poll poll = polls.get(url);
+    if (poll != null) {
+      ActuatorSnapshot lastSnapshot = poll.lastSnapshots.get(httpHeaders);
+      if (lastSnapshot != null && lastSnapshot.isYoungerThan(poll.intervalMillis)) {
+        return lastSnapshot;
+      }
+    }
+    ActuatorSnapshot snapshot = fetch(url, httpHeaders);
+    if (poll != null) {
+      poll.lastSnapshots.put(httpHeaders, snapshot);
+    }
+    return snapshot;
+  }
+
+  public int getPolledEndpointCount() {
+    return polls.size();
+  }
+
+  @PreDestroy
+  public void close() {
+    scheduler.shutdownNow();
+  }
+
+  protected ActuatorSnapshot fetch(String url, HttpHeaders headers) {
+    String body = actuatorClient.getRestTemplate()
+        .exchange(URI.create(url), HttpMethod.GET, new HttpEntity<>(headers), String.class)
+        .getBody();
+    return new ActuatorSnapshot(url, body, Instant.now());
+  }
+
+  private static class Subscription {
+
+    private final long intervalMillis;
+    private final Supplier<HttpHeaders> headers;
+    private final Consumer<ActuatorSnapshot> listener;
+
+    private Subscription(long intervalMillis, Supplier<HttpHeaders> headers,
+        Consumer<ActuatorSnapshot> listener) {
+      this.intervalMillis = intervalMillis;
+      this.headers = headers;
+      this.listener = listener;
+    }
+  }
+
+  /**
+   * Polling state of one endpoint, modified only from the map compute functions
+   */
+  private class Poll {
+
+    private final String url;
+    private final Map<Subscription, Boolean> subscriptions = new ConcurrentHashMap<>();
+    private volatile long intervalMillis = Long.MAX_VALUE;
+    private final Map<HttpHeaders, ActuatorSnapshot> lastSnapshots = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> future;
+
+    private Poll(String url) {
+      this.url = url;
+    }
+
+    private void add(Subscription subscription) {
+      subscriptions.put(subscription, Boolean.TRUE);
+      reschedule();
+    }
+
+    /**
+     * @return true when there is no more subscriber
+     */
+    private boolean remove(Subscription subscription) {
+      subscriptions.remove(subscription);
+      if (subscriptions.isEmpty()) {
+        logger().debug(getLoggerPrefix("remove", url) + "No more subscriber, stop polling");
+        future.cancel(false);
+        return true;
+      }
+      reschedule();
+      return false;
+    }
+
+    private void reschedule() {
+      long newInterval = subscriptions.keySet().stream().mapToLong(s -> s.intervalMillis).min()
+          .orElse(Long.MAX_VALUE);
+      if (future != null && newInterval == intervalMillis) {
+        return;
+      }
+      if (future != null) {
+        future.cancel(false);
+      }
+      intervalMillis = newInterval;
+      long initialDelay = lastSnapshots.isEmpty() ? 0 : newInterval;
+      future = scheduler
+          .scheduleWithFixedDelay(this::poll, initialDelay, newInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+      String loggerPrefix = getLoggerPrefix("poll", url);
+      Map<HttpHeaders, List<Subscription>> subscriptionsPerHeaders = new HashMap<>();
+      subscriptions.keySet().forEach(subscription -> subscriptionsPerHeaders
+          .computeIfAbsent(subscription.headers.get(), headers -> new ArrayList<>())
+          .add(subscription));
+      for (Map.Entry<HttpHeaders, List<Subscription>> entry : subscriptionsPerHeaders
+          .entrySet()) {
+        ActuatorSnapshot snapshot;
+        try {
+          snapshot = fetch(url, entry.getKey());
+        } catch (HttpClientErrorException e) {
+          if (e.getStatusCode() != HttpStatus.UNAUTHORIZED
+              && e.getStatusCode() != HttpStatus.FORBIDDEN) {
+            logger().warn(loggerPrefix + "Cannot fetch : " + e.getMessage());
+            return;
+          }
+          // Only the subscribers using these headers are refused, the others are still polled
+          logger().debug(loggerPrefix + "Refused (" + e.getStatusCode() + ") for "
+              + entry.getValue().size() + " subscriber(s)");
+          lastSnapshots.remove(entry.getKey());
+          continue;
+        } catch (Exception e) {
+          logger().warn(loggerPrefix + "Cannot fetch : " + e.getMessage());
+          return;
+        }
+        lastSnapshots.put(entry.getKey(), snapshot);
+        entry.getValue().forEach(subscription -> {
+          try {
+            subscription.listener.accept(snapshot);
+          } catch (Exception e) {
+            logger().warn(loggerPrefix + "Listener failed : " + e.getMessage());
+          }
+        });
+      }
+      // The snapshots of the users who left are not needed anymore
+      lastSnapshots.keySet().retainAll(subscriptionsPerHeaders.keySet());
+    }
+  }
+}
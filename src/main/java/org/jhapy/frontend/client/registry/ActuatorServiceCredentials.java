@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import java.util.Collections;
+import org.apache.commons.lang3.StringUtils;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Credentials of this application itself, for the actuator calls made without any user (see
+ * <code>jhapy.actuator-client.client-registration-id</code>). The token is obtained with the
+ * client credentials grant, kept by the authorized client service and renewed when it expires.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-21
+ */
+@Component
+public class ActuatorServiceCredentials implements HasLogger {
+
+  private static final String PRINCIPAL = "actuator-client";
+
+  private final String clientRegistrationId;
+  private final AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager;
+
+  public ActuatorServiceCredentials(AppProperties appProperties,
+      ObjectProvider<ClientRegistrationRepository> clientRegistrationRepository,
+      ObjectProvider<OAuth2AuthorizedClientService> authorizedClientService) {
+    this.clientRegistrationId = appProperties.getActuatorClient().getClientRegistrationId();
+    ClientRegistrationRepository registrations = clientRegistrationRepository.getIfAvailable();
+    OAuth2AuthorizedClientService clientService = authorizedClientService.getIfAvailable();
+    if (StringUtils.isBlank(clientRegistrationId) || registrations == null
+        || clientService == null) {
+      this.authorizedClientManager = null;
+    } else {
+      this.authorizedClientManager = new AuthorizedClientServiceOAuth2AuthorizedClientManager(
+          registrations, clientService);
+      this.authorizedClientManager.setAuthorizedClientProvider(
+          OAuth2AuthorizedClientProviderBuilder.builder().clientCredentials().build());
+    }
+  }
+
+  public boolean isAvailable() {
+    return authorizedClientManager != null;
+  }
+
+  public HttpHeaders getHeaders(MediaType accept) {
+    HttpHeaders httpHeaders = new HttpHeaders();
+    OAuth2AuthorizedClient authorizedClient = authorizedClientManager.authorize(
+        OAuth2AuthorizeRequest.withClientRegistrationId(clientRegistrationId)
+            .principal(PRINCIPAL).build());
+    if (authorizedClient != null) {
+      httpHeaders.setBearerAuth(authorizedClient.getAccessToken().getTokenValue());
+    } else {
+      logger().warn(getLoggerPrefix("getHeaders") + "No token for " + clientRegistrationId);
+    }
+    httpHeaders.setAccept(Collections.singletonList(accept));
+    return httpHeaders;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Last response of an actuator endpoint, as fetched by the {@link ActuatorPollingHub}
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-14
+ */
+@Getter
+@ToString(exclude = {"body", "payloads"})
+@RequiredArgsConstructor
+public class ActuatorSnapshot {
+
+  private final String url;
+  private final String body;
+  private final Instant fetchedAt;
+  private final Map<Class<?>, Object> payloads = new ConcurrentHashMap<>();
+
+  /**
+   * Decode the body, once per type, the views sharing the snapshot share the payload (which must
+   * not be modified)
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getPayload(Class<T> type, ObjectMapper objectMapper) {
+    return (T) payloads.computeIfAbsent(type, key -> {
+      try {
+        return objectMapper.readValue(body, type);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  public boolean isYoungerThan(long maxAgeMillis) {
+    return fetchedAt.plusMillis(maxAgeMillis).isAfter(Instant.now());
+  }
+}
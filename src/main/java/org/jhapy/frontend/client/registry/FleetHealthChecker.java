@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.client.registry.actuator.HealthStatus;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Checks the health of many instances at once. The calls run on a fixed pool, which caps the
+ * number of calls in flight for all the users, and each one has its own connect and read
+ * timeouts (counted from when the call starts, not from when it was queued), so a slow instance
+ * only delays its own result.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@Component
+public class FleetHealthChecker implements HasLogger {
+
+  private final RestTemplate restTemplate;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService executor;
+
+  public FleetHealthChecker(ActuatorClient actuatorClient, AppProperties appProperties) {
+    AppProperties.ActuatorClient clientProperties = appProperties.getActuatorClient();
+    Duration timeout = clientProperties.getFleetHealthTimeout();
+    this.restTemplate = actuatorClient.createRestTemplate(timeout);
+    this.objectMapper = actuatorClient.getObjectMapper();
+    this.executor = Executors.newFixedThreadPool(clientProperties.getFleetHealthConcurrency());
+  }
+
+  /**
+   * Check the given instances, each one being completed and passed to the listener (from a pool
+   * thread) as soon as its check is done
+   *
+   * @return completed when all the checks are done
+   */
+  public CompletableFuture<Void> check(List<InstanceHealth> instances,
+      Supplier<HttpHeaders> headers, Consumer<InstanceHealth> listener) {
+    HttpHeaders httpHeaders = headers.get();
+    return CompletableFuture.allOf(instances.stream()
+        .map(instance -> CompletableFuture
+            .supplyAsync(() -> {
+              long start = System.nanoTime();
+              String status = fetchStatus(instance.getHealthCheckUrl(), httpHeaders);
+              instance.complete(status,
+                  TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), null);
+              return instance;
+            }, executor)
+            .exceptionally(t -> {
+              Throwable cause = t instanceof CompletionException ? t.getCause() : t;
+              if (isTimeout(cause)) {
+                instance.complete(InstanceHealth.TIMEOUT, null, null);
+              } else {
+                instance.complete(InstanceHealth.ERROR, null, cause.getMessage());
+              }
+              return instance;
+            })
+            .thenAccept(listener))
+        .toArray(CompletableFuture[]::new));
+  }
+
+  @PreDestroy
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private boolean isTimeout(Throwable t) {
+    // SocketTimeoutException and ConnectTimeoutException, wrapped in a ResourceAccessException
+    for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+      if (cause instanceof InterruptedIOException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  protected String fetchStatus(String url, HttpHeaders httpHeaders) {
+    String body;
+    try {
+      body = restTemplate.exchange(URI.create(url), HttpMethod.GET,
+          new HttpEntity<>(httpHeaders), String.class).getBody();
+    } catch (HttpStatusCodeException e) {
+      // A DOWN instance answers 503 with its health
+      body = e.getResponseBodyAsString();
+      if (body.isEmpty()) {
+        throw e;
+      }
+    }
+    try {
+      HealthStatus healthStatus = objectMapper.readValue(body, HealthStatus.class);
+      return healthStatus.getStatus() == null ? "UNKNOWN" : healthStatus.getStatus();
+    } catch (Exception e) {
+      throw new IllegalStateException("Not an health response : " + e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Health of one instance on the fleet board, <code>PENDING</code> until its check completes
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@Getter
+@ToString
+public class InstanceHealth {
+
+  public static final String PENDING = "PENDING";
+  public static final String TIMEOUT = "TIMEOUT";
+  public static final String ERROR = "ERROR";
+
+  private final String application;
+  private final String instanceId;
+  private final String healthCheckUrl;
+  private volatile String status = PENDING;
+  private volatile Long responseTime;
+  private volatile String error;
+
+  public InstanceHealth(String application, String instanceId, String healthCheckUrl) {
+    this.application = application;
+    this.instanceId = instanceId;
+    this.healthCheckUrl = healthCheckUrl;
+  }
+
+  void complete(String status, Long responseTime, String error) {
+    this.status = status;
+    this.responseTime = responseTime;
+    this.error = error;
+  }
+
+  public boolean isPending() {
+    return PENDING.equals(status);
+  }
+}
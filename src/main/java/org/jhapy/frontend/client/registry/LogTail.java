@@ -0,0 +1,373 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jhapy.commons.utils.HasLogger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Follows the actuator <code>/logfile</code> of an instance. The first call reads the end of the
+ * file, the next ones only the bytes appended since (HTTP Range requests), and only the last lines
+ * are kept, so the memory used doesn't depend on the size of the log file. A rotated (shorter)
+ * file is read again from its end. When an instance doesn't honor the Range header, the whole file
+ * is streamed and only its last bytes are kept.
+ * <p>
+ * The search only scans the end of the file, on a small shared pool so the UI thread never waits
+ * for it.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-15
+ */
+public class LogTail implements HasLogger {
+
+  private static final Pattern CONTENT_RANGE = Pattern
+      .compile("bytes (?:(\\d+)-(\\d+)|\\*)/(\\d+|\\*)");
+
+  private static final ThreadPoolExecutor grepExecutor = createGrepExecutor();
+
+  private final RestTemplate restTemplate;
+  private final String url;
+  private final Supplier<HttpHeaders> headers;
+  private final int initialBytes;
+
+  private final String[] lines;
+  private int start = 0;
+  private int size = 0;
+
+  /**
+   * Next byte to read, -1 until the end of the file is known
+   */
+  private long offset = -1;
+  /**
+   * Bytes after the last line break, completed by the next read
+   */
+  private byte[] partialLine = new byte[0];
+  /**
+   * The end of the file was read from the middle of a line, the first line read is incomplete
+   */
+  private boolean skipToNextLine = false;
+
+  public LogTail(RestTemplate restTemplate, String url, Supplier<HttpHeaders> headers,
+      int maxLines, int initialBytes) {
+    this.restTemplate = restTemplate;
+    this.url = url;
+    this.headers = headers;
+    this.lines = new String[maxLines];
+    this.initialBytes = initialBytes;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  /**
+   * Read what was appended to the file since the last call, at most <code>initialBytes</code>
+   * (older bytes are skipped)
+   *
+   * @return the new complete lines (at most the number of lines kept)
+   */
+  public synchronized List<String> fetchNewLines() {
+    String loggerPrefix = getLoggerPrefix("fetchNewLines", url);
+    HttpHeaders httpHeaders = headers.get();
+    httpHeaders.set(HttpHeaders.RANGE,
+        offset < 0 ? "bytes=-" + initialBytes : "bytes=" + offset + "-");
+
+    try {
+      return restTemplate.execute(URI.create(url), HttpMethod.GET,
+          request -> request.getHeaders().putAll(httpHeaders),
+          this::readNewLines);
+    } catch (HttpClientErrorException e) {
+      if (e.getStatusCode() != HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+        throw e;
+      }
+      long length = getLength(e.getResponseHeaders());
+      if (offset > 0 && length >= 0 && length < offset) {
+        logger().debug(loggerPrefix + "Log file rotated, read again from its end");
+        clear();
+        return fetchNewLines();
+      }
+      // Nothing new
+      return Collections.emptyList();
+    }
+  }
+
+  private List<String> readNewLines(ClientHttpResponse response) throws IOException {
+    Tail tail = readTail(response.getBody(), initialBytes);
+    if (response.getStatusCode() == HttpStatus.PARTIAL_CONTENT) {
+      Matcher matcher = getContentRange(response.getHeaders());
+      long first = matcher != null && matcher.group(1) != null ? Long.parseLong(matcher.group(1))
+          : Math.max(offset, 0);
+      if (tail.isTruncated()) {
+        partialLine = new byte[0];
+        skipToNextLine = true;
+      } else if (offset < 0 && first > 0) {
+        skipToNextLine = true;
+      }
+      offset = first + tail.length;
+    } else {
+      // Range not supported, the whole file was sent
+      logger().debug(getLoggerPrefix("readNewLines", url) + "Range not honored, got "
+          + tail.length + " bytes");
+      clear();
+      skipToNextLine = tail.isTruncated();
+      offset = tail.length;
+    }
+    return append(tail.bytes);
+  }
+
+  /**
+   * @return the lines kept, oldest first
+   */
+  public synchronized List<String> getLines() {
+    List<String> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(lines[(start + i) % lines.length]);
+    }
+    return result;
+  }
+
+  public int getMaxLines() {
+    return lines.length;
+  }
+
+  /**
+   * Search the last <code>maxBytes</code> of the file, on the shared search pool
+   *
+   * @param text the text to look for, case insensitive
+   * @param maxMatches number of matches returned, the last ones
+   * @param timeout the search stops there, returning what was found so far
+   */
+  public CompletableFuture<List<String>> grepAsync(String text, int maxMatches, long maxBytes,
+      Duration timeout) {
+    return CompletableFuture.supplyAsync(() -> grep(text, maxMatches, maxBytes, timeout),
+        grepExecutor);
+  }
+
+  /**
+   * Search the last <code>maxBytes</code> of the file, read as a stream, only the matching lines
+   * are kept
+   *
+   * @param text the text to look for, case insensitive
+   * @param maxMatches number of matches returned, the last ones
+   * @param timeout the search stops there, returning what was found so far
+   */
+  public List<String> grep(String text, int maxMatches, long maxBytes, Duration timeout) {
+    String needle = text.toLowerCase();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    HttpHeaders httpHeaders = headers.get();
+    httpHeaders.set(HttpHeaders.RANGE, "bytes=-" + maxBytes);
+    try {
+      return restTemplate.execute(URI.create(url), HttpMethod.GET,
+          request -> request.getHeaders().putAll(httpHeaders),
+          response -> {
+            InputStream body = response.getBody();
+            boolean skipFirstLine = false;
+            if (response.getStatusCode() == HttpStatus.PARTIAL_CONTENT) {
+              Matcher matcher = getContentRange(response.getHeaders());
+              skipFirstLine = matcher != null && matcher.group(1) != null
+                  && Long.parseLong(matcher.group(1)) > 0;
+            } else {
+              // Range not supported, skip to the end when the length is known
+              long length = response.getHeaders().getContentLength();
+              if (length > maxBytes) {
+                body.skipNBytes(length - maxBytes);
+                skipFirstLine = true;
+              }
+            }
+
+            Deque<String> matches = new ArrayDeque<>();
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8))) {
+              if (skipFirstLine) {
+                reader.readLine();
+              }
+              String line;
+              while ((line = reader.readLine()) != null) {
+                if (line.toLowerCase().contains(needle)) {
+                  matches.addLast(line);
+                  if (matches.size() > maxMatches) {
+                    matches.removeFirst();
+                  }
+                }
+                if (System.nanoTime() > deadline) {
+                  logger().debug(getLoggerPrefix("grep", url) + "Timeout, partial result");
+                  break;
+                }
+              }
+            }
+            return new ArrayList<>(matches);
+          });
+    } catch (HttpClientErrorException e) {
+      if (e.getStatusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE) {
+        // Empty file
+        return Collections.emptyList();
+      }
+      throw e;
+    }
+  }
+
+  private List<String> append(byte[] bytes) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(partialLine.length + bytes.length);
+    buffer.write(partialLine, 0, partialLine.length);
+    buffer.write(bytes, 0, bytes.length);
+    byte[] data = buffer.toByteArray();
+
+    Deque<String> newLines = new ArrayDeque<>();
+    int lineStart = 0;
+    for (int i = 0; i < data.length; i++) {
+      if (data[i] == '\n') {
+        int lineEnd = i > lineStart && data[i - 1] == '\r' ? i - 1 : i;
+        if (skipToNextLine) {
+          skipToNextLine = false;
+        } else {
+          newLines.addLast(new String(data, lineStart, lineEnd - lineStart,
+              StandardCharsets.UTF_8));
+          if (newLines.size() > lines.length) {
+            newLines.removeFirst();
+          }
+        }
+        lineStart = i + 1;
+      }
+    }
+    partialLine = skipToNextLine ? new byte[0] : Arrays
+        .copyOfRange(data, lineStart, data.length);
+
+    newLines.forEach(this::add);
+    return new ArrayList<>(newLines);
+  }
+
+  private void add(String line) {
+    int index = (start + size) % lines.length;
+    lines[index] = line;
+    if (size < lines.length) {
+      size++;
+    } else {
+      start = (start + 1) % lines.length;
+    }
+  }
+
+  private void clear() {
+    start = 0;
+    size = 0;
+    offset = -1;
+    partialLine = new byte[0];
+    skipToNextLine = false;
+  }
+
+  /**
+   * Read the stream to its end, keeping only its last <code>maxBytes</code>
+   */
+  private static Tail readTail(InputStream in, int maxBytes) throws IOException {
+    byte[] ring = new byte[maxBytes];
+    byte[] chunk = new byte[8192];
+    long length = 0;
+    int read;
+    while ((read = in.read(chunk)) != -1) {
+      for (int i = 0; i < read; ) {
+        int position = (int) (length % maxBytes);
+        int count = Math.min(read - i, maxBytes - position);
+        System.arraycopy(chunk, i, ring, position, count);
+        i += count;
+        length += count;
+      }
+    }
+    if (length <= maxBytes) {
+      return new Tail(Arrays.copyOf(ring, (int) length), length);
+    }
+    byte[] bytes = new byte[maxBytes];
+    int position = (int) (length % maxBytes);
+    System.arraycopy(ring, position, bytes, 0, maxBytes - position);
+    System.arraycopy(ring, 0, bytes, maxBytes - position, position);
+    return new Tail(bytes, length);
+  }
+
+  private static ThreadPoolExecutor createGrepExecutor() {
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(20), r -> {
+      Thread thread = new Thread(r, "log-grep-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private Matcher getContentRange(HttpHeaders httpHeaders) {
+    String contentRange = httpHeaders == null ? null
+        : httpHeaders.getFirst(HttpHeaders.CONTENT_RANGE);
+    if (contentRange == null) {
+      return null;
+    }
+    Matcher matcher = CONTENT_RANGE.matcher(contentRange);
+    return matcher.matches() ? matcher : null;
+  }
+
+  private long getLength(HttpHeaders httpHeaders) {
+    Matcher matcher = getContentRange(httpHeaders);
+    return matcher == null || matcher.group(3).equals("*") ? -1
+        : Long.parseLong(matcher.group(3));
+  }
+
+  /**
+   * The last bytes of a stream, and the number of bytes the stream had
+   */
+  private static class Tail {
+
+    private final byte[] bytes;
+    private final long length;
+
+    Tail(byte[] bytes, long length) {
+      this.bytes = bytes;
+      this.length = length;
+    }
+
+    boolean isTruncated() {
+      return length > bytes.length;
+    }
+  }
+}
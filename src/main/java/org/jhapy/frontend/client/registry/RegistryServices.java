@@ -36,6 +36,18 @@ public class RegistryServices {
     return getApplicationContext().getBean(EurekaService.class);
   }
 
+  public static ActuatorClient getActuatorClient() {
+    return getApplicationContext().getBean(ActuatorClient.class);
+  }
+
+  public static ActuatorPollingHub getActuatorPollingHub() {
+    return getApplicationContext().getBean(ActuatorPollingHub.class);
+  }
+
+  public static FleetHealthChecker getFleetHealthChecker() {
+    return getApplicationContext().getBean(FleetHealthChecker.class);
+  }
+
   public static ApplicationContext getApplicationContext() {
     ServletContext servletContext = SpringServlet.getCurrent().getServletContext();
     return WebApplicationContextUtils.getWebApplicationContext(servletContext);
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry.actuator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Payload of the <code>/configprops</code> endpoint
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@Data
+public class ConfigPropsPayload {
+
+  /**
+   * Application contexts by id
+   */
+  private Map<String, Context> contexts = new LinkedHashMap<>();
+
+  @Data
+  public static class Context {
+
+    private Map<String, Bean> beans = new LinkedHashMap<>();
+  }
+
+  @Data
+  public static class Bean {
+
+    private String prefix;
+    private Map<String, Object> properties = new LinkedHashMap<>();
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry.actuator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Payload of the <code>/env</code> endpoint
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@Data
+public class EnvPayload {
+
+  private List<String> activeProfiles = new ArrayList<>();
+  private List<PropertySource> propertySources = new ArrayList<>();
+
+  @Data
+  public static class PropertySource {
+
+    private String name;
+    private Map<String, PropertyValue> properties = new LinkedHashMap<>();
+  }
+
+  @Data
+  public static class PropertyValue {
+
+    private Object value;
+    private String origin;
+  }
+}
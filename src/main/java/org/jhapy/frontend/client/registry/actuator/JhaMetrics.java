@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry.actuator;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Payload of the <code>/jhametrics</code> endpoint. The garbage collector and database sections
+ * are kept as maps, they are converted to the registry DTOs without being parsed again.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@Data
+public class JhaMetrics {
+
+  /**
+   * Memory pools by name
+   */
+  private Map<String, MemoryPool> jvm = new LinkedHashMap<>();
+  private Map<String, Double> processMetrics = new HashMap<>();
+  private Map<String, Object> garbageCollector = new HashMap<>();
+  /**
+   * Timers by endpoint path and method
+   */
+  private Map<String, Map<String, TimerStats>> services = new LinkedHashMap<>();
+  /**
+   * Meters by cache name and meter name
+   */
+  private Map<String, Map<String, Double>> cache = new LinkedHashMap<>();
+  private Map<String, Object> databases = new HashMap<>();
+  @JsonProperty("http.server.requests")
+  private HttpServerRequests httpServerRequests = new HttpServerRequests();
+
+  @Data
+  public static class MemoryPool {
+
+    private Double committed;
+    private Double used;
+    private Double max;
+  }
+
+  @Data
+  public static class TimerStats {
+
+    private Double max;
+    private Double mean;
+    private Long count;
+  }
+
+  @Data
+  public static class HttpServerRequests {
+
+    private TimerStats all = new TimerStats();
+    /**
+     * Timers by HTTP status code
+     */
+    private Map<String, TimerStats> percode = new LinkedHashMap<>();
+  }
+}
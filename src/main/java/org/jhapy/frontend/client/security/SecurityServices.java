@@ -21,6 +21,8 @@ package org.jhapy.frontend.client.security;
 import com.vaadin.flow.spring.SpringServlet;
 import javax.servlet.ServletContext;
 import org.jhapy.frontend.client.security.keycloak.KeycloakClient;
+import org.jhapy.frontend.security.JHapyAccessDecisionVoter;
+import org.jhapy.frontend.security.RememberMeService;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.support.WebApplicationContextUtils;
@@ -41,6 +43,14 @@ public class SecurityServices {
     return getApplicationContext().getBean(SecurityRoleService.class);
   }
 
+  public static JHapyAccessDecisionVoter getAccessDecisionVoter() {
+    return getApplicationContext().getBean(JHapyAccessDecisionVoter.class);
+  }
+
+  public static RememberMeService getRememberMeService() {
+    return getApplicationContext().getBean(RememberMeService.class);
+  }
+
   public static KeycloakClient getKeycloakClient() {
     return getApplicationContext().getBean(KeycloakClient.class);
   }
@@ -18,15 +18,25 @@
 
 package org.jhapy.frontend.client.security.keycloak;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
 import org.apache.commons.lang3.StringUtils;
-import org.jhapy.commons.config.AppProperties;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.jhapy.commons.utils.HasLogger;
 import org.jhapy.commons.utils.OrikaBeanMapper;
 import org.jhapy.dto.domain.security.SecurityKeycloakGroup;
@@ -44,7 +54,10 @@ import org.jhapy.dto.serviceQuery.generic.SaveQuery;
 import org.jhapy.dto.serviceQuery.security.securityRole.GetSecurityRoleByNameQuery;
 import org.jhapy.dto.serviceQuery.security.securityUser.GetSecurityUserByUsernameQuery;
 import org.jhapy.dto.utils.Page;
+import org.jhapy.frontend.config.AppProperties;
+import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.KeycloakBuilder;
 import org.keycloak.admin.client.resource.GroupResource;
 import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.RoleResource;
@@ -65,6 +78,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 /**
+ * The admin client is created once and shared: RESTEasy keeps a pool of connections and the
+ * {@link org.keycloak.admin.client.token.TokenManager} keeps the admin token, refreshing it
+ * shortly before it expires instead of asking a new one for each call.
+ * <p>
+ * Pages of users and groups are enriched in parallel on a bounded executor, and grids can ask
+ * for a lighter page, the full entity being loaded when a row is opened.
+ * <p>
+ * Realm roles and groups are read from a {@link KeycloakRealmCache}, invalidated by the saves
+ * and deletes done here.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 12/06/2020
@@ -76,18 +99,77 @@ public class KeycloakClient implements HasLogger {
 
   protected final OrikaBeanMapper orikaBeanMapper;
 
+  protected final MeterRegistry meterRegistry;
+
+  private final ExecutorService enrichmentExecutor;
+
+  private final KeycloakRealmCache realmCache;
+
+  private volatile Keycloak keycloak;
+
   public KeycloakClient(AppProperties appProperties,
-      OrikaBeanMapper orikaBeanMapper) {
+      OrikaBeanMapper orikaBeanMapper, MeterRegistry meterRegistry) {
     this.appProperties = appProperties;
     this.orikaBeanMapper = orikaBeanMapper;
+    this.meterRegistry = meterRegistry;
+    this.enrichmentExecutor = Executors
+        .newFixedThreadPool(appProperties.getKeycloakAdminClient().getEnrichmentThreads());
+    this.realmCache = new KeycloakRealmCache(this::getKeycloakRealmInstance,
+        appProperties.getKeycloakAdminClient().getRealmCacheTtl());
   }
 
   public Keycloak getKeycloakInstance() {
-    return Keycloak.getInstance(appProperties.getKeycloakAdmin().getServerAuthUrl(),
-        appProperties.getKeycloakAdmin().getMasterRealm(),
-        appProperties.getKeycloakAdmin().getUsername(),
-        appProperties.getKeycloakAdmin().getPassword(),
-        appProperties.getKeycloakAdmin().getClientId());
+    Keycloak result = keycloak;
+    if (result == null) {
+      synchronized (this) {
+        result = keycloak;
+        if (result == null) {
+          result = keycloak = buildKeycloakInstance();
+        }
+      }
+    }
+    return result;
+  }
+
+  protected Keycloak buildKeycloakInstance() {
+    String loggerPrefix = getLoggerPrefix("buildKeycloakInstance");
+
+    AppProperties.KeycloakAdminClient clientProperties = appProperties.getKeycloakAdminClient();
+    logger().info(
+        loggerPrefix + "Create Keycloak admin client, pool size = " + clientProperties
+            .getConnectionPoolSize());
+
+    ResteasyClient resteasyClient = new ResteasyClientBuilder()
+        .connectionPoolSize(clientProperties.getConnectionPoolSize())
+        .maxPooledPerRoute(clientProperties.getConnectionPoolSize())
+        .establishConnectionTimeout(clientProperties.getConnectTimeout().toMillis(),
+            TimeUnit.MILLISECONDS)
+        .socketTimeout(clientProperties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+        .register(new KeycloakMetricsFilter(meterRegistry))
+        .build();
+
+    Keycloak result = KeycloakBuilder.builder()
+        .serverUrl(appProperties.getKeycloakAdmin().getServerAuthUrl())
+        .realm(appProperties.getKeycloakAdmin().getMasterRealm())
+        .username(appProperties.getKeycloakAdmin().getUsername())
+        .password(appProperties.getKeycloakAdmin().getPassword())
+        .clientId(appProperties.getKeycloakAdmin().getClientId())
+        .grantType(OAuth2Constants.PASSWORD)
+        .resteasyClient(resteasyClient)
+        .build();
+    result.tokenManager()
+        .setMinTokenValidity(clientProperties.getMinTokenValidity().getSeconds());
+
+    return result;
+  }
+
+  @PreDestroy
+  public void close() {
+    enrichmentExecutor.shutdownNow();
+    if (keycloak != null) {
+      keycloak.close();
+      keycloak = null;
+    }
   }
 
   public RealmResource getKeycloakRealmInstance() {
@@ -236,33 +318,28 @@ public class KeycloakClient implements HasLogger {
   }
 
   public ServiceResult<Page<SecurityKeycloakUser>> findUsers(FindAnyMatchingQuery query) {
-    int totalElements = getKeycloakRealmInstance().users().count(query.getFilter());
+    return findUsers(query, true);
+  }
+
+  /**
+   * @param withEffectiveRoles <code>false</code> to skip the effective roles (one call less per
+   * user), {@link #getUserById(GetByStrIdQuery)} returns the complete user
+   */
+  public ServiceResult<Page<SecurityKeycloakUser>> findUsers(FindAnyMatchingQuery query,
+      boolean withEffectiveRoles) {
+    RealmResource realmResource = getKeycloakRealmInstance();
+    int totalElements = realmResource.users().count(query.getFilter());
     int start =
         (query.getPageable().getPage() * query.getPageable().getSize()) + query.getPageable()
             .getOffset();
-    int end = Math.min(start + query.getPageable().getSize(), totalElements);
 
     Page<SecurityKeycloakUser> result = new Page<>();
 
-    List<UserRepresentation> users = getKeycloakRealmInstance().users()
-        .search(query.getFilter(), start, end);
-    result.setContent(users.stream().map(userRepresentation -> {
-      UserResource userResource = getKeycloakRealmInstance().users()
-          .get(userRepresentation.getId());
-      List<GroupRepresentation> groups = userResource.groups();
-      List<RoleRepresentation> roles = userResource.roles().realmLevel().listAll().stream()
-          .filter(roleRepresentation -> roleRepresentation.getName().startsWith("ROLE")).collect(
-              Collectors.toList());
-      List<RoleRepresentation> effectiveRoles = userResource.roles().realmLevel().listEffective();
-      SecurityKeycloakUser securityUser = orikaBeanMapper
-          .map(userResource.toRepresentation(), SecurityKeycloakUser.class);
-      securityUser.setGroups(orikaBeanMapper.mapAsList(groups, SecurityKeycloakGroup.class));
-      securityUser.setRoles(orikaBeanMapper.mapAsList(roles, SecurityKeycloakRole.class));
-      securityUser
-          .setEffectiveRoles(orikaBeanMapper.mapAsList(effectiveRoles, SecurityKeycloakRole.class));
-
-      return securityUser;
-    }).collect(Collectors.toList()));
+    List<UserRepresentation> users = realmResource.users()
+        .search(query.getFilter(), start, query.getPageable().getSize());
+    result.setContent(enrich(users,
+        userRepresentation -> toSecurityUser(realmResource, userRepresentation,
+            withEffectiveRoles)));
 
     result.setSize(result.getContent().size());
     result.setTotalElements((long) totalElements);
@@ -273,6 +350,37 @@ public class KeycloakClient implements HasLogger {
     return new ServiceResult<>(result);
   }
 
+  private SecurityKeycloakUser toSecurityUser(RealmResource realmResource,
+      UserRepresentation userRepresentation, boolean withEffectiveRoles) {
+    UserResource userResource = realmResource.users().get(userRepresentation.getId());
+    List<GroupRepresentation> groups = userResource.groups();
+    List<RoleRepresentation> roles = userResource.roles().realmLevel().listAll().stream()
+        .filter(roleRepresentation -> roleRepresentation.getName().startsWith("ROLE")).collect(
+            Collectors.toList());
+
+    SecurityKeycloakUser securityUser = orikaBeanMapper
+        .map(userRepresentation, SecurityKeycloakUser.class);
+    securityUser.setGroups(orikaBeanMapper.mapAsList(groups, SecurityKeycloakGroup.class));
+    securityUser.setRoles(orikaBeanMapper.mapAsList(roles, SecurityKeycloakRole.class));
+    if (withEffectiveRoles) {
+      List<RoleRepresentation> effectiveRoles = userResource.roles().realmLevel().listEffective();
+      securityUser
+          .setEffectiveRoles(orikaBeanMapper.mapAsList(effectiveRoles, SecurityKeycloakRole.class));
+    }
+
+    return securityUser;
+  }
+
+  /**
+   * Map each item of a page on the enrichment executor, keeping the page order
+   */
+  private <S, T> List<T> enrich(List<S> items, Function<S, T> mapper) {
+    List<CompletableFuture<T>> futures = items.stream()
+        .map(item -> CompletableFuture.supplyAsync(() -> mapper.apply(item), enrichmentExecutor))
+        .collect(Collectors.toList());
+    return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+  }
+
   public ServiceResult<Long> countUsers(CountAnyMatchingQuery query) {
     return new ServiceResult<>(
         getKeycloakRealmInstance().users().count(query.getFilter()).longValue());
@@ -295,7 +403,7 @@ public class KeycloakClient implements HasLogger {
 
   public ServiceResult<List<SecurityKeycloakRole>> getRoles() {
     return new ServiceResult(orikaBeanMapper.mapAsList(
-        getKeycloakRealmInstance().roles().list().stream()
+        realmCache.getRoles().stream()
             .filter(roleRepresentation -> roleRepresentation.getName().startsWith("ROLE")).collect(
             Collectors.toList()), SecurityKeycloakRole.class));
   }
@@ -303,9 +411,7 @@ public class KeycloakClient implements HasLogger {
   public ServiceResult<SecurityKeycloakRole> getRoleByName(GetSecurityRoleByNameQuery query) {
     String loggerPrefix = getLoggerPrefix("getRoleByName");
 
-    Optional<RoleRepresentation> _roleRepresentation = getKeycloakRealmInstance().roles().list()
-        .stream().filter(roleRepresentation -> roleRepresentation.getName().equals(query.getName()))
-        .findFirst();
+    Optional<RoleRepresentation> _roleRepresentation = realmCache.getRoleByName(query.getName());
     if (_roleRepresentation.isEmpty()) {
       logger().warn(loggerPrefix + "Role not found (name=" + query.getName() + ")");
       return new ServiceResult<>(false, "Role not found", null);
@@ -318,19 +424,19 @@ public class KeycloakClient implements HasLogger {
   public ServiceResult<SecurityKeycloakRole> getRoleById(GetByStrIdQuery query) {
     String loggerPrefix = getLoggerPrefix("getRole");
 
-    RoleRepresentation roleRepresentation = getKeycloakRealmInstance().rolesById()
-        .getRole(query.getId());
-    if (roleRepresentation == null) {
+    Optional<RoleRepresentation> _roleRepresentation = realmCache.getRoleById(query.getId());
+    if (_roleRepresentation.isEmpty()) {
       logger().warn(loggerPrefix + "Role not found (id=" + query.getId() + ")");
       return new ServiceResult<>(false, "Role not found", null);
     } else {
       return new ServiceResult<>(
-          orikaBeanMapper.map(roleRepresentation, SecurityKeycloakRole.class));
+          orikaBeanMapper.map(_roleRepresentation.get(), SecurityKeycloakRole.class));
     }
   }
 
   public ServiceResult<Page<SecurityKeycloakRole>> findRoles(FindAnyMatchingQuery query) {
-    int totalElements = getKeycloakRealmInstance().roles().list(query.getFilter(), true).size();
+    List<RoleRepresentation> matchingRoles = realmCache.findRoles(query.getFilter());
+    int totalElements = matchingRoles.size();
     int start =
         (query.getPageable().getPage() * query.getPageable().getSize()) + query.getPageable()
             .getOffset();
@@ -338,8 +444,8 @@ public class KeycloakClient implements HasLogger {
 
     Page<SecurityKeycloakRole> result = new Page<>();
 
-    List<RoleRepresentation> roles = getKeycloakRealmInstance().roles()
-        .list(query.getFilter(), start, end, true);
+    List<RoleRepresentation> roles =
+        start < end ? matchingRoles.subList(start, end) : Collections.emptyList();
 
     result.setContent(orikaBeanMapper.mapAsList(roles, SecurityKeycloakRole.class));
 
@@ -353,8 +459,7 @@ public class KeycloakClient implements HasLogger {
   }
 
   public ServiceResult<Long> countRoles(CountAnyMatchingQuery query) {
-    return new ServiceResult<>(
-        (long) getKeycloakRealmInstance().roles().list(query.getFilter(), true).size());
+    return new ServiceResult<>((long) realmCache.findRoles(query.getFilter()).size());
   }
 
   public ServiceResult<SecurityKeycloakRole> saveRole(SaveQuery<SecurityKeycloakRole> query) {
@@ -363,12 +468,14 @@ public class KeycloakClient implements HasLogger {
       RoleRepresentation roleRepresentation = orikaBeanMapper
           .map(query.getEntity(), RoleRepresentation.class);
       roleResource.update(roleRepresentation);
+      realmCache.invalidateRoles();
 
       return getRoleById(new GetByStrIdQuery(query.getEntity().getId()));
     } else {
       RoleRepresentation roleRepresentation = orikaBeanMapper
           .map(query.getEntity(), RoleRepresentation.class);
       getKeycloakRealmInstance().roles().create(roleRepresentation);
+      realmCache.invalidateRoles();
 
       return getRoleByName(new GetSecurityRoleByNameQuery(query.getEntity().getName()));
     }
@@ -377,39 +484,34 @@ public class KeycloakClient implements HasLogger {
   public ServiceResult<Void> deleteRole(DeleteByStrIdQuery query) {
     String loggerPrefix = getLoggerPrefix("deleteRole");
 
-    List<RoleRepresentation> existing = getKeycloakRealmInstance().roles().list().stream()
-        .filter(roleRepresentation -> roleRepresentation.getId().equals(query.getId())).collect(
-            Collectors.toList());
+    Optional<RoleRepresentation> existing = realmCache.getRoleById(query.getId());
 
-    if (existing.size() == 0) {
+    if (existing.isEmpty()) {
       logger().warn(loggerPrefix + "Role not found (id=" + query.getId() + ")");
       return new ServiceResult<>(false, "Role does not exists", null);
     }
-    existing.forEach(roleRepresentation -> getKeycloakRealmInstance().roles()
-        .deleteRole(roleRepresentation.getName()));
-
-    if (getKeycloakRealmInstance().roles().list().stream()
-        .anyMatch(roleRepresentation -> roleRepresentation.getId().equals(query.getId()))) {
-      logger().warn(loggerPrefix + "Role not deleted (id=" + query.getId() + ")");
+    try {
+      getKeycloakRealmInstance().roles().deleteRole(existing.get().getName());
+    } catch (WebApplicationException e) {
+      logger().warn(loggerPrefix + "Role not deleted (id=" + query.getId() + ") : " + e
+          .getMessage());
       return new ServiceResult(false, "Role not deleted", null);
-    } else {
-      return new ServiceResult<>();
+    } finally {
+      realmCache.invalidateRoles();
     }
+    return new ServiceResult<>();
   }
 
   public ServiceResult<List<SecurityKeycloakGroup>> getGroups() {
     return new ServiceResult(orikaBeanMapper
-        .mapAsList(getKeycloakRealmInstance().groups().groups(), SecurityKeycloakGroup.class));
+        .mapAsList(realmCache.getGroups(), SecurityKeycloakGroup.class));
   }
 
   public ServiceResult<SecurityKeycloakGroup> getGroupByName(GetByNameQuery query) {
     String loggerPrefix = getLoggerPrefix("getGroupByName");
 
-    Optional<GroupRepresentation> _groupRepresentations = getKeycloakRealmInstance().groups()
-        .groups()
-        .stream()
-        .filter(groupRepresentation -> groupRepresentation.getName().equals(query.getName()))
-        .findFirst();
+    Optional<GroupRepresentation> _groupRepresentations = realmCache
+        .getGroupByName(query.getName());
     if (_groupRepresentations.isEmpty()) {
       logger().warn(loggerPrefix + "Group not found (name=" + query.getName() + ")");
       return new ServiceResult<>(false, "Group not found", null);
@@ -443,36 +545,40 @@ public class KeycloakClient implements HasLogger {
   }
 
   public ServiceResult<Page<SecurityKeycloakGroup>> findGroups(FindAnyMatchingQuery query) {
-    int totalElements = getKeycloakRealmInstance().groups().count(query.getFilter()).get("count")
-        .intValue();
+    return findGroups(query, true);
+  }
+
+  /**
+   * The direct roles of the groups come with the page and are resolved against the realm roles
+   * listed once.
+   *
+   * @param withDetails <code>false</code> to skip the effective roles and members (no call per
+   * group), {@link #getGroupById(GetByStrIdQuery)} returns the complete group
+   */
+  public ServiceResult<Page<SecurityKeycloakGroup>> findGroups(FindAnyMatchingQuery query,
+      boolean withDetails) {
+    RealmResource realmResource = getKeycloakRealmInstance();
+    int totalElements = (int) realmCache.countGroups(query.getFilter(),
+        filter -> realmResource.groups().count(filter).get("count"));
     int start =
         (query.getPageable().getPage() * query.getPageable().getSize()) + query.getPageable()
             .getOffset();
-    int end = Math.min(start + query.getPageable().getSize(), totalElements);
 
     Page<SecurityKeycloakGroup> result = new Page<>();
 
-    List<GroupRepresentation> groups = getKeycloakRealmInstance().groups()
-        .groups(query.getFilter(), start, end, true);
-
-    result.setContent(groups.stream().map(groupRepresentation -> {
-      GroupResource groupResource = getKeycloakRealmInstance().groups()
-          .group(groupRepresentation.getId());
-      List<RoleRepresentation> roles = groupResource.roles().realmLevel().listAll().stream()
-          .filter(roleRepresentation -> roleRepresentation.getName().startsWith("ROLE")).collect(
-              Collectors.toList());
-      List<RoleRepresentation> effectiveRoles = groupResource.roles().realmLevel().listAll();
-      List<UserRepresentation> members = groupResource.members();
-
-      SecurityKeycloakGroup securityGroup = orikaBeanMapper
-          .map(groupRepresentation, SecurityKeycloakGroup.class);
-      securityGroup.setRoles(orikaBeanMapper.mapAsList(roles, SecurityKeycloakRole.class));
-      securityGroup
-          .setEffectiveRoles(orikaBeanMapper.mapAsList(effectiveRoles, SecurityKeycloakRole.class));
-      securityGroup.setMembers(orikaBeanMapper.mapAsList(members, SecurityKeycloakUser.class));
+    Map<String, RoleRepresentation> realmRoles = realmCache.getRolesByName();
+    List<GroupRepresentation> groups = realmResource.groups()
+        .groups(query.getFilter(), start, query.getPageable().getSize(), false);
 
-      return securityGroup;
-    }).collect(Collectors.toList()));
+    if (withDetails) {
+      result.setContent(enrich(groups,
+          groupRepresentation -> toSecurityGroup(realmResource, groupRepresentation, realmRoles,
+              true)));
+    } else {
+      result.setContent(groups.stream()
+          .map(groupRepresentation -> toSecurityGroup(realmResource, groupRepresentation,
+              realmRoles, false)).collect(Collectors.toList()));
+    }
 
     result.setSize(result.getContent().size());
     result.setTotalElements((long) totalElements);
@@ -483,9 +589,36 @@ public class KeycloakClient implements HasLogger {
     return new ServiceResult<>(result);
   }
 
+  private SecurityKeycloakGroup toSecurityGroup(RealmResource realmResource,
+      GroupRepresentation groupRepresentation, Map<String, RoleRepresentation> realmRoles,
+      boolean withDetails) {
+    List<RoleRepresentation> roles = groupRepresentation.getRealmRoles() == null
+        ? Collections.emptyList()
+        : groupRepresentation.getRealmRoles().stream()
+            .filter(roleName -> roleName.startsWith("ROLE"))
+            .map(realmRoles::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+    SecurityKeycloakGroup securityGroup = orikaBeanMapper
+        .map(groupRepresentation, SecurityKeycloakGroup.class);
+    securityGroup.setRoles(orikaBeanMapper.mapAsList(roles, SecurityKeycloakRole.class));
+
+    if (withDetails) {
+      GroupResource groupResource = realmResource.groups().group(groupRepresentation.getId());
+      List<RoleRepresentation> effectiveRoles = groupResource.roles().realmLevel().listEffective();
+      List<UserRepresentation> members = groupResource.members();
+      securityGroup
+          .setEffectiveRoles(orikaBeanMapper.mapAsList(effectiveRoles, SecurityKeycloakRole.class));
+      securityGroup.setMembers(orikaBeanMapper.mapAsList(members, SecurityKeycloakUser.class));
+    }
+
+    return securityGroup;
+  }
+
   public ServiceResult<Long> countGroups(CountAnyMatchingQuery query) {
-    return new ServiceResult<>(
-        getKeycloakRealmInstance().groups().count(query.getFilter()).get("count"));
+    return new ServiceResult<>(realmCache.countGroups(query.getFilter(),
+        filter -> getKeycloakRealmInstance().groups().count(filter).get("count")));
   }
 
   public ServiceResult<SecurityKeycloakGroup> saveGroup(SaveQuery<SecurityKeycloakGroup> query) {
@@ -496,6 +629,7 @@ public class KeycloakClient implements HasLogger {
       GroupRepresentation groupRepresentation = orikaBeanMapper
           .map(query.getEntity(), GroupRepresentation.class);
       groupResource.update(groupRepresentation);
+      realmCache.invalidateGroups();
 
       if (groupResource.roles() != null && groupResource.roles().realmLevel() != null) {
         List<RoleRepresentation> groupRoles = groupResource.roles().realmLevel().listAll();
@@ -520,6 +654,7 @@ public class KeycloakClient implements HasLogger {
       if (response.getStatus() == 201) {
         String groupId = response.getLocation().getPath().replaceAll(".*/([^/]+)$", "$1");
         response.close();
+        realmCache.invalidateGroups();
         GroupResource groupResource = getKeycloakRealmInstance().groups().group(groupId);
         if (groupResource.roles() != null && groupResource.roles().realmLevel() != null) {
           List<RoleRepresentation> groupRoles = groupResource.roles().realmLevel().listAll();
@@ -554,15 +689,16 @@ public class KeycloakClient implements HasLogger {
       logger().warn(loggerPrefix + "Group not found (id=" + query.getId() + ")");
       return new ServiceResult<>(false, "Group does not exists", null);
     }
-    getKeycloakRealmInstance().groups().group(query.getId()).remove();
-
-    if (getKeycloakRealmInstance().groups().groups().stream()
-        .anyMatch(group -> group.getId().equals(query.getId()))) {
-      logger().warn(loggerPrefix + "Group not deleted (id=" + query.getId() + ")");
+    try {
+      getKeycloakRealmInstance().groups().group(query.getId()).remove();
+    } catch (WebApplicationException e) {
+      logger().warn(loggerPrefix + "Group not deleted (id=" + query.getId() + ") : " + e
+          .getMessage());
       return new ServiceResult(false, "Group not deleted", null);
-    } else {
-      return new ServiceResult<>();
+    } finally {
+      realmCache.invalidateGroups();
     }
+    return new ServiceResult<>();
   }
 
   public ServiceResult<MemoryInfo> getServerMemoryInfo() {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.client.security.keycloak;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+/**
+ * Records the latency of every call made by the Keycloak admin client, and counts the admin token
+ * grants (the token endpoint goes through the same client).
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-12
+ */
+public class KeycloakMetricsFilter implements ClientRequestFilter, ClientResponseFilter {
+
+  private static final String START_TIME = KeycloakMetricsFilter.class.getName() + ".startTime";
+  private static final String TOKEN_PATH = "/protocol/openid-connect/token";
+
+  private final MeterRegistry meterRegistry;
+
+  public KeycloakMetricsFilter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void filter(ClientRequestContext requestContext) {
+    requestContext.setProperty(START_TIME, System.nanoTime());
+  }
+
+  @Override
+  public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+    Object startTime = requestContext.getProperty(START_TIME);
+    boolean isTokenRequest = requestContext.getUri().getPath().endsWith(TOKEN_PATH);
+
+    if (startTime != null) {
+      meterRegistry.timer("keycloak.admin.requests",
+          "method", requestContext.getMethod(),
+          "type", isTokenRequest ? "token" : "admin",
+          "status", String.valueOf(responseContext.getStatus()))
+          .record(System.nanoTime() - (Long) startTime, TimeUnit.NANOSECONDS);
+    }
+    if (isTokenRequest) {
+      meterRegistry.counter("keycloak.admin.token.refresh").increment();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.client.security.keycloak;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+
+/**
+ * Short lived copy of the realm roles and of the group tree, so lookups by name or id, role
+ * searches and counts don't list the whole realm each time. Each part is reloaded after the TTL
+ * or when it is invalidated by a save or a delete.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-14
+ */
+public class KeycloakRealmCache {
+
+  private final Supplier<RealmResource> realmResourceSupplier;
+  private final Duration ttl;
+
+  private volatile Roles roles;
+  private volatile Groups groups;
+
+  public KeycloakRealmCache(Supplier<RealmResource> realmResourceSupplier, Duration ttl) {
+    this.realmResourceSupplier = realmResourceSupplier;
+    this.ttl = ttl;
+  }
+
+  public List<RoleRepresentation> getRoles() {
+    return getRoleSnapshot().all;
+  }
+
+  public Map<String, RoleRepresentation> getRolesByName() {
+    return getRoleSnapshot().byName;
+  }
+
+  public Optional<RoleRepresentation> getRoleByName(String name) {
+    return Optional.ofNullable(getRoleSnapshot().byName.get(name));
+  }
+
+  public Optional<RoleRepresentation> getRoleById(String id) {
+    return Optional.ofNullable(getRoleSnapshot().byId.get(id));
+  }
+
+  /**
+   * Same match as the Keycloak role search : the name or the description contains the filter,
+   * ignoring the case. The result is kept per filter until the roles are reloaded.
+   */
+  public List<RoleRepresentation> findRoles(String filter) {
+    Roles snapshot = getRoleSnapshot();
+    if (StringUtils.isBlank(filter)) {
+      return snapshot.all;
+    }
+    return snapshot.byFilter.computeIfAbsent(filter.toLowerCase(Locale.ROOT),
+        search -> Collections.unmodifiableList(snapshot.all.stream()
+            .filter(role -> contains(role.getName(), search) || contains(role.getDescription(),
+                search)).collect(Collectors.toList())));
+  }
+
+  public List<GroupRepresentation> getGroups() {
+    return getGroupSnapshot().topLevel;
+  }
+
+  public Optional<GroupRepresentation> getGroupByName(String name) {
+    return Optional.ofNullable(getGroupSnapshot().byName.get(name));
+  }
+
+  public Optional<GroupRepresentation> getGroupById(String id) {
+    return Optional.ofNullable(getGroupSnapshot().byId.get(id));
+  }
+
+  /**
+   * Group searches stay on the server (they return the matching part of the tree), only the
+   * count is kept per filter.
+   */
+  public long countGroups(String filter, Function<String, Long> loader) {
+    return getGroupSnapshot().countByFilter
+        .computeIfAbsent(filter == null ? "" : filter, key -> loader.apply(filter));
+  }
+
+  public void invalidateRoles() {
+    roles = null;
+  }
+
+  public void invalidateGroups() {
+    groups = null;
+  }
+
+  private Roles getRoleSnapshot() {
+    Roles result = roles;
+    if (result == null || result.isExpired(ttl)) {
+      synchronized (this) {
+        result = roles;
+        if (result == null || result.isExpired(ttl)) {
+          result = roles = new Roles(realmResourceSupplier.get().roles().list());
+        }
+      }
+    }
+    return result;
+  }
+
+  private Groups getGroupSnapshot() {
+    Groups result = groups;
+    if (result == null || result.isExpired(ttl)) {
+      synchronized (this) {
+        result = groups;
+        if (result == null || result.isExpired(ttl)) {
+          result = groups = new Groups(realmResourceSupplier.get().groups().groups());
+        }
+      }
+    }
+    return result;
+  }
+
+  private static boolean contains(String value, String search) {
+    return value != null && value.toLowerCase(Locale.ROOT).contains(search);
+  }
+
+  private static class Snapshot {
+
+    private final long loadedAt = System.currentTimeMillis();
+
+    boolean isExpired(Duration ttl) {
+      return System.currentTimeMillis() - loadedAt > ttl.toMillis();
+    }
+  }
+
+  private static final class Roles extends Snapshot {
+
+    private final List<RoleRepresentation> all;
+    private final Map<String, RoleRepresentation> byName = new HashMap<>();
+    private final Map<String, RoleRepresentation> byId = new HashMap<>();
+    private final Map<String, List<RoleRepresentation>> byFilter = new ConcurrentHashMap<>();
+
+    Roles(List<RoleRepresentation> roles) {
+      this.all = Collections.unmodifiableList(new ArrayList<>(roles));
+      roles.forEach(role -> {
+        byName.putIfAbsent(role.getName(), role);
+        byId.put(role.getId(), role);
+      });
+    }
+  }
+
+  private static final class Groups extends Snapshot {
+
+    private final List<GroupRepresentation> topLevel;
+    private final Map<String, GroupRepresentation> byName = new HashMap<>();
+    private final Map<String, GroupRepresentation> byId = new HashMap<>();
+    private final Map<String, Long> countByFilter = new ConcurrentHashMap<>();
+
+    Groups(List<GroupRepresentation> groups) {
+      this.topLevel = Collections.unmodifiableList(new ArrayList<>(groups));
+      index(groups);
+    }
+
+    private void index(List<GroupRepresentation> groups) {
+      groups.forEach(group -> {
+        byName.putIfAbsent(group.getName(), group);
+        byId.put(group.getId(), group);
+      });
+      groups.stream().filter(group -> group.getSubGroups() != null)
+          .forEach(group -> index(group.getSubGroups()));
+    }
+  }
+}
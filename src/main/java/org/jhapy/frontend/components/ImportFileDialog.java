@@ -27,9 +27,10 @@ import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.upload.Upload;
 import com.vaadin.flow.shared.Registration;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.util.function.Consumer;
-import org.jhapy.frontend.components.fileUpload.MemoryBuffer;
+import org.jhapy.frontend.components.fileUpload.SpillingBuffer;
 
 /**
  * A generic dialog for importing a file
@@ -44,7 +45,7 @@ public class ImportFileDialog<T extends Serializable> extends Dialog {
   private final Div messageLabel = new Div();
   private final Div extraMessageLabel = new Div();
   private final Upload fileUpload;
-  private final MemoryBuffer buffer = new MemoryBuffer();
+  private final SpillingBuffer buffer = new SpillingBuffer();
   private final Button confirmButton = new Button();
   private final Button cancelButton = new Button("Cancel");
   private Registration registrationForConfirm;
@@ -78,6 +79,7 @@ public class ImportFileDialog<T extends Serializable> extends Dialog {
     fileUpload.addSucceededListener(event -> {
       confirmButton.setEnabled(true);
     });
+    fileUpload.addFailedListener(event -> buffer.release());
 
     add(titleField, labels, fileUpload, buttonBar);
   }
@@ -93,12 +95,12 @@ public class ImportFileDialog<T extends Serializable> extends Dialog {
    * @param message Detail message (optional, may be empty)
    * @param additionalMessage Additional message (optional, may be empty)
    * @param actionName The action name to be shown on the Confirm button
-   * @param confirmHandler The confirmation handler function
+   * @param confirmHandler The confirmation handler function, reading the uploaded file
    * @param cancelHandler The cancellation handler function
    */
   public void open(String title, String message, String additionalMessage,
       String actionName,
-      Consumer<byte[]> confirmHandler, Runnable cancelHandler) {
+      Consumer<InputStream> confirmHandler, Runnable cancelHandler) {
     titleField.setText(title);
     messageLabel.setText(message);
     extraMessageLabel.setText(additionalMessage);
@@ -113,14 +115,25 @@ public class ImportFileDialog<T extends Serializable> extends Dialog {
       registrationForConfirm.remove();
     }
     registrationForConfirm = confirmButton
-        .addClickListener(e -> confirmHandler.accept(buffer.getBuf()));
+        .addClickListener(e -> {
+          try {
+            confirmHandler.accept(buffer.getInputStream());
+          } finally {
+            buffer.release();
+          }
+        });
     if (registrationForCancel != null) {
       registrationForCancel.remove();
     }
     registrationForCancel = cancelButton
-        .addClickListener(e -> cancelAction.run());
+        .addClickListener(e -> {
+          buffer.release();
+          cancelAction.run();
+        });
     this.addOpenedChangeListener(e -> {
       if (!e.isOpened()) {
+        // Also covers Esc and a click outside, releasing twice is harmless
+        buffer.release();
         cancelAction.run();
       }
     });
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.components.fileUpload;
+
+import com.vaadin.flow.component.upload.MultiFileReceiver;
+import com.vaadin.flow.server.VaadinSession;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Receiver of several files, each one being kept like in {@link SpillingBuffer}.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+public class MultiFileSpillingBuffer implements MultiFileReceiver {
+
+  private final UploadQuota quota;
+  private final Map<String, UploadedFile> files = new HashMap<>();
+
+  /**
+   * Must be created from a UI thread, to be counted in the quota of the current session
+   */
+  public MultiFileSpillingBuffer() {
+    this.quota = UploadQuota.get(VaadinSession.getCurrent());
+  }
+
+  @Override
+  public OutputStream receiveUpload(String fileName, String mimeType) {
+    UploadedFile file = new UploadedFile(fileName, mimeType, quota);
+    UploadedFile previous;
+    synchronized (files) {
+      previous = files.put(fileName, file);
+    }
+    if (previous != null) {
+      previous.release();
+    }
+    return file.openOutputStream();
+  }
+
+  public UploadedFile getFile(String fileName) {
+    synchronized (files) {
+      return files.get(fileName);
+    }
+  }
+
+  public InputStream getInputStream(String fileName) {
+    UploadedFile file = getFile(fileName);
+    return file == null ? InputStream.nullInputStream() : file.getInputStream();
+  }
+
+  public void release(String fileName) {
+    UploadedFile file;
+    synchronized (files) {
+      file = files.remove(fileName);
+    }
+    if (file != null) {
+      file.release();
+    }
+  }
+}
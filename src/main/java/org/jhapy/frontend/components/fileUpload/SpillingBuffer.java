@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.components.fileUpload;
+
+import com.vaadin.flow.component.upload.Receiver;
+import com.vaadin.flow.server.VaadinSession;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Receiver of a single file, kept in memory while it is small and written to a temporary file
+ * otherwise (see {@link UploadedFile}). Receiving a new file releases the previous one.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+public class SpillingBuffer implements Receiver {
+
+  private final UploadQuota quota;
+  private UploadedFile file;
+
+  /**
+   * Must be created from a UI thread, to be counted in the quota of the current session
+   */
+  public SpillingBuffer() {
+    this.quota = UploadQuota.get(VaadinSession.getCurrent());
+  }
+
+  @Override
+  public OutputStream receiveUpload(String fileName, String mimeType) {
+    release();
+    file = new UploadedFile(fileName, mimeType, quota);
+    return file.openOutputStream();
+  }
+
+  public UploadedFile getFile() {
+    return file;
+  }
+
+  public String getFileName() {
+    return file == null ? null : file.getFileName();
+  }
+
+  public String getMimeType() {
+    return file == null ? null : file.getMimeType();
+  }
+
+  public InputStream getInputStream() {
+    return file == null ? InputStream.nullInputStream() : file.getInputStream();
+  }
+
+  public void release() {
+    if (file != null) {
+      file.release();
+      file = null;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.components.fileUpload;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.jhapy.frontend.config.AppProperties;
+
+/**
+ * Settings of the upload receivers and the pool of memory chunks they share. Configured at
+ * startup from <code>jhapy.upload</code>.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+public final class UploadBuffers {
+
+  private static volatile AppProperties.Upload settings = new AppProperties.Upload();
+  private static volatile BlockingQueue<byte[]> chunkPool = new ArrayBlockingQueue<>(
+      settings.getMaxPooledChunks());
+
+  private UploadBuffers() {
+  }
+
+  public static void configure(AppProperties.Upload uploadSettings) {
+    settings = uploadSettings;
+    chunkPool = new ArrayBlockingQueue<>(Math.max(1, uploadSettings.getMaxPooledChunks()));
+  }
+
+  public static AppProperties.Upload getSettings() {
+    return settings;
+  }
+
+  static byte[] acquireChunk() {
+    byte[] chunk = chunkPool.poll();
+    return chunk != null && chunk.length == settings.getChunkSize() ? chunk
+        : new byte[settings.getChunkSize()];
+  }
+
+  /**
+   * Give back a chunk for the next uploads, dropped if the pool is full
+   */
+  static void releaseChunk(byte[] chunk) {
+    if (chunk.length == settings.getChunkSize()) {
+      chunkPool.offer(chunk);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.components.fileUpload;
+
+import com.vaadin.flow.server.VaadinSession;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bytes of uploaded files held by one user session, in memory or on disk. A write going over the
+ * quota fails the upload.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+public class UploadQuota {
+
+  private final long limit;
+  private final AtomicLong used = new AtomicLong();
+  private final Set<UploadedFile> files = ConcurrentHashMap.newKeySet();
+
+  UploadQuota(long limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * The quota of the given session, created if needed. The session must be locked.
+   */
+  public static UploadQuota get(VaadinSession session) {
+    if (session == null) {
+      return new UploadQuota(UploadBuffers.getSettings().getSessionQuota());
+    }
+    UploadQuota quota = session.getAttribute(UploadQuota.class);
+    if (quota == null) {
+      quota = new UploadQuota(UploadBuffers.getSettings().getSessionQuota());
+      session.setAttribute(UploadQuota.class, quota);
+    }
+    return quota;
+  }
+
+  public long getUsed() {
+    return used.get();
+  }
+
+  public long getLimit() {
+    return limit;
+  }
+
+  /**
+   * Release all the files still held, when the session is closed
+   */
+  public void releaseAll() {
+    new ArrayList<>(files).forEach(UploadedFile::release);
+  }
+
+  void reserve(long bytes) throws IOException {
+    if (used.addAndGet(bytes) > limit) {
+      used.addAndGet(-bytes);
+      throw new IOException("Upload quota of " + limit + " bytes exceeded");
+    }
+  }
+
+  void release(long bytes) {
+    used.addAndGet(-bytes);
+  }
+
+  void register(UploadedFile file) {
+    files.add(file);
+  }
+
+  void unregister(UploadedFile file) {
+    files.remove(file);
+  }
+}
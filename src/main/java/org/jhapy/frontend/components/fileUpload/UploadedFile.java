@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.components.fileUpload;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jhapy.frontend.config.AppProperties;
+
+/**
+ * One received file. It is kept in pooled memory chunks while it is smaller than the memory
+ * threshold, then moved to a temporary file. {@link #release()} must be called once the content
+ * has been consumed.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+public class UploadedFile {
+
+  private final String fileName;
+  private final String mimeType;
+  private final UploadQuota quota;
+
+  private final List<byte[]> chunks = new ArrayList<>();
+  private int lastChunkLength;
+  private long size;
+  private Path tempFile;
+  private OutputStream tempFileOutputStream;
+  private boolean released;
+
+  UploadedFile(String fileName, String mimeType, UploadQuota quota) {
+    this.fileName = fileName;
+    this.mimeType = mimeType;
+    this.quota = quota;
+    quota.register(this);
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  public String getMimeType() {
+    return mimeType;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public boolean isInMemory() {
+    return tempFile == null;
+  }
+
+  /**
+   * The content, read from the memory chunks or the temporary file without copying it
+   */
+  public InputStream getInputStream() {
+    if (released) {
+      throw new IllegalStateException(fileName + " has already been released");
+    }
+    if (tempFile != null) {
+      try {
+        return Files.newInputStream(tempFile);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    List<InputStream> streams = new ArrayList<>(chunks.size());
+    for (int i = 0; i < chunks.size(); i++) {
+      streams.add(new ByteArrayInputStream(chunks.get(i), 0,
+          i == chunks.size() - 1 ? lastChunkLength : chunks.get(i).length));
+    }
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  /**
+   * Give the memory chunks back to the pool and delete the temporary file
+   */
+  public synchronized void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    chunks.forEach(UploadBuffers::releaseChunk);
+    chunks.clear();
+    closeTempFile();
+    if (tempFile != null) {
+      try {
+        Files.deleteIfExists(tempFile);
+      } catch (IOException e) {
+        tempFile.toFile().deleteOnExit();
+      }
+    }
+    quota.release(size);
+    quota.unregister(this);
+  }
+
+  OutputStream openOutputStream() {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        append(b, off, len);
+      }
+
+      @Override
+      public void close() {
+        closeTempFile();
+      }
+    };
+  }
+
+  private synchronized void append(byte[] b, int off, int len) throws IOException {
+    if (released) {
+      throw new IOException(fileName + " has already been released");
+    }
+    quota.reserve(len);
+    AppProperties.Upload settings = UploadBuffers.getSettings();
+    if (tempFile != null || size + len > settings.getMemoryThreshold()) {
+      try {
+        if (tempFile == null) {
+          spill(settings);
+        }
+        tempFileOutputStream.write(b, off, len);
+      } catch (IOException e) {
+        quota.release(len);
+        throw e;
+      }
+    } else {
+      int remaining = len;
+      int offset = off;
+      while (remaining > 0) {
+        if (chunks.isEmpty() || lastChunkLength == chunks.get(chunks.size() - 1).length) {
+          chunks.add(UploadBuffers.acquireChunk());
+          lastChunkLength = 0;
+        }
+        byte[] chunk = chunks.get(chunks.size() - 1);
+        int count = Math.min(remaining, chunk.length - lastChunkLength);
+        System.arraycopy(b, offset, chunk, lastChunkLength, count);
+        lastChunkLength += count;
+        offset += count;
+        remaining -= count;
+      }
+    }
+    size += len;
+  }
+
+  private void spill(AppProperties.Upload settings) throws IOException {
+    tempFile = settings.getTempDirectory() == null ? Files.createTempFile("upload-", ".tmp")
+        : Files.createTempFile(Paths.get(settings.getTempDirectory()), "upload-", ".tmp");
+    tempFileOutputStream = new BufferedOutputStream(Files.newOutputStream(tempFile),
+        settings.getChunkSize());
+    for (int i = 0; i < chunks.size(); i++) {
+      byte[] chunk = chunks.get(i);
+      tempFileOutputStream.write(chunk, 0, i == chunks.size() - 1 ? lastChunkLength : chunk.length);
+      UploadBuffers.releaseChunk(chunk);
+    }
+    chunks.clear();
+    lastChunkLength = 0;
+  }
+
+  private synchronized void closeTempFile() {
+    if (tempFileOutputStream != null) {
+      try {
+        tempFileOutputStream.close();
+      } catch (IOException e) {
+        // Deleted just after
+      }
+      tempFileOutputStream = null;
+    }
+  }
+}
@@ -36,10 +36,8 @@ import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.Registration;
-import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
@@ -51,6 +49,7 @@ import org.jhapy.dto.domain.security.SecurityUser;
 import org.jhapy.dto.domain.user.BaseUser;
 import org.jhapy.dto.utils.AppContext;
 import org.jhapy.dto.utils.StoredFile;
+import org.jhapy.frontend.client.BaseServices;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.components.navigation.tab.NaviTab;
 import org.jhapy.frontend.components.navigation.tab.NaviTabs;
@@ -175,9 +174,7 @@ public class AppBar extends FlexBoxLayout {
     if (SecurityUtils.isUserLoggedIn()) {
       StoredFile userAvatar = AppContext.getInstance().getCurrentAvatar();
       if (userAvatar != null) {
-        StoredFile finalUserAvatar = userAvatar;
-        avatar.setSrc(new StreamResource(userAvatar.getFilename(),
-            () -> new ByteArrayInputStream(finalUserAvatar.getContent())));
+        avatar.setSrc(BaseServices.getResourceContentClient().createStreamResource(userAvatar));
       }
       Optional<String> currentUserLogin = SecurityUtils2.getCurrentUserLogin();
 
@@ -18,6 +18,9 @@
 
 package org.jhapy.frontend.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Data;
 import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -30,6 +33,24 @@ public class AppProperties extends org.jhapy.commons.config.AppProperties {
 
   private final LoginForm loginForm = new LoginForm();
 
+  private final I18nCache i18nCache = new I18nCache();
+
+  private final KeycloakAdminClient keycloakAdminClient = new KeycloakAdminClient();
+
+  private final ActuatorClient actuatorClient = new ActuatorClient();
+
+  private final MetricsHistory metricsHistory = new MetricsHistory();
+
+  private final MetricsEndpoint metricsEndpoint = new MetricsEndpoint();
+
+  private final StreamingClient streamingClient = new StreamingClient();
+
+  private final Upload upload = new Upload();
+
+  private final ReferenceCache referenceCache = new ReferenceCache();
+
+  private final RememberMe rememberMe = new RememberMe();
+
   @Data
   public static class LoginForm {
 
@@ -46,5 +67,209 @@ public class AppProperties extends org.jhapy.commons.config.AppProperties {
     private String facebookUrl;
     private String googleUrl;
     private String publicKey;
+    /**
+     * How long the roles allowed to log in are used before being loaded again
+     */
+    private Duration allowedLoginRolesTtl = Duration.ofMinutes(10);
+  }
+
+  @Data
+  public static final class I18nCache {
+
+    /**
+     * Languages loaded at startup, so the first users don't pay the bootstrap cost
+     */
+    private List<String> preloadLanguages = new ArrayList<>();
+
+    /**
+     * How long a key unknown by the server is remembered before asking again
+     */
+    private Duration negativeCacheTtl = Duration.ofMinutes(5);
+
+    /**
+     * Time before loading again a language that could not be loaded
+     */
+    private Duration loadRetryDelay = Duration.ofSeconds(30);
+  }
+
+  /**
+   * Connection settings of the Keycloak admin client, the server and credentials are in
+   * <code>jhapy.keycloak-admin</code>
+   */
+  @Data
+  public static final class KeycloakAdminClient {
+
+    private Integer connectionPoolSize = 20;
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /**
+     * The admin token is refreshed when it expires in less than this
+     */
+    private Duration minTokenValidity = Duration.ofSeconds(30);
+    /**
+     * Threads used to load the roles and groups of the users (or groups) of a page in parallel
+     */
+    private Integer enrichmentThreads = 8;
+    /**
+     * How long the realm roles and group tree are kept before being listed again
+     */
+    private Duration realmCacheTtl = Duration.ofMinutes(1);
+  }
+
+  /**
+   * Connection settings of the client used by the actuator and config server admin views
+   */
+  @Data
+  public static final class ActuatorClient {
+
+    private Integer maxConnections = 50;
+    private Integer maxConnectionsPerRoute = 5;
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    private Duration readTimeout = Duration.ofSeconds(15);
+    /**
+     * Pooled connections unused for longer than this are closed
+     */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+    /**
+     * Threads of the poller shared by the admin views refreshing automatically
+     */
+    private Integer pollerThreads = 2;
+    /**
+     * Lines of the log file kept (and displayed) by the Logs tab
+     */
+    private Integer logTailLines = 2000;
+    /**
+     * Bytes read from the end of the log file when the Logs tab opens
+     */
+    private Integer logTailInitialBytes = 64 * 1024;
+    private Integer logGrepMaxMatches = 1000;
+    /**
+     * The search only scans this many bytes from the end of the log file
+     */
+    private Long logGrepMaxBytes = 32L * 1024 * 1024;
+    private Duration logGrepTimeout = Duration.ofSeconds(30);
+    /**
+     * Health checks of the fleet board running at the same time, for all the users
+     */
+    private Integer fleetHealthConcurrency = 8;
+    private Duration fleetHealthTimeout = Duration.ofSeconds(3);
+    /**
+     * OAuth2 client registration (client credentials grant) used to call the instances when no
+     * user is involved, like recording the metrics history. Not set, nothing is called in the
+     * background
+     */
+    private String clientRegistrationId;
+  }
+
+  /**
+   * Trends displayed in the Metrics tab, kept in memory for each instance
+   */
+  @Data
+  public static final class MetricsHistory {
+
+    private Duration window = Duration.ofHours(1);
+    /**
+     * Minimum time between two samples, the number of samples kept is window / resolution
+     */
+    private Duration resolution = Duration.ofSeconds(5);
+    /**
+     * How often the instances recorded are updated from the discovery client
+     */
+    private Duration registryRefresh = Duration.ofSeconds(30);
+  }
+
+  /**
+   * The jhametrics actuator endpoint read by the Metrics tab
+   */
+  @Data
+  public static final class MetricsEndpoint {
+
+    /**
+     * How long the same result is returned to all the callers, zero to compute it on every call
+     */
+    private Duration responseTtl = Duration.ofSeconds(1);
+  }
+
+  /**
+   * Connection settings of the client streaming files (stored files, i18n workbook) from and to
+   * the remote services
+   */
+  @Data
+  public static final class StreamingClient {
+
+    private Integer maxConnections = 20;
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    /**
+     * Maximum time without receiving any data, not the time of the whole transfer
+     */
+    private Duration readTimeout = Duration.ofSeconds(60);
+    private Duration idleTimeout = Duration.ofMinutes(1);
+  }
+
+  /**
+   * Files received by the upload components
+   */
+  @Data
+  public static final class Upload {
+
+    /**
+     * Files up to this size are kept in memory, bigger ones are written to a temporary file
+     */
+    private Integer memoryThreshold = 1024 * 1024;
+    private Integer chunkSize = 32 * 1024;
+    /**
+     * Free chunks kept for the next uploads, for all the users
+     */
+    private Integer maxPooledChunks = 256;
+    /**
+     * Maximum size of the uploaded files held at the same time by one user session
+     */
+    private Long sessionQuota = 100L * 1024 * 1024;
+    /**
+     * Directory of the temporary files, the system one when not set
+     */
+    private String tempDirectory;
+  }
+
+  /**
+   * Reference data (regions, countries...) kept in memory and shared by all the sessions
+   */
+  @Data
+  public static final class ReferenceCache {
+
+    /**
+     * How long the names of the regions in one language are used before being loaded again
+     */
+    private Duration labelsTtl = Duration.ofHours(1);
+    /**
+     * Time before retrying when the names cannot be loaded
+     */
+    private Duration retryDelay = Duration.ofSeconds(30);
+    /**
+     * Time between two checks of the reference data version
+     */
+    private Duration snapshotCheckInterval = Duration.ofMinutes(5);
+    /**
+     * When the server does not give a version, the reference data is loaded again after this
+     */
+    private Duration snapshotMaxAge = Duration.ofHours(1);
+  }
+
+  /**
+   * Remember-me cookies, signed by this application and checked locally
+   */
+  @Data
+  public static final class RememberMe {
+
+    /**
+     * Secret used to sign the cookies, must be the same on all the nodes. A random one is used
+     * when missing
+     */
+    private String key;
+    /**
+     * How long a token accepted or rejected by the server is not checked again
+     */
+    private Duration validatedTokensTtl = Duration.ofMinutes(5);
+    private int maxValidatedTokens = 10000;
   }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.config;
+
+import javax.jms.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jms.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+
+/**
+ * The default listener container factory from Spring Boot listens on queues, topics (where each
+ * frontend node gets every message) use this one.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-09
+ */
+@Configuration
+public class JmsConfiguration {
+
+  public static final String TOPIC_LISTENER_FACTORY = "topicListenerFactory";
+
+  @Bean(name = TOPIC_LISTENER_FACTORY)
+  public DefaultJmsListenerContainerFactory topicListenerFactory(
+      ConnectionFactory connectionFactory, DefaultJmsListenerContainerFactoryConfigurer configurer) {
+    DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+    configurer.configure(factory, connectionFactory);
+    factory.setPubSubDomain(true);
+    return factory;
+  }
+}
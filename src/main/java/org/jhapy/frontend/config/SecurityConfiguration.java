@@ -27,10 +27,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.jhapy.commons.security.oauth2.AudienceValidator;
 import org.jhapy.commons.security.oauth2.JwtGrantedAuthorityConverter;
 import org.jhapy.commons.utils.HasLogger;
-import org.jhapy.frontend.client.security.SecurityRoleService;
+import org.jhapy.frontend.client.audit.AuditServiceQueue;
+import org.jhapy.frontend.client.security.SecurityUserService;
 import org.jhapy.frontend.client.security.keycloak.KeycloakLogoutHandler;
 import org.jhapy.frontend.client.security.keycloak.KeycloakOauth2UserService;
 import org.jhapy.frontend.security.JHapyAccessDecisionVoter;
+import org.jhapy.frontend.security.RememberMeCookieFilter;
+import org.jhapy.frontend.security.RememberMeService;
 import org.jhapy.frontend.security.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -64,6 +67,7 @@ import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.access.expression.WebExpressionVoter;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -80,7 +84,10 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter implemen
 
   private final AppProperties appProperties;
   private final SecurityProblemSupport problemSupport;
-  private final SecurityRoleService securityRoleService;
+  private final JHapyAccessDecisionVoter accessDecisionVoter;
+  private final RememberMeService rememberMeService;
+  private final SecurityUserService securityUserService;
+  private final AuditServiceQueue auditServiceQueue;
   private final String realm;
 
   @Autowired
@@ -90,11 +97,17 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter implemen
 
   public SecurityConfiguration(AppProperties appProperties,
       SecurityProblemSupport problemSupport,
-      SecurityRoleService securityRoleService,
+      JHapyAccessDecisionVoter accessDecisionVoter,
+      RememberMeService rememberMeService,
+      SecurityUserService securityUserService,
+      AuditServiceQueue auditServiceQueue,
       @Value("${kc.realm}") String realm) {
     this.problemSupport = problemSupport;
     this.appProperties = appProperties;
-    this.securityRoleService = securityRoleService;
+    this.accessDecisionVoter = accessDecisionVoter;
+    this.rememberMeService = rememberMeService;
+    this.securityUserService = securityUserService;
+    this.auditServiceQueue = auditServiceQueue;
     this.realm = realm;
   }
 
@@ -135,6 +148,9 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter implemen
   protected void configure(HttpSecurity http) throws Exception {
     http
         .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED).and()
+        .addFilterBefore(
+            new RememberMeCookieFilter(rememberMeService, securityUserService, auditServiceQueue),
+            AnonymousAuthenticationFilter.class)
         .headers()
         .frameOptions()
         .disable()
@@ -314,7 +330,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter implemen
         new WebExpressionVoter(),
         new RoleVoter(),
         new AuthenticatedVoter(),
-        new JHapyAccessDecisionVoter(securityRoleService));
+        accessDecisionVoter);
     return new UnanimousBased(decisionVoters);
   }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.config;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.components.fileUpload.UploadBuffers;
+import org.jhapy.frontend.components.fileUpload.UploadQuota;
+
+/**
+ * Configures the upload receivers and releases the files still held by a closed session.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-18
+ */
+@SpringComponent
+public class UploadServiceInitListener implements VaadinServiceInitListener, HasLogger {
+
+  private final AppProperties appProperties;
+
+  public UploadServiceInitListener(AppProperties appProperties) {
+    this.appProperties = appProperties;
+  }
+
+  @Override
+  public void serviceInit(ServiceInitEvent event) {
+    UploadBuffers.configure(appProperties.getUpload());
+
+    event.getSource().addSessionDestroyListener(e -> {
+      UploadQuota quota = e.getSession().getAttribute(UploadQuota.class);
+      if (quota != null && quota.getUsed() > 0) {
+        logger().debug(getLoggerPrefix("sessionDestroy") + "Release " + quota.getUsed()
+            + " bytes of uploaded files");
+        quota.releaseAll();
+      }
+    });
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.config;
+
+import com.vaadin.flow.router.RouteData;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.security.ViewAccessMatrix;
+
+/**
+ * Resolves the roles required by all the registered routes at startup, views added later are
+ * resolved on their first check.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-19
+ */
+@SpringComponent
+public class ViewAccessServiceInitListener implements VaadinServiceInitListener, HasLogger {
+
+  @Override
+  public void serviceInit(ServiceInitEvent event) {
+    List<RouteData> routes = event.getSource().getRouter().getRegistry().getRegisteredRoutes();
+    ViewAccessMatrix.preload(routes.stream().map(RouteData::getNavigationTarget)
+        .collect(Collectors.toList()));
+    logger().debug(getLoggerPrefix("serviceInit") + "Access of " + routes.size()
+        + " routes resolved");
+  }
+}
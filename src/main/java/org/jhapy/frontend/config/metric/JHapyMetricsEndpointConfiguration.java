@@ -20,6 +20,7 @@ package org.jhapy.frontend.config.metric;
 
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.jhapy.frontend.config.AppProperties;
 import org.jhapy.frontend.endpoint.JHapyMetricsEndpoint;
 import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.actuate.autoconfigure.metrics.MetricsEndpointAutoConfiguration;
@@ -43,13 +44,16 @@ public class JHapyMetricsEndpointConfiguration {
    * <p>jHapyMetricsEndpoint.</p>
    *
    * @param meterRegistry a {@link MeterRegistry} object.
+   * @param appProperties a {@link AppProperties} object.
    * @return a {@link JHapyMetricsEndpoint} object.
    */
   @Bean
   //@ConditionalOnBean({MeterRegistry.class})
   @ConditionalOnMissingBean
   @ConditionalOnAvailableEndpoint
-  public JHapyMetricsEndpoint jHapyMetricsEndpoint(MeterRegistry meterRegistry) {
-    return new JHapyMetricsEndpoint(meterRegistry);
+  public JHapyMetricsEndpoint jHapyMetricsEndpoint(MeterRegistry meterRegistry,
+      AppProperties appProperties) {
+    return new JHapyMetricsEndpoint(meterRegistry,
+        appProperties.getMetricsEndpoint().getResponseTtl());
   }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.config.metric;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jhapy.frontend.dataproviders.utils.PageableDataProvider;
+
+/**
+ * Publishes the page cache counters of the grid data providers.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-20
+ */
+@SpringComponent
+public class PageCacheMetricsServiceInitListener implements VaadinServiceInitListener {
+
+  private final MeterRegistry meterRegistry;
+
+  public PageCacheMetricsServiceInitListener(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public void serviceInit(ServiceInitEvent event) {
+    FunctionCounter.builder("vaadin.dataprovider.pages", PageableDataProvider.class,
+        c -> PageableDataProvider.getCacheHits())
+        .tag("result", "hit")
+        .description("Pages served from the page cache")
+        .register(meterRegistry);
+    FunctionCounter.builder("vaadin.dataprovider.pages", PageableDataProvider.class,
+        c -> PageableDataProvider.getCacheMisses())
+        .tag("result", "miss")
+        .description("Pages loaded from the backend for a grid")
+        .register(meterRegistry);
+    FunctionCounter.builder("vaadin.dataprovider.pages", PageableDataProvider.class,
+        c -> PageableDataProvider.getPrefetches())
+        .tag("result", "prefetch")
+        .description("Pages loaded in the background before being asked")
+        .register(meterRegistry);
+  }
+}
@@ -34,22 +34,23 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.upload.Upload;
-import com.vaadin.flow.component.upload.receivers.MultiFileMemoryBuffer;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.shared.Registration;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import org.apache.commons.io.IOUtils;
+import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.utils.StoredFile;
+import org.jhapy.frontend.client.BaseServices;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.components.ListItem;
 import org.jhapy.frontend.components.PdfViewer;
 import org.jhapy.frontend.components.detailsdrawers.DetailsDrawer;
 import org.jhapy.frontend.components.detailsdrawers.DetailsDrawerHeader;
 import org.jhapy.frontend.components.events.AttachmentsFieldValueChangeEvent;
+import org.jhapy.frontend.components.fileUpload.MultiFileSpillingBuffer;
 import org.jhapy.frontend.layout.size.Horizontal;
 import org.jhapy.frontend.layout.size.Right;
 import org.jhapy.frontend.layout.size.Vertical;
@@ -58,6 +59,7 @@ import org.jhapy.frontend.utils.LumoStyles;
 import org.jhapy.frontend.utils.UIUtils;
 import org.jhapy.frontend.utils.css.BorderRadius;
 import org.jhapy.frontend.utils.css.Shadow;
+import org.springframework.web.client.RestClientException;
 
 /**
  * @author jHapy Lead Dev.
@@ -93,7 +95,7 @@ public class AttachmentField extends FlexBoxLayout implements HasStyle, HasSize,
     documents.setFlexDirection(FlexDirection.COLUMN);
     //reports.setPadding(Bottom.XL, Left.RESPONSIVE_L);
 
-    MultiFileMemoryBuffer buffer = new MultiFileMemoryBuffer();
+    MultiFileSpillingBuffer buffer = new MultiFileSpillingBuffer();
     upload = new Upload(buffer);
     upload.setAcceptedFileTypes("image/jpeg", "image/png", "image/gif", "image/tiff",
         "application/pdf");
@@ -103,23 +105,36 @@ public class AttachmentField extends FlexBoxLayout implements HasStyle, HasSize,
     upload.addSucceededListener(event -> {
       StoredFile storedFile = new StoredFile();
       storedFile.setMimeType(event.getMIMEType());
-      try {
-        storedFile.setContent(IOUtils.toByteArray(buffer.getInputStream(event.getFileName())));
-      } catch (IOException e) {
+      storedFile.setFilesize(event.getContentLength());
+      storedFile.setFilename(event.getFileName());
+      // The content goes straight to the resource server, only the metadata is kept
+      try (InputStream content = buffer.getInputStream(event.getFileName())) {
+        ServiceResult<StoredFile> result = BaseServices.getResourceContentClient()
+            .upload(storedFile, content);
+        if (!result.getIsSuccess()) {
+          Notification.show(result.getMessage());
+          return;
+        }
+        storedFile = result.getData();
+      } catch (IOException | RestClientException e) {
         Notification.show(e.getLocalizedMessage());
+        return;
+      } finally {
+        buffer.release(event.getFileName());
       }
-      storedFile.setOrginalContent(storedFile.getContent());
-      storedFile.setFilesize((long) storedFile.getContent().length);
-      storedFile.setFilename(event.getFileName());
 
       List<StoredFile> oldValues = new ArrayList<>(storedFiles);
       storedFiles.add(storedFile);
+      addDocumentInList(storedFile);
 
       changeListeners.forEach(listener -> listener
           .valueChanged(new AttachmentsFieldValueChangeEvent(oldValues.toArray(new StoredFile[0]),
               storedFiles.toArray(new StoredFile[0]), this)));
     });
 
+    // A failed or interrupted upload keeps its chunks and its quota until released
+    upload.addFailedListener(event -> buffer.release(event.getFileName()));
+
     add(upload);
     add(documentList);
 
@@ -141,9 +156,8 @@ public class AttachmentField extends FlexBoxLayout implements HasStyle, HasSize,
     infoButton.addClickListener(
         e -> {
           if (item != null && item.getId() != null) {
-            StreamResource streamResource = new StreamResource(
-                item.getFilename(),
-                () -> new ByteArrayInputStream(item.getContent()));
+            StreamResource streamResource = BaseServices.getResourceContentClient()
+                .createStreamResource(item);
 
             if (item.getMimeType().equals("application/pdf")) {
 
@@ -167,7 +181,7 @@ public class AttachmentField extends FlexBoxLayout implements HasStyle, HasSize,
     popup.setHeader(popupHeader);
 
     CustomDetailsDrawerFooter popupFooter = new CustomDetailsDrawerFooter(
-        new StreamResource(item.getFilename(), () -> new ByteArrayInputStream(item.getContent())));
+        BaseServices.getResourceContentClient().createStreamResource(item));
     popupFooter.addCloseListener(event -> popupDialog.close());
 
     popup.setFooter(popupFooter);
@@ -76,7 +76,7 @@ public class CountryTrlListField extends
     gridCrud.getGrid().setEnabled(false);
     gridCrud.setDataProvider(dataProvider);
     gridCrud.addSaveListener(e -> dataProvider.persist(e.getItem()));
-    gridCrud.addDeleteListener(e -> dataProvider.getValues().remove(e.getItem()));
+    gridCrud.addDeleteListener(e -> dataProvider.remove(e.getItem()));
 
     editColumn = grid.addColumn(TemplateRenderer.of(createEditColumnTemplate("Edit")))
         .setKey("vaadin-crud-edit-column").setWidth("4em").setFlexGrow(0);
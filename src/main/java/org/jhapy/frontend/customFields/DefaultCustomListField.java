@@ -145,29 +145,27 @@ public abstract class DefaultCustomListField<C extends BaseEntity> extends FlexB
     }
 
     public void setValues(Collection<C> values) {
-      fieldsMap.clear();
-      fieldsMap.addAll(values);
+      clear();
+      values.forEach(this::add);
     }
 
     public void persist(C value) {
-      List<C> previousValues = new ArrayList<>(fieldsMap);
+      List<C> previousValues = new ArrayList<>(getValues());
 
       if (value.getId() == null) {
         value.setId(uniqueLong.incrementAndGet());
         value.setIsNew(true);
       }
-      if (!fieldsMap.contains(value)) {
-        fieldsMap.add(value);
-      }
-      updateValue(previousValues, fieldsMap);
+      add(value);
+      updateValue(previousValues, new ArrayList<>(getValues()));
     }
 
     public void delete(C value) {
-      List<C> previousValues = new ArrayList<>(fieldsMap);
+      List<C> previousValues = new ArrayList<>(getValues());
 
-      fieldsMap.remove(value);
+      remove(value);
 
-      updateValue(previousValues, fieldsMap);
+      updateValue(previousValues, new ArrayList<>(getValues()));
     }
   }
 }
\ No newline at end of file
@@ -25,7 +25,6 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.upload.Upload;
-import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
 import com.vaadin.flow.server.StreamResource;
 import io.rocketbase.vaadin.croppie.Croppie;
 import io.rocketbase.vaadin.croppie.model.ViewPortConfig;
@@ -34,13 +33,16 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
 import javax.imageio.ImageIO;
 import org.apache.commons.io.IOUtils;
 import org.jhapy.dto.utils.StoredFile;
+import org.jhapy.frontend.client.BaseServices;
 import org.jhapy.frontend.components.detailsdrawers.DetailsDrawer;
 import org.jhapy.frontend.components.detailsdrawers.DetailsDrawerFooter;
 import org.jhapy.frontend.components.detailsdrawers.DetailsDrawerHeader;
+import org.jhapy.frontend.components.fileUpload.SpillingBuffer;
 import org.jhapy.frontend.utils.AppConst;
 
 /**
@@ -84,7 +86,7 @@ public class ImageField extends CustomField<StoredFile> implements HasStyle, Ser
   private void addOrUpdateImage() {
     Dialog uploadDialog = new Dialog();
 
-    MemoryBuffer buffer = new MemoryBuffer();
+    SpillingBuffer buffer = new SpillingBuffer();
     Upload upload = new Upload(buffer);
     upload.setAcceptedFileTypes("image/*");
     upload.setAutoUpload(true);
@@ -94,19 +96,26 @@ public class ImageField extends CustomField<StoredFile> implements HasStyle, Ser
     upload.addSucceededListener(event -> {
       storedFile = new StoredFile();
       storedFile.setMimeType(event.getMIMEType());
-      try {
-        storedFile.setContent(IOUtils.toByteArray(buffer.getInputStream()));
+      // Cropping needs the whole image in memory
+      try (InputStream content = buffer.getInputStream()) {
+        storedFile.setContent(IOUtils.toByteArray(content));
       } catch (IOException e) {
         Notification.show(e.getLocalizedMessage());
+        return;
+      } finally {
+        buffer.release();
       }
       storedFile.setOrginalContent(storedFile.getContent());
       storedFile.setFilesize((long) storedFile.getContent().length);
-      storedFile.setFilename(buffer.getFileName());
+      storedFile.setFilename(event.getFileName());
 
       buildCropie(storedFile.getContent(), storedFile.getFilename(), null);
 
     });
-    if (initialImage != null) {
+    // A failed or interrupted upload keeps its chunks and its quota until released
+    upload.addFailedListener(event -> buffer.release());
+    // An image only stored on the resource server is replaced, not cropped again
+    if (initialImage != null && initialImage.getOrginalContent() != null) {
       buildCropie(initialImage.getOrginalContent(), initialImage.getFilename(),
           storedFile != null ? storedFile.getZoom() : null);
     }
@@ -123,16 +132,14 @@ public class ImageField extends CustomField<StoredFile> implements HasStyle, Ser
         storedFile.setFilename(initialImage.getFilename());
         storedFile.setContent(initialImage.getContent());
 
-        image.setSrc(new StreamResource(storedFile.getFilename(),
-            () -> new ByteArrayInputStream(storedFile.getContent())));
+        image.setSrc(BaseServices.getResourceContentClient().createStreamResource(storedFile));
       } else {
         image.setSrc(AppConst.NO_PICTURE);
       }
       uploadDialog.setOpened(false);
     });
     footer.addSaveListener(saveEvent -> {
-      image.setSrc(new StreamResource(storedFile.getFilename(),
-          () -> new ByteArrayInputStream(storedFile.getContent())));
+      image.setSrc(BaseServices.getResourceContentClient().createStreamResource(storedFile));
       updateValue();
       uploadDialog.setOpened(false);
     });
@@ -219,7 +226,8 @@ public class ImageField extends CustomField<StoredFile> implements HasStyle, Ser
 
   @Override
   protected void setPresentationValue(StoredFile newPresentationValue) {
-    if (newPresentationValue.getContent() != null) {
+    if (newPresentationValue != null && (newPresentationValue.getContent() != null
+        || newPresentationValue.getId() != null)) {
       storedFile = newPresentationValue;
       initialImage = new StoredFile();
       initialImage.setOrginalContent(newPresentationValue.getOrginalContent());
@@ -227,9 +235,9 @@ public class ImageField extends CustomField<StoredFile> implements HasStyle, Ser
       initialImage.setMimeType(newPresentationValue.getMimeType());
       initialImage.setFilename(newPresentationValue.getFilename());
       initialImage.setContent(newPresentationValue.getContent());
+      initialImage.setId(newPresentationValue.getId());
 
-      image.setSrc(new StreamResource(newPresentationValue.getFilename(),
-          () -> new ByteArrayInputStream(initialImage.getContent())));
+      image.setSrc(BaseServices.getResourceContentClient().createStreamResource(initialImage));
     } else {
       storedFile = null;
       initialImage = null;
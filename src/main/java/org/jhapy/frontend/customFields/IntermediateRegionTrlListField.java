@@ -78,10 +78,10 @@ public abstract class IntermediateRegionTrlListField extends
     gridCrud.setDataProvider(dataProvider);
     gridCrud.addSaveListener(e -> {
       if (e.getItem().getId() == null) {
-        dataProvider.getValues().add(e.getItem());
+        dataProvider.add(e.getItem());
       }
     });
-    gridCrud.addDeleteListener(e -> dataProvider.getValues().remove(e.getItem()));
+    gridCrud.addDeleteListener(e -> dataProvider.remove(e.getItem()));
 
     editColumn = grid.addColumn(TemplateRenderer.of(createEditColumnTemplate("Edit")))
         .setKey("vaadin-crud-edit-column").setWidth("4em").setFlexGrow(0);
@@ -137,7 +137,7 @@ public abstract class IntermediateRegionTrlListField extends
                   .getIntermediateRegionTrlService()
                   .getById(new GetByIdQuery(intermediateRegionTrl.getId())).getData();
               if (_intermediateRegionTrl != null) {
-                fieldsMap.add(_intermediateRegionTrl);
+                add(_intermediateRegionTrl);
               }
             });
       }
@@ -78,10 +78,10 @@ public abstract class RegionTrlListField extends
     gridCrud.setDataProvider(dataProvider);
     gridCrud.addSaveListener(e -> {
       if (e.getItem().getId() == null) {
-        dataProvider.getValues().add(e.getItem());
+        dataProvider.add(e.getItem());
       }
     });
-    gridCrud.addDeleteListener(e -> dataProvider.getValues().remove(e.getItem()));
+    gridCrud.addDeleteListener(e -> dataProvider.remove(e.getItem()));
 
     editColumn = grid.addColumn(TemplateRenderer.of(createEditColumnTemplate("Edit")))
         .setKey("vaadin-crud-edit-column").setWidth("4em").setFlexGrow(0);
@@ -134,7 +134,7 @@ public abstract class RegionTrlListField extends
               RegionTrl _regionTrl = ReferenceServices.getRegionTrlService()
                   .getById(new GetByIdQuery(regionTrl.getId())).getData();
               if (_regionTrl != null) {
-                fieldsMap.add(_regionTrl);
+                add(_regionTrl);
               }
             });
       }
@@ -77,10 +77,10 @@ public abstract class SubRegionTrlListField extends
     gridCrud.setDataProvider(dataProvider);
     gridCrud.addSaveListener(e -> {
       if (e.getItem().getId() == null) {
-        dataProvider.getValues().add(e.getItem());
+        dataProvider.add(e.getItem());
       }
     });
-    gridCrud.addDeleteListener(e -> dataProvider.getValues().remove(e.getItem()));
+    gridCrud.addDeleteListener(e -> dataProvider.remove(e.getItem()));
 
     editColumn = grid.addColumn(TemplateRenderer.of(createEditColumnTemplate("Edit")))
         .setKey("vaadin-crud-edit-column").setWidth("4em").setFlexGrow(0);
@@ -25,16 +25,26 @@ import com.vaadin.flow.function.SerializablePredicate;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jhapy.dto.domain.BaseEntity;
 
 /**
+ * In memory backend of the custom list fields. The items are kept sorted with the comparator
+ * (or in insertion order without one), and indexed by id: adding or removing an item finds its
+ * place with a binary search instead of sorting the whole list again. The new ids follow the
+ * highest id seen so far.
+ *
+ * <p>Size and fetch both apply the filter on the same list, which is only filtered again when
+ * the items or the filter changed.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 2019-02-14
@@ -43,11 +53,14 @@ public abstract class DefaultBackend<C extends BaseEntity> extends
     AbstractBackEndDataProvider<C, CrudFilter> implements
     Serializable {
 
-  protected List<C> fieldsMap = new ArrayList<>();
   protected AtomicLong uniqueLong = new AtomicLong();
+  private final List<C> items = new ArrayList<>();
+  private final Map<Object, C> itemsById = new HashMap<>();
   private Comparator<C> comparator;
   private SerializablePredicate<C> filter;
 
+  private List<C> filteredItems;
+
   public DefaultBackend() {
   }
 
@@ -58,12 +71,11 @@ public abstract class DefaultBackend<C extends BaseEntity> extends
   @Override
   public abstract Object getId(C value);
 
+  /**
+   * @return the items, sorted, as a read only view
+   */
   public Collection<C> getValues() {
-    if (comparator != null) {
-      return fieldsMap.stream().sorted(comparator).collect(Collectors.toList());
-    } else {
-      return fieldsMap;
-    }
+    return Collections.unmodifiableList(items);
   }
 
   public abstract void setValues(Collection<C> values);
@@ -78,6 +90,7 @@ public abstract class DefaultBackend<C extends BaseEntity> extends
 
   public void setFilter(SerializablePredicate<C> filter) {
     this.filter = filter;
+    this.filteredItems = null;
     this.refreshAll();
   }
 
@@ -92,28 +105,115 @@ public abstract class DefaultBackend<C extends BaseEntity> extends
 
   }
 
+  /**
+   * Add an item, or move it to its new place when it is already there (after being edited)
+   */
+  public void add(C value) {
+    int index = indexOf(value);
+    if (index >= 0) {
+      items.remove(index);
+    }
+    items.add(insertionPoint(value), value);
+    if (getId(value) != null) {
+      itemsById.put(getId(value), value);
+      if (value.getId() instanceof Long) {
+        uniqueLong.accumulateAndGet((Long) value.getId(), Math::max);
+      }
+    }
+    filteredItems = null;
+  }
+
+  public void remove(C value) {
+    int index = indexOf(value);
+    if (index >= 0) {
+      C removed = items.remove(index);
+      if (getId(removed) != null) {
+        itemsById.remove(getId(removed));
+      }
+      filteredItems = null;
+    }
+  }
+
+  public boolean contains(C value) {
+    return indexOf(value) >= 0;
+  }
+
+  protected void clear() {
+    items.clear();
+    itemsById.clear();
+    uniqueLong.set(0);
+    filteredItems = null;
+  }
+
   @Override
   protected int sizeInBackEnd(Query<C, CrudFilter> query) {
-    return fieldsMap.size();
+    return getFilteredItems().size();
   }
 
   @Override
   protected Stream<C> fetchFromBackEnd(Query<C, CrudFilter> query) {
-    Stream<C> stream = fieldsMap.stream();
+    List<C> result = getFilteredItems();
+    if (query.getInMemorySorting() != null) {
+      // Sorted by a column of the grid
+      result = result.stream().sorted(query.getInMemorySorting()).collect(Collectors.toList());
+    }
+    int from = Math.min(query.getOffset(), result.size());
+    int to = Math.min(from + query.getLimit(), result.size());
+    return result.subList(from, to).stream();
+  }
+
+  private List<C> getFilteredItems() {
+    if (filter == null) {
+      return items;
+    }
+    if (filteredItems == null) {
+      filteredItems = items.stream().filter(filter).collect(Collectors.toList());
+    }
+    return filteredItems;
+  }
+
+  private int indexOf(C value) {
+    C indexed = getId(value) == null ? value : itemsById.getOrDefault(getId(value), value);
+    if (comparator != null) {
+      // Found directly unless its sort key changed since it was added
+      int index = Collections.binarySearch(items, indexed, comparator);
+      if (index >= 0) {
+        for (int i = index; i >= 0 && comparator.compare(items.get(i), indexed) == 0; i--) {
+          if (items.get(i) == indexed) {
+            return i;
+          }
+        }
+        for (int i = index + 1;
+            i < items.size() && comparator.compare(items.get(i), indexed) == 0; i++) {
+          if (items.get(i) == indexed) {
+            return i;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < items.size(); i++) {
+      if (items.get(i) == indexed) {
+        return i;
+      }
+    }
+    return -1;
+  }
 
-    Optional<Comparator<C>> comparing = Stream.of(query.getInMemorySorting(), comparator)
-        .filter(Objects::nonNull).reduce(Comparator::thenComparing);
-    if (comparing.isPresent()) {
-      stream = stream.sorted();
+  private int insertionPoint(C value) {
+    if (comparator == null) {
+      return items.size();
     }
-    long maxId = 0;
-    List<C> result = stream.collect(Collectors.toList());
-    for (C c : result) {
-      if ((long) c.getId() > maxId) {
-        maxId = (long) c.getId();
+    int low = 0;
+    int high = items.size();
+    // After the items comparing equal, to keep their order
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (comparator.compare(items.get(middle), value) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
       }
     }
-    uniqueLong.set(maxId + 1);
-    return result.stream().skip(query.getOffset()).limit(query.getLimit());
+    return low;
   }
-}
\ No newline at end of file
+}
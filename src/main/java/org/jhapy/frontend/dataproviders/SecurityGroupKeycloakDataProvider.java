@@ -57,7 +57,8 @@ public class SecurityGroupKeycloakDataProvider extends
     String filterStr = filter.getFilter() != null ? filter.getFilter().replaceAll("\\*", "") : null;
 
     Page<SecurityKeycloakGroup> page = SecurityServices.getKeycloakClient().findGroups(
-        new FindAnyMatchingQuery(filterStr, filter.isShowInactive(), pageable)).getData();
+        new FindAnyMatchingQuery(filterStr, filter.isShowInactive(), pageable), false)
+        .getData();
     if (getPageObserver() != null) {
       getPageObserver().accept(page);
     }
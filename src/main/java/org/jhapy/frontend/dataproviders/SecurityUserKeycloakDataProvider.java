@@ -58,7 +58,8 @@ public class SecurityUserKeycloakDataProvider extends
     String filterStr = filter.getFilter() != null ? filter.getFilter().replaceAll("\\*", "") : null;
 
     Page<SecurityKeycloakUser> page = SecurityServices.getKeycloakClient().findUsers(
-        new FindAnyMatchingQuery(filterStr, filter.isShowInactive(), pageable)).getData();
+        new FindAnyMatchingQuery(filterStr, filter.isShowInactive(), pageable), false)
+        .getData();
     if (getPageObserver() != null) {
       getPageObserver().accept(page);
     }
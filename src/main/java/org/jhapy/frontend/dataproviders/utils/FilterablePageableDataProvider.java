@@ -20,9 +20,20 @@ package org.jhapy.frontend.dataproviders.utils;
 
 import com.vaadin.flow.data.provider.Query;
 import java.io.Serializable;
+import java.util.Objects;
 import java.util.stream.Stream;
+import org.jhapy.dto.utils.Page;
 
 /**
+ * The total of matching items comes with every page, so it is kept for the current filter and the
+ * count is only asked to the backend when no page gave it. When the size is asked for a new
+ * filter, the first page is loaded instead of counting, and the fetch which follows gets it from
+ * the page cache.
+ *
+ * <p>With {@link #setEstimatedSize(boolean)}, the total is also kept when the data is refreshed,
+ * and only updated by the next pages loaded. The size may then be a bit off for a while, but a
+ * large table is never counted again.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 2019-06-03
@@ -32,6 +43,11 @@ public abstract class FilterablePageableDataProvider<T extends Serializable, F>
 
   private F filter = null;
 
+  private boolean estimatedSize = false;
+
+  private volatile F totalFilter;
+  private volatile Long total;
+
   public void setFilter(F filter) {
     if (filter == null) {
       throw new IllegalArgumentException("Filter cannot be null");
@@ -40,9 +56,35 @@ public abstract class FilterablePageableDataProvider<T extends Serializable, F>
     refreshAll();
   }
 
+  public boolean isEstimatedSize() {
+    return estimatedSize;
+  }
+
+  public void setEstimatedSize(boolean estimatedSize) {
+    this.estimatedSize = estimatedSize;
+  }
+
+  @Override
+  public void refreshAll() {
+    if (!estimatedSize) {
+      total = null;
+    }
+    super.refreshAll();
+  }
+
   @Override
   public int size(Query<T, F> query) {
-    return super.size(getFilterQuery(query));
+    Query<T, F> filterQuery = getFilterQuery(query);
+    if (total == null || !Objects.equals(totalFilter, filter)) {
+      total = null;
+      fetchPages(new Query<>(0, getPageSize(), filterQuery.getSortOrders(),
+          filterQuery.getInMemorySorting(), filter), false);
+    }
+    if (total == null || !Objects.equals(totalFilter, filter)) {
+      // The backend did not give the total with the page
+      return super.size(filterQuery);
+    }
+    return total.intValue();
   }
 
   @Override
@@ -50,8 +92,22 @@ public abstract class FilterablePageableDataProvider<T extends Serializable, F>
     return super.fetch(getFilterQuery(query));
   }
 
+  @Override
+  public Stream<T> fetchDirect(Query<T, F> query) {
+    return super.fetchDirect(getFilterQuery(query));
+  }
+
+  @Override
+  protected void onPageFetched(Query<T, F> query, Page<T> page) {
+    Long totalElements = page == null ? null : page.getTotalElements();
+    if (totalElements != null) {
+      totalFilter = query.getFilter().orElse(null);
+      total = totalElements;
+    }
+  }
+
   private Query<T, F> getFilterQuery(Query<T, F> t) {
     return new Query<>(t.getOffset(), t.getLimit(), t.getSortOrders(),
         t.getInMemorySorting(), filter);
   }
-}
\ No newline at end of file
+}
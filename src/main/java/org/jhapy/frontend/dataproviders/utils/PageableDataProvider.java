@@ -22,10 +22,23 @@ import com.vaadin.flow.data.provider.AbstractBackEndDataProvider;
 import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.QuerySortOrder;
 import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.VaadinService;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jhapy.dto.utils.Page;
@@ -33,8 +46,17 @@ import org.jhapy.dto.utils.Pageable;
 import org.jhapy.dto.utils.Pageable.Order;
 import org.jhapy.dto.utils.Pageable.Order.Direction;
 import org.jhapy.frontend.utils.Pair;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 
 /**
+ * Loads the items by pages of {@link #getPageSize()} items, aligned on the page size, and keeps the
+ * last {@link #getMaxCachedPages()} pages of each filter and sort in memory. When a query ends in
+ * the second half of the last page loaded, the next page is loaded in the background.
+ *
+ * <p>Prefetched pages are loaded outside of the UI thread, with the Vaadin service and the
+ * security context of the request which triggered them: {@link #fetchFromBackEnd(Query,
+ * Pageable)} must not access the UI.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 2019-06-03
@@ -42,12 +64,38 @@ import org.jhapy.frontend.utils.Pair;
 public abstract class PageableDataProvider<T extends Serializable, F>
     extends AbstractBackEndDataProvider<T, F> {
 
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int DEFAULT_MAX_CACHED_PAGES = 20;
+
+  private static final AtomicLong cacheHits = new AtomicLong();
+  private static final AtomicLong cacheMisses = new AtomicLong();
+  private static final AtomicLong prefetches = new AtomicLong();
+
+  private static final ThreadPoolExecutor prefetchExecutor = createPrefetchExecutor();
+
+  private int pageSize = DEFAULT_PAGE_SIZE;
+  private int maxCachedPages = DEFAULT_MAX_CACHED_PAGES;
+  private boolean prefetch = true;
+
+  private final Map<PageKey, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<PageKey, List<T>> eldest) {
+      return size() > maxCachedPages;
+    }
+  };
+  private final Set<PageKey> pendingPrefetches = new HashSet<>();
+  private final AtomicInteger generation = new AtomicInteger();
+
   private static Order queryOrderToSpringOrder(QuerySortOrder queryOrder) {
     return new Order(queryOrder.getDirection() == SortDirection.ASCENDING
         ? Direction.ASC
         : Direction.DESC, queryOrder.getSorted());
   }
 
+  /**
+   * @deprecated the pages are now aligned on {@link #getPageSize()}
+   */
+  @Deprecated
   public static Pair<Integer, Integer> limitAndOffsetToPageSizeAndNumber(
       int offset, int limit) {
     int lastIndex = offset + limit - 1;
@@ -66,29 +114,213 @@ public abstract class PageableDataProvider<T extends Serializable, F>
     return Pair.of(maxPageSize, 0);
   }
 
+  public static long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  public static long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  public static long getPrefetches() {
+    return prefetches.get();
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+    clearPages();
+  }
+
+  public int getMaxCachedPages() {
+    return maxCachedPages;
+  }
+
+  public void setMaxCachedPages(int maxCachedPages) {
+    this.maxCachedPages = maxCachedPages;
+  }
+
+  public boolean isPrefetch() {
+    return prefetch;
+  }
+
+  public void setPrefetch(boolean prefetch) {
+    this.prefetch = prefetch;
+  }
+
+  @Override
+  public void refreshAll() {
+    clearPages();
+    super.refreshAll();
+  }
+
+  @Override
+  public void refreshItem(T item) {
+    // The cached pages may hold the previous version of the item
+    clearPages();
+    super.refreshItem(item);
+  }
+
   @Override
   protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
-    Pageable pageable = getPageable(query);
-    Page<T> result = fetchFromBackEnd(query, pageable);
-    return fromPageable(result, pageable, query);
+    return fetchPages(query, prefetch);
+  }
+
+  /**
+   * @param readAhead load the next page in the background when the query ends close to the end
+   * of its last page
+   */
+  protected Stream<T> fetchPages(Query<T, F> query, boolean readAhead) {
+    if (query.getLimit() <= 0) {
+      return Stream.empty();
+    }
+    F filter = query.getFilter().orElse(null);
+    List<QuerySortOrder> sortOrders = getSortOrders(query);
+    String sortKey = sortKey(sortOrders);
+
+    int firstPage = query.getOffset() / pageSize;
+    int lastPage = (query.getOffset() + query.getLimit() - 1) / pageSize;
+
+    List<T> items = new ArrayList<>();
+    boolean hasMore = true;
+    for (int pageIndex = firstPage; pageIndex <= lastPage && hasMore; pageIndex++) {
+      List<T> page = getPage(filter, new PageKey(filter, sortKey, pageIndex), query, sortOrders);
+      items.addAll(page);
+      hasMore = page.size() == pageSize;
+    }
+
+    // Close to the end of the last page, the next one will most likely be asked soon
+    int positionInLastPage = (query.getOffset() + query.getLimit() - 1) % pageSize;
+    if (readAhead && hasMore && positionInLastPage >= pageSize / 2) {
+      prefetch(filter, new PageKey(filter, sortKey, lastPage + 1), query, sortOrders);
+    }
+
+    int from = Math.min(query.getOffset() - firstPage * pageSize, items.size());
+    int to = Math.min(from + query.getLimit(), items.size());
+    return items.subList(from, to).stream();
+  }
+
+  /**
+   * Loads the items of the query straight from the backend, as one page of the query's limit: the
+   * page cache is neither read nor filled and nothing is read ahead. Meant for bulk reads like an
+   * export, whose pages would otherwise evict the ones of the grid. The offset of the query must
+   * be a multiple of its limit.
+   */
+  public Stream<T> fetchDirect(Query<T, F> query) {
+    int limit = query.getLimit();
+    if (limit <= 0) {
+      return Stream.empty();
+    }
+    if (query.getOffset() % limit != 0) {
+      throw new IllegalArgumentException("The offset must be a multiple of the limit");
+    }
+    Page<T> page = fetchFromBackEnd(query, new Pageable(query.getOffset() / limit, limit,
+        query.getOffset(), createSpringSort(getSortOrders(query))));
+    onPageFetched(query, page);
+    return page == null || page.getContent() == null ? Stream.empty()
+        : page.getContent().stream();
   }
 
   protected abstract Page<T> fetchFromBackEnd(Query<T, F> query, Pageable pageable);
 
-  private Pageable getPageable(Query<T, F> q) {
-    Pair<Integer, Integer> pageSizeAndNumber = limitAndOffsetToPageSizeAndNumber(
-        q.getOffset(), q.getLimit());
-    return new Pageable(pageSizeAndNumber.getSecond(),
-        pageSizeAndNumber.getFirst(), q.getOffset(), createSpringSort(q));
+  /**
+   * Called with every page returned by the backend, also for the pages prefetched in the
+   * background
+   */
+  protected void onPageFetched(Query<T, F> query, Page<T> page) {
   }
 
-  private <T, F> Collection<Order> createSpringSort(Query<T, F> q) {
-    List<QuerySortOrder> sortOrders;
-    if (q.getSortOrders().isEmpty()) {
-      sortOrders = getDefaultSortOrders();
-    } else {
-      sortOrders = q.getSortOrders();
+  protected abstract List<QuerySortOrder> getDefaultSortOrders();
+
+  private List<T> getPage(F filter, PageKey key, Query<T, F> query,
+      List<QuerySortOrder> sortOrders) {
+    List<T> page;
+    synchronized (pages) {
+      page = pages.get(key);
+    }
+    if (page != null) {
+      cacheHits.incrementAndGet();
+      return page;
+    }
+    cacheMisses.incrementAndGet();
+    int currentGeneration = generation.get();
+    page = loadPage(filter, key.pageIndex, query, sortOrders);
+    storePage(key, page, currentGeneration);
+    return page;
+  }
+
+  private void prefetch(F filter, PageKey key, Query<T, F> query,
+      List<QuerySortOrder> sortOrders) {
+    synchronized (pages) {
+      if (pages.containsKey(key) || !pendingPrefetches.add(key)) {
+        return;
+      }
+    }
+    int currentGeneration = generation.get();
+    VaadinService vaadinService = VaadinService.getCurrent();
+    Runnable task = new DelegatingSecurityContextRunnable(() -> {
+      // The service locators of the clients need the current Vaadin service
+      CurrentInstance.set(VaadinService.class, vaadinService);
+      try {
+        prefetches.incrementAndGet();
+        storePage(key, loadPage(filter, key.pageIndex, query, sortOrders), currentGeneration);
+      } catch (RuntimeException e) {
+        // The page is loaded again when the grid asks for it
+      } finally {
+        synchronized (pages) {
+          pendingPrefetches.remove(key);
+        }
+        CurrentInstance.clearAll();
+      }
+    });
+    try {
+      prefetchExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Queue full, the page is loaded when the grid asks for it or prefetched later
+      synchronized (pages) {
+        pendingPrefetches.remove(key);
+      }
+    }
+  }
+
+  private List<T> loadPage(F filter, int pageIndex, Query<T, F> query,
+      List<QuerySortOrder> sortOrders) {
+    int offset = pageIndex * pageSize;
+    Query<T, F> pageQuery = new Query<>(offset, pageSize, query.getSortOrders(),
+        query.getInMemorySorting(), filter);
+    Page<T> page = fetchFromBackEnd(pageQuery,
+        new Pageable(pageIndex, pageSize, offset, createSpringSort(sortOrders)));
+    onPageFetched(pageQuery, page);
+    return page == null || page.getContent() == null ? new ArrayList<>()
+        : new ArrayList<>(page.getContent());
+  }
+
+  private void storePage(PageKey key, List<T> page, int pageGeneration) {
+    synchronized (pages) {
+      // Pages loaded before a refresh are dropped
+      if (pageGeneration == generation.get()) {
+        pages.put(key, page);
+      }
     }
+  }
+
+  private void clearPages() {
+    synchronized (pages) {
+      generation.incrementAndGet();
+      pages.clear();
+      // The prefetches running are for the previous generation and will be dropped
+      pendingPrefetches.clear();
+    }
+  }
+
+  private List<QuerySortOrder> getSortOrders(Query<T, F> q) {
+    return q.getSortOrders().isEmpty() ? getDefaultSortOrders() : q.getSortOrders();
+  }
+
+  private Collection<Order> createSpringSort(List<QuerySortOrder> sortOrders) {
     List<Order> orders = sortOrders.stream()
         .map(PageableDataProvider::queryOrderToSpringOrder)
         .collect(Collectors.toList());
@@ -99,21 +331,51 @@ public abstract class PageableDataProvider<T extends Serializable, F>
     }
   }
 
-  protected abstract List<QuerySortOrder> getDefaultSortOrders();
+  private static String sortKey(List<QuerySortOrder> sortOrders) {
+    return sortOrders.stream().map(o -> o.getSorted() + " " + o.getDirection())
+        .collect(Collectors.joining(","));
+  }
 
-  private <T extends Serializable> Stream<T> fromPageable(Page<T> result, Pageable pageable,
-      Query<T, ?> query) {
-    List<T> items = result.getContent();
+  private static ThreadPoolExecutor createPrefetchExecutor() {
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(100), r -> {
+      Thread thread = new Thread(r, "page-prefetch-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static final class PageKey implements Serializable {
+
+    private final Object filter;
+    private final String sortKey;
+    private final int pageIndex;
 
-    int firstRequested = query.getOffset();
-    int nrRequested = query.getLimit();
-    int firstReturned = pageable.getOffset();
-    int firstReal = firstRequested - firstReturned;
-    int afterLastReal = firstReal + nrRequested;
-    if (afterLastReal > items.size()) {
-      afterLastReal = items.size();
+    private PageKey(Object filter, String sortKey, int pageIndex) {
+      this.filter = filter;
+      this.sortKey = sortKey;
+      this.pageIndex = pageIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PageKey)) {
+        return false;
+      }
+      PageKey pageKey = (PageKey) o;
+      return pageIndex == pageKey.pageIndex && Objects.equals(filter, pageKey.filter)
+          && sortKey.equals(pageKey.sortKey);
     }
-    return items.subList(firstReal, afterLastReal).stream();
-  }
 
-}
\ No newline at end of file
+    @Override
+    public int hashCode() {
+      return Objects.hash(filter, sortKey, pageIndex);
+    }
+  }
+}
@@ -25,15 +25,13 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.TimeGauge;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.distribution.ValueAtPercentile;
-import io.micrometer.core.instrument.search.Search;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import org.jhapy.frontend.endpoint.MeterIndex.Category;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
@@ -43,14 +41,24 @@ import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
  * <p>JHapyMetricsEndpoint class.</p>
  *
  * From JHipster Project https://www.jhipster.tech/
+ *
+ * <p>The meters are read from a {@link MeterIndex} kept up to date by the registry, and the
+ * result is reused for <code>responseTtl</code> as many admins poll it at the same time.
  */
 @WebEndpoint(id = "jhametrics")
 public class JHapyMetricsEndpoint {
 
-  private final MeterRegistry meterRegistry;
+  private static final Collection<String> CRUD_OPERATIONS = Arrays
+      .asList("GET", "POST", "PUT", "DELETE");
+
+  private final MeterIndex meterIndex;
+  private final long responseTtl;
 
   private final Logger logger = LoggerFactory.getLogger(JHapyMetricsEndpoint.class);
 
+  private volatile Map<String, Map> lastResult;
+  private volatile long lastResultExpiry;
+
   /**
    * Constant <code>MISSING_NAME_TAG_MESSAGE="Missing name tag for metric {}"</code>
    */
@@ -62,7 +70,16 @@ public class JHapyMetricsEndpoint {
    * @param meterRegistry a {@link MeterRegistry} object.
    */
   public JHapyMetricsEndpoint(MeterRegistry meterRegistry) {
-    this.meterRegistry = meterRegistry;
+    this(meterRegistry, Duration.ZERO);
+  }
+
+  /**
+   * @param meterRegistry a {@link MeterRegistry} object.
+   * @param responseTtl how long a result is returned again, zero to compute it on every call
+   */
+  public JHapyMetricsEndpoint(MeterRegistry meterRegistry, Duration responseTtl) {
+    this.meterIndex = new MeterIndex(meterRegistry);
+    this.responseTtl = responseTtl.toMillis();
   }
 
   /**
@@ -75,8 +92,12 @@ public class JHapyMetricsEndpoint {
    */
   @ReadOperation
   public Map<String, Map> allMetrics() {
+    Map<String, Map> results = lastResult;
+    if (results != null && System.currentTimeMillis() < lastResultExpiry) {
+      return results;
+    }
 
-    Map<String, Map> results = new HashMap<>();
+    results = new HashMap<>();
     // JVM stats
     results.put("jvm", this.jvmMemoryMetrics());
     // HTTP requests stats
@@ -94,15 +115,17 @@ public class JHapyMetricsEndpoint {
     // Vaadin status
     results.put("vaadinMetrics", this.vaadinMetrics());
 
+    if (responseTtl > 0) {
+      lastResult = results;
+      lastResultExpiry = System.currentTimeMillis() + responseTtl;
+    }
     return results;
   }
 
   private Map<String, Number> vaadinMetrics() {
     Map<String, Number> resultsVaddinMetrics = new HashMap<>();
 
-    meterRegistry.gauge("vaadin.sessions", new AtomicInteger(0));
-    Collection<Gauge> gauges = Search.in(this.meterRegistry)
-        .name(s -> s.contains("vaadin.sessions")).gauges();
+    Collection<Gauge> gauges = meterIndex.get(Category.VAADIN_GAUGES);
     gauges.forEach(gauge -> resultsVaddinMetrics.put(gauge.getId().getName(), gauge.value()));
 
     return resultsVaddinMetrics;
@@ -111,12 +134,10 @@ public class JHapyMetricsEndpoint {
   private Map<String, Number> processMetrics() {
     Map<String, Number> resultsProcess = new HashMap<>();
 
-    Collection<Gauge> gauges = Search.in(this.meterRegistry)
-        .name(s -> s.contains("cpu") || s.contains("system") || s.contains("process")).gauges();
+    Collection<Gauge> gauges = meterIndex.get(Category.PROCESS_GAUGES);
     gauges.forEach(gauge -> resultsProcess.put(gauge.getId().getName(), gauge.value()));
 
-    Collection<TimeGauge> timeGauges = Search.in(this.meterRegistry)
-        .name(s -> s.contains("process")).timeGauges();
+    Collection<TimeGauge> timeGauges = meterIndex.get(Category.PROCESS_TIME_GAUGES);
     timeGauges.forEach(
         gauge -> resultsProcess.put(gauge.getId().getName(), gauge.value(TimeUnit.MILLISECONDS)));
 
@@ -126,8 +147,7 @@ public class JHapyMetricsEndpoint {
   private Map<String, Object> garbageCollectorMetrics() {
     Map<String, Object> resultsGarbageCollector = new HashMap<>();
 
-    Collection<Timer> timers = Search.in(this.meterRegistry).name(s -> s.contains("jvm.gc.pause"))
-        .timers();
+    Collection<Timer> timers = meterIndex.get(Category.GC_PAUSE_TIMERS);
     timers.forEach(timer -> {
       String key = timer.getId().getName();
 
@@ -146,24 +166,25 @@ public class JHapyMetricsEndpoint {
       resultsGarbageCollector.putIfAbsent(key, gcPauseResults);
     });
 
-    Collection<Gauge> gauges = Search.in(this.meterRegistry)
-        .name(s -> s.contains("jvm.gc") && !s.contains("jvm.gc.pause")).gauges();
+    Collection<Gauge> gauges = meterIndex.get(Category.GC_GAUGES);
     gauges.forEach(gauge -> resultsGarbageCollector.put(gauge.getId().getName(), gauge.value()));
 
-    Collection<Counter> counters = Search.in(this.meterRegistry)
-        .name(s -> s.contains("jvm.gc") && !s.contains("jvm.gc.pause")).counters();
+    Collection<Counter> counters = meterIndex.get(Category.GC_COUNTERS);
     counters.forEach(
         counter -> resultsGarbageCollector.put(counter.getId().getName(), counter.count()));
 
-    gauges = Search.in(this.meterRegistry).name(s -> s.contains("jvm.classes.loaded")).gauges();
-    Double classesLoaded = gauges.stream().map(Gauge::value).reduce((x, y) -> (x + y))
-        .orElse((double) 0);
+    gauges = meterIndex.get(Category.CLASSES_LOADED);
+    double classesLoaded = 0;
+    for (Gauge gauge : gauges) {
+      classesLoaded += gauge.value();
+    }
     resultsGarbageCollector.put("classesLoaded", classesLoaded);
 
-    Collection<FunctionCounter> functionCounters = Search.in(this.meterRegistry)
-        .name(s -> s.contains("jvm.classes.unloaded")).functionCounters();
-    Double classesUnloaded = functionCounters.stream().map(FunctionCounter::count)
-        .reduce((x, y) -> (x + y)).orElse((double) 0);
+    Collection<FunctionCounter> functionCounters = meterIndex.get(Category.CLASSES_UNLOADED);
+    double classesUnloaded = 0;
+    for (FunctionCounter functionCounter : functionCounters) {
+      classesUnloaded += functionCounter.count();
+    }
     resultsGarbageCollector.put("classesUnloaded", classesUnloaded);
 
     return resultsGarbageCollector;
@@ -172,63 +193,60 @@ public class JHapyMetricsEndpoint {
   private Map<String, Map<String, Number>> databaseMetrics() {
     Map<String, Map<String, Number>> resultsDatabase = new HashMap<>();
 
-    Collection<Timer> timers = Search.in(this.meterRegistry).name(s -> s.contains("hikari"))
-        .timers();
+    Collection<Timer> timers = meterIndex.get(Category.DATABASE_TIMERS);
     timers.forEach(timer -> {
       String key = timer.getId().getName().substring(timer.getId().getName().lastIndexOf('.') + 1);
 
-      resultsDatabase.putIfAbsent(key, new HashMap<>());
-      resultsDatabase.get(key).put("count", timer.count());
-      resultsDatabase.get(key).put("max", timer.max(TimeUnit.MILLISECONDS));
-      resultsDatabase.get(key).put("totalTime", timer.totalTime(TimeUnit.MILLISECONDS));
-      resultsDatabase.get(key).put("mean", timer.mean(TimeUnit.MILLISECONDS));
+      Map<String, Number> resultsPerKey = resultsDatabase
+          .computeIfAbsent(key, k -> new HashMap<>());
+      resultsPerKey.put("count", timer.count());
+      resultsPerKey.put("max", timer.max(TimeUnit.MILLISECONDS));
+      resultsPerKey.put("totalTime", timer.totalTime(TimeUnit.MILLISECONDS));
+      resultsPerKey.put("mean", timer.mean(TimeUnit.MILLISECONDS));
 
       ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
       for (ValueAtPercentile percentile : percentiles) {
-        resultsDatabase.get(key)
+        resultsPerKey
             .put(String.valueOf(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
       }
     });
 
-    Collection<Gauge> gauges = Search.in(this.meterRegistry).name(s -> s.contains("hikari"))
-        .gauges();
+    Collection<Gauge> gauges = meterIndex.get(Category.DATABASE_GAUGES);
     gauges.forEach(gauge -> {
       String key = gauge.getId().getName().substring(gauge.getId().getName().lastIndexOf('.') + 1);
-      resultsDatabase.putIfAbsent(key, new HashMap<>());
-      resultsDatabase.get(key).put("value", gauge.value());
+      resultsDatabase.computeIfAbsent(key, k -> new HashMap<>()).put("value", gauge.value());
     });
 
     return resultsDatabase;
   }
 
   private Map<String, Map> serviceMetrics() {
-    Collection<String> crudOperation = Arrays.asList("GET", "POST", "PUT", "DELETE");
-
-    Set<String> uris = new HashSet<>();
-    Collection<Timer> timers = this.meterRegistry.find("http.server.requests").timers();
+    // count, max and total time per uri and method, in one pass over the timers
+    Map<String, Map<String, double[]>> totalsPerUri = new HashMap<>();
+    Collection<Timer> timers = meterIndex.get(Category.HTTP_SERVER_REQUESTS);
+    timers.forEach(timer -> {
+      Map<String, double[]> totalsPerOperation = totalsPerUri
+          .computeIfAbsent(timer.getId().getTag("uri"), uri -> new HashMap<>());
+      String operation = timer.getId().getTag("method");
+      if (CRUD_OPERATIONS.contains(operation)) {
+        double[] totals = totalsPerOperation.computeIfAbsent(operation, o -> new double[3]);
+        totals[0] += timer.count();
+        totals[1] = Math.max(totals[1], timer.max(TimeUnit.MILLISECONDS));
+        totals[2] += timer.totalTime(TimeUnit.MILLISECONDS);
+      }
+    });
 
-    timers.forEach(timer -> uris.add(timer.getId().getTag("uri")));
     Map<String, Map> resultsHttpPerUri = new HashMap<>();
-
-    uris.forEach(uri -> {
+    totalsPerUri.forEach((uri, totalsPerOperation) -> {
       Map<String, Map> resultsPerUri = new HashMap<>();
 
-      crudOperation.forEach(operation -> {
-        Map<String, Number> resultsPerUriPerCrudOperation = new HashMap<>();
-
-        Collection<Timer> httpTimersStream = this.meterRegistry.find("http.server.requests")
-            .tags("uri", uri, "method", operation).timers();
-        long count = httpTimersStream.stream().map(Timer::count).reduce((x, y) -> x + y).orElse(0L);
-
+      totalsPerOperation.forEach((operation, totals) -> {
+        long count = (long) totals[0];
         if (count != 0) {
-          double max = httpTimersStream.stream().map(x -> x.max(TimeUnit.MILLISECONDS))
-              .reduce((x, y) -> x > y ? x : y).orElse((double) 0);
-          double totalTime = httpTimersStream.stream().map(x -> x.totalTime(TimeUnit.MILLISECONDS))
-              .reduce((x, y) -> (x + y)).orElse((double) 0);
-
+          Map<String, Number> resultsPerUriPerCrudOperation = new HashMap<>();
           resultsPerUriPerCrudOperation.put("count", count);
-          resultsPerUriPerCrudOperation.put("max", max);
-          resultsPerUriPerCrudOperation.put("mean", totalTime / count);
+          resultsPerUriPerCrudOperation.put("max", totals[1]);
+          resultsPerUriPerCrudOperation.put("mean", totals[2] / count);
 
           resultsPerUri.put(operation, resultsPerUriPerCrudOperation);
         }
@@ -243,30 +261,26 @@ public class JHapyMetricsEndpoint {
   private Map<String, Map<String, Number>> cacheMetrics() {
     Map<String, Map<String, Number>> resultsCache = new HashMap<>();
 
-    Collection<FunctionCounter> counters = Search.in(this.meterRegistry)
-        .name(s -> s.contains("cache") && !s.contains("hibernate")).functionCounters();
+    Collection<FunctionCounter> counters = meterIndex.get(Category.CACHE_COUNTERS);
     counters.forEach(counter -> {
       String key = counter.getId().getName();
       String name = counter.getId().getTag("name");
       if (name != null) {
-        resultsCache.putIfAbsent(name, new HashMap<>());
         if (counter.getId().getTag("result") != null) {
           key += "." + counter.getId().getTag("result");
         }
-        resultsCache.get(name).put(key, counter.count());
+        resultsCache.computeIfAbsent(name, n -> new HashMap<>()).put(key, counter.count());
       } else {
         logger.warn(MISSING_NAME_TAG_MESSAGE, key);
       }
     });
 
-    Collection<Gauge> gauges = Search.in(this.meterRegistry).name(s -> s.contains("cache"))
-        .gauges();
+    Collection<Gauge> gauges = meterIndex.get(Category.CACHE_GAUGES);
     gauges.forEach(gauge -> {
       String key = gauge.getId().getName();
       String name = gauge.getId().getTag("name");
       if (name != null) {
-        resultsCache.putIfAbsent(name, new HashMap<>());
-        resultsCache.get(name).put(key, gauge.value());
+        resultsCache.computeIfAbsent(name, n -> new HashMap<>()).put(key, gauge.value());
       } else {
         logger.warn(MISSING_NAME_TAG_MESSAGE, key);
       }
@@ -277,63 +291,51 @@ public class JHapyMetricsEndpoint {
   private Map<String, Map<String, Number>> jvmMemoryMetrics() {
     Map<String, Map<String, Number>> resultsJvm = new HashMap<>();
 
-    Search jvmUsedSearch = Search.in(this.meterRegistry).name(s -> s.contains("jvm.memory.used"));
+    Collection<Gauge> gauges = meterIndex.get(Category.JVM_MEMORY_USED);
+    gauges.forEach(gauge -> resultsJvm.computeIfAbsent(gauge.getId().getTag("id"),
+        k -> new HashMap<>()).put("used", gauge.value()));
 
-    Collection<Gauge> gauges = jvmUsedSearch.gauges();
-    gauges.forEach(gauge -> {
-      String key = gauge.getId().getTag("id");
-      resultsJvm.putIfAbsent(key, new HashMap<>());
-      resultsJvm.get(key).put("used", gauge.value());
-    });
+    gauges = meterIndex.get(Category.JVM_MEMORY_MAX);
+    gauges.forEach(gauge -> resultsJvm.computeIfAbsent(gauge.getId().getTag("id"),
+        k -> new HashMap<>()).put("max", gauge.value()));
 
-    Search jvmMaxSearch = Search.in(this.meterRegistry).name(s -> s.contains("jvm.memory.max"));
-
-    gauges = jvmMaxSearch.gauges();
-    gauges.forEach(gauge -> {
-      String key = gauge.getId().getTag("id");
-      resultsJvm.get(key).put("max", gauge.value());
-    });
-
-    gauges = Search.in(this.meterRegistry).name(s -> s.contains("jvm.memory.committed")).gauges();
-    gauges.forEach(gauge -> {
-      String key = gauge.getId().getTag("id");
-      resultsJvm.get(key).put("committed", gauge.value());
-    });
+    gauges = meterIndex.get(Category.JVM_MEMORY_COMMITTED);
+    gauges.forEach(gauge -> resultsJvm.computeIfAbsent(gauge.getId().getTag("id"),
+        k -> new HashMap<>()).put("committed", gauge.value()));
 
     return resultsJvm;
   }
 
   private Map<String, Map> httpRequestsMetrics() {
-    Set<String> statusCode = new HashSet<>();
-    Collection<Timer> timers = this.meterRegistry.find("http.server.requests").timers();
-
-    timers.forEach(timer -> statusCode.add(timer.getId().getTag("status")));
+    // count, max and total time per status, in one pass over the timers
+    Map<String, double[]> totalsPerCode = new HashMap<>();
+    long countAllrequests = 0;
+    Collection<Timer> timers = meterIndex.get(Category.HTTP_SERVER_REQUESTS);
+    for (Timer timer : timers) {
+      double[] totals = totalsPerCode
+          .computeIfAbsent(timer.getId().getTag("status"), code -> new double[3]);
+      totals[0] += timer.count();
+      totals[1] = Math.max(totals[1], timer.max(TimeUnit.MILLISECONDS));
+      totals[2] += timer.totalTime(TimeUnit.MILLISECONDS);
+      countAllrequests += timer.count();
+    }
 
     Map<String, Map> resultsHttp = new HashMap<>();
     Map<String, Map<String, Number>> resultsHttpPerCode = new HashMap<>();
 
-    statusCode.forEach(code -> {
+    totalsPerCode.forEach((code, totals) -> {
       Map<String, Number> resultsPerCode = new HashMap<>();
 
-      Collection<Timer> httpTimersStream = this.meterRegistry.find("http.server.requests")
-          .tag("status", code).timers();
-      long count = httpTimersStream.stream().map(Timer::count).reduce((x, y) -> x + y).orElse(0L);
-      double max = httpTimersStream.stream().map(x -> x.max(TimeUnit.MILLISECONDS))
-          .reduce((x, y) -> x > y ? x : y).orElse((double) 0);
-      double totalTime = httpTimersStream.stream().map(x -> x.totalTime(TimeUnit.MILLISECONDS))
-          .reduce((x, y) -> (x + y)).orElse((double) 0);
-
+      long count = (long) totals[0];
       resultsPerCode.put("count", count);
-      resultsPerCode.put("max", max);
-      resultsPerCode.put("mean", count != 0 ? totalTime / count : 0);
+      resultsPerCode.put("max", totals[1]);
+      resultsPerCode.put("mean", count != 0 ? totals[2] / count : 0);
 
       resultsHttpPerCode.put(code, resultsPerCode);
     });
 
     resultsHttp.put("percode", resultsHttpPerCode);
 
-    timers = this.meterRegistry.find("http.server.requests").timers();
-    long countAllrequests = timers.stream().map(Timer::count).reduce((x, y) -> x + y).orElse(0L);
     Map<String, Number> resultsHTTPAll = new HashMap<>();
     resultsHTTPAll.put("count", countAllrequests);
 
@@ -341,5 +343,4 @@ public class JHapyMetricsEndpoint {
 
     return resultsHttp;
   }
-
-}
\ No newline at end of file
+}
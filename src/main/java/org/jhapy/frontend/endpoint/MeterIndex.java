@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.endpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The meters shown by {@link JHapyMetricsEndpoint}, grouped by category. The categories are
+ * computed once when a meter is added to the registry, so a request reads the meters of each
+ * category directly instead of searching the whole registry.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-20
+ */
+public class MeterIndex {
+
+  public enum Category {
+    JVM_MEMORY_USED(Gauge.class, name -> name.contains("jvm.memory.used")),
+    JVM_MEMORY_MAX(Gauge.class, name -> name.contains("jvm.memory.max")),
+    JVM_MEMORY_COMMITTED(Gauge.class, name -> name.contains("jvm.memory.committed")),
+    HTTP_SERVER_REQUESTS(Timer.class, name -> name.equals("http.server.requests")),
+    CACHE_COUNTERS(FunctionCounter.class,
+        name -> name.contains("cache") && !name.contains("hibernate")),
+    CACHE_GAUGES(Gauge.class, name -> name.contains("cache")),
+    DATABASE_TIMERS(Timer.class, name -> name.contains("hikari")),
+    DATABASE_GAUGES(Gauge.class, name -> name.contains("hikari")),
+    GC_PAUSE_TIMERS(Timer.class, name -> name.contains("jvm.gc.pause")),
+    GC_GAUGES(Gauge.class, name -> name.contains("jvm.gc") && !name.contains("jvm.gc.pause")),
+    GC_COUNTERS(Counter.class, name -> name.contains("jvm.gc") && !name.contains("jvm.gc.pause")),
+    CLASSES_LOADED(Gauge.class, name -> name.contains("jvm.classes.loaded")),
+    CLASSES_UNLOADED(FunctionCounter.class, name -> name.contains("jvm.classes.unloaded")),
+    PROCESS_GAUGES(Gauge.class,
+        name -> name.contains("cpu") || name.contains("system") || name.contains("process")),
+    PROCESS_TIME_GAUGES(TimeGauge.class, name -> name.contains("process")),
+    VAADIN_GAUGES(Gauge.class, name -> name.contains("vaadin.sessions"));
+
+    private final Class<? extends Meter> type;
+    private final Predicate<String> name;
+
+    Category(Class<? extends Meter> type, Predicate<String> name) {
+      this.type = type;
+      this.name = name;
+    }
+
+    boolean matches(Meter meter) {
+      return type.isInstance(meter) && name.test(meter.getId().getName());
+    }
+  }
+
+  private final Map<Category, Set<Meter>> meters = new EnumMap<>(Category.class);
+
+  public MeterIndex(MeterRegistry meterRegistry) {
+    for (Category category : Category.values()) {
+      meters.put(category, ConcurrentHashMap.newKeySet());
+    }
+    // Listen first, the sets ignore a meter added twice
+    meterRegistry.config().onMeterAdded(this::add);
+    meterRegistry.config().onMeterRemoved(this::remove);
+    meterRegistry.forEachMeter(this::add);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <M extends Meter> Collection<M> get(Category category) {
+    return Collections.unmodifiableCollection((Set<M>) meters.get(category));
+  }
+
+  private void add(Meter meter) {
+    for (Category category : Category.values()) {
+      if (category.matches(meter)) {
+        meters.get(category).add(meter);
+      }
+    }
+  }
+
+  private void remove(Meter meter) {
+    meters.values().forEach(categoryMeters -> categoryMeters.remove(meter));
+  }
+}
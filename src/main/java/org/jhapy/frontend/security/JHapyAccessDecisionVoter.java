@@ -20,10 +20,13 @@ package org.jhapy.frontend.security;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.jhapy.commons.utils.HasLogger;
 import org.jhapy.dto.domain.security.SecurityRole;
+import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.frontend.client.security.SecurityRoleService;
+import org.jhapy.frontend.config.AppProperties;
 import org.springframework.security.access.AccessDecisionVoter;
 import org.springframework.security.access.ConfigAttribute;
 import org.springframework.security.core.Authentication;
@@ -39,12 +42,15 @@ import org.springframework.stereotype.Component;
 public class JHapyAccessDecisionVoter implements AccessDecisionVoter, HasLogger {
 
   private final SecurityRoleService securityRoleService;
-  private List<String> allowedRoles;
+  private final long allowedRolesTtl;
+
+  private volatile Set<String> allowedRoles;
+  private volatile long allowedRolesExpiry;
 
   public JHapyAccessDecisionVoter(
-      SecurityRoleService securityRoleService) {
+      SecurityRoleService securityRoleService, AppProperties appProperties) {
     this.securityRoleService = securityRoleService;
-
+    this.allowedRolesTtl = appProperties.getAuthorization().getAllowedLoginRolesTtl().toMillis();
   }
 
   @Override
@@ -56,9 +62,10 @@ public class JHapyAccessDecisionVoter implements AccessDecisionVoter, HasLogger
   public int vote(Authentication authentication, Object object, Collection collection) {
     String loggerPrefix = getLoggerPrefix("vote");
 
+    Set<String> roles = getAllowedRoles();
     int result = authentication.getAuthorities().stream()
         .map(GrantedAuthority::getAuthority)
-        .filter(getAllowedRoles()::contains)
+        .filter(roles::contains)
         .findAny()
         .map(s -> ACCESS_GRANTED)
         .orElse(ACCESS_ABSTAIN);
@@ -69,18 +76,48 @@ public class JHapyAccessDecisionVoter implements AccessDecisionVoter, HasLogger
     return result;
   }
 
-  protected List<String> getAllowedRoles() {
-    if (allowedRoles == null) {
-      allowedRoles = securityRoleService.getAllowedLoginRoles().getData().stream().map(
-          SecurityRole::getName).collect(
-          Collectors.toList());
+  /**
+   * Forget the allowed login roles, they are loaded again on the next vote
+   */
+  public void invalidateAllowedRoles() {
+    allowedRolesExpiry = 0;
+  }
+
+  protected Set<String> getAllowedRoles() {
+    Set<String> roles = allowedRoles;
+    if (roles == null || System.currentTimeMillis() >= allowedRolesExpiry) {
+      synchronized (this) {
+        roles = allowedRoles;
+        if (roles == null || System.currentTimeMillis() >= allowedRolesExpiry) {
+          roles = loadAllowedRoles(roles);
+        }
+      }
     }
+    return roles;
+  }
 
-    return allowedRoles;
+  private Set<String> loadAllowedRoles(Set<String> previousRoles) {
+    ServiceResult<List<SecurityRole>> result = securityRoleService
+        .getAllowedLoginRoles();
+    if (!result.getIsSuccess() || result.getData() == null) {
+      logger().warn(getLoggerPrefix("loadAllowedRoles") + "Cannot load the allowed roles : "
+          + result.getMessage());
+      if (previousRoles != null) {
+        // Keep the known roles until the next try
+        allowedRolesExpiry = System.currentTimeMillis() + allowedRolesTtl;
+        return previousRoles;
+      }
+      return Set.of();
+    }
+    Set<String> roles = result.getData().stream().map(SecurityRole::getName)
+        .collect(Collectors.toUnmodifiableSet());
+    allowedRoles = roles;
+    allowedRolesExpiry = System.currentTimeMillis() + allowedRolesTtl;
+    return roles;
   }
 
   @Override
   public boolean supports(Class clazz) {
     return true;
   }
-}
\ No newline at end of file
+}
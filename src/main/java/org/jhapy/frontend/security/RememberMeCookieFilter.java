@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.security;
+
+import java.io.IOException;
+import java.time.Instant;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.dto.domain.security.SecurityUser;
+import org.jhapy.dto.messageQueue.NewSession;
+import org.jhapy.dto.serviceQuery.generic.SaveQuery;
+import org.jhapy.frontend.client.audit.AuditServiceQueue;
+import org.jhapy.frontend.client.security.SecurityUserService;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Logs in the user of a remember-me cookie, once per HTTP request and before any security check.
+ * The authentication is then kept in the HTTP session, so the cookie is only used again when the
+ * session expires. Cookies with a wrong signature or expired are deleted without calling the
+ * server.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-19
+ */
+public class RememberMeCookieFilter extends OncePerRequestFilter implements HasLogger {
+
+  private final RememberMeService rememberMeService;
+  private final SecurityUserService securityUserService;
+  private final AuditServiceQueue auditServiceQueue;
+
+  public RememberMeCookieFilter(RememberMeService rememberMeService,
+      SecurityUserService securityUserService, AuditServiceQueue auditServiceQueue) {
+    this.rememberMeService = rememberMeService;
+    this.securityUserService = securityUserService;
+    this.auditServiceQueue = auditServiceQueue;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+      Cookie cookie = getRememberMeCookie(request);
+      if (cookie != null) {
+        loginRememberedUser(request, response, cookie);
+      }
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  private void loginRememberedUser(HttpServletRequest request, HttpServletResponse response,
+      Cookie cookie) {
+    String loggerPrefix = getLoggerPrefix("loginRememberedUser");
+
+    String token = rememberMeService.verify(cookie.getValue());
+    SecurityUser securityUser = token == null ? null : rememberMeService.getSecurityUser(token);
+    if (securityUser == null) {
+      logger().debug(loggerPrefix + "Invalid remember-me cookie, delete it");
+      deleteCookie(cookie, response);
+      return;
+    }
+
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(securityUser, null,
+            securityUser.getAuthorities()));
+
+    securityUser.setLastSuccessfulLogin(Instant.now());
+    securityUser.setIsAccountLocked(false);
+    securityUser.setFailedLoginAttempts(0);
+    securityUserService.save(new SaveQuery<>(securityUser));
+
+    auditServiceQueue.newSession(
+        new NewSession(request.getSession().getId(), securityUser.getUsername(),
+            request.getRemoteAddr(), Instant.now(), true, null));
+
+    logger().debug(loggerPrefix + "User '" + securityUser.getUsername() + "' remembered");
+  }
+
+  private Cookie getRememberMeCookie(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies != null) {
+      for (Cookie cookie : cookies) {
+        if (RememberMeService.COOKIE_NAME.equals(cookie.getName())) {
+          return cookie;
+        }
+      }
+    }
+    return null;
+  }
+
+  private void deleteCookie(Cookie existing, HttpServletResponse response) {
+    Cookie cookie = new Cookie(existing.getName(), null);
+    cookie.setPath(existing.getPath() != null ? existing.getPath() : "/");
+    if (existing.getDomain() != null) {
+      cookie.setDomain(existing.getDomain());
+    }
+    cookie.setMaxAge(0);
+    response.addCookie(cookie);
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.dto.domain.security.RememberMeToken;
+import org.jhapy.dto.domain.security.SecurityUser;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.jhapy.dto.serviceQuery.authentification.ClearRememberMeTokenQuery;
+import org.jhapy.dto.serviceQuery.authentification.GetSecurityUserByRememberMeTokenQuery;
+import org.jhapy.frontend.client.AuthService;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signs the remember-me tokens given by the server, so a cookie can be checked locally before
+ * asking the server who it belongs to. The cookie value is
+ * <code>token.expiry.signature</code>: the token in base64, its expiry in epoch seconds and an
+ * HMAC-SHA256 of both. Tokens accepted by the server are kept for
+ * <code>jhapy.remember-me.validated-tokens-ttl</code>, rejected ones as well so a stale cookie is
+ * checked only once.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-19
+ */
+@Component
+public class RememberMeService implements HasLogger {
+
+  public static final String COOKIE_NAME = "remember-me";
+
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final AuthService authService;
+  private final AppProperties.RememberMe settings;
+  private final SecretKeySpec key;
+  private final Map<String, ValidatedToken> validatedTokens = new ConcurrentHashMap<>();
+
+  public RememberMeService(AuthService authService, AppProperties appProperties) {
+    this.authService = authService;
+    this.settings = appProperties.getRememberMe();
+
+    byte[] keyBytes;
+    if (StringUtils.isBlank(settings.getKey())) {
+      logger().warn(getLoggerPrefix("RememberMeService") + "No jhapy.remember-me.key, "
+          + "remember-me cookies are only valid on this node until it restarts");
+      keyBytes = new byte[32];
+      new SecureRandom().nextBytes(keyBytes);
+    } else {
+      keyBytes = settings.getKey().getBytes(StandardCharsets.UTF_8);
+    }
+    this.key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+  }
+
+  public Cookie createCookie(RememberMeToken rememberMeToken) {
+    long expiry = rememberMeToken.getExpiryDate().getTime() / 1000;
+    String payload = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(rememberMeToken.getToken().getBytes(StandardCharsets.UTF_8)) + "."
+        + expiry;
+
+    Cookie cookie = new Cookie(COOKIE_NAME, payload + "." + sign(payload));
+    cookie.setPath("/");
+    cookie.setMaxAge((int) Math.max(0, expiry - System.currentTimeMillis() / 1000));
+    cookie.setHttpOnly(true);
+    return cookie;
+  }
+
+  /**
+   * @return the server token of a correctly signed and not expired cookie value, <code>null</code>
+   * otherwise
+   */
+  public String verify(String cookieValue) {
+    if (cookieValue == null) {
+      return null;
+    }
+    int signatureSeparator = cookieValue.lastIndexOf('.');
+    int expirySeparator = signatureSeparator > 0 ? cookieValue
+        .lastIndexOf('.', signatureSeparator - 1) : -1;
+    if (expirySeparator <= 0) {
+      return null;
+    }
+    String payload = cookieValue.substring(0, signatureSeparator);
+    byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+    byte[] actual = cookieValue.substring(signatureSeparator + 1)
+        .getBytes(StandardCharsets.US_ASCII);
+    if (!MessageDigest.isEqual(expected, actual)) {
+      return null;
+    }
+    try {
+      long expiry = Long.parseLong(cookieValue.substring(expirySeparator + 1, signatureSeparator));
+      if (expiry <= System.currentTimeMillis() / 1000) {
+        return null;
+      }
+      return new String(
+          Base64.getUrlDecoder().decode(cookieValue.substring(0, expirySeparator)),
+          StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return a copy of the user of a verified token (the caller may change it), <code>null</code>
+   * when the server does not know it
+   */
+  public SecurityUser getSecurityUser(String token) {
+    long now = System.currentTimeMillis();
+    ValidatedToken validatedToken = validatedTokens.get(token);
+    if (validatedToken != null && validatedToken.expiresAt > now) {
+      return copy(validatedToken.securityUser);
+    }
+
+    ServiceResult<SecurityUser> result = authService
+        .getSecurityUserByRememberMeToken(new GetSecurityUserByRememberMeTokenQuery(token));
+    SecurityUser securityUser =
+        result != null && result.getIsSuccess() ? result.getData() : null;
+
+    if (validatedTokens.size() >= settings.getMaxValidatedTokens()) {
+      validatedTokens.values().removeIf(t -> t.expiresAt <= now);
+      if (validatedTokens.size() >= settings.getMaxValidatedTokens()) {
+        validatedTokens.clear();
+      }
+    }
+    validatedTokens.put(token,
+        new ValidatedToken(securityUser, now + settings.getValidatedTokensTtl().toMillis()));
+    return copy(securityUser);
+  }
+
+  /**
+   * Revoke the token of a cookie on the server
+   */
+  public void clear(String cookieValue) {
+    String token = verify(cookieValue);
+    if (token != null) {
+      validatedTokens.remove(token);
+      authService.clearRememberMeToken(new ClearRememberMeTokenQuery(token));
+    }
+  }
+
+  /**
+   * The cached user is shared by all the requests with the same cookie, each one gets its own
+   */
+  private static SecurityUser copy(SecurityUser securityUser) {
+    return securityUser == null ? null : SerializationUtils.clone(securityUser);
+  }
+
+  private String sign(String payload) {
+    try {
+      Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+      mac.init(key);
+      return Base64.getUrlEncoder().withoutPadding()
+          .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class ValidatedToken {
+
+    private final SecurityUser securityUser;
+    private final long expiresAt;
+
+    private ValidatedToken(SecurityUser securityUser, long expiresAt) {
+      this.securityUser = securityUser;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -41,16 +41,13 @@ import org.jhapy.dto.domain.security.SecurityUser;
 import org.jhapy.dto.messageQueue.EndSession;
 import org.jhapy.dto.messageQueue.NewSession;
 import org.jhapy.dto.serviceQuery.ServiceResult;
-import org.jhapy.dto.serviceQuery.authentification.ClearRememberMeTokenQuery;
 import org.jhapy.dto.serviceQuery.authentification.CreateRememberMeTokenQuery;
-import org.jhapy.dto.serviceQuery.authentification.GetSecurityUserByRememberMeTokenQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
-import org.jhapy.frontend.annotations.PublicView;
 import org.jhapy.frontend.client.BaseServices;
 import org.jhapy.frontend.client.audit.AuditServices;
 import org.jhapy.frontend.client.security.SecurityServices;
-import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.security.access.annotation.Secured;
+import org.jhapy.frontend.security.ViewAccessMatrix.UserRoles;
+import org.jhapy.frontend.security.ViewAccessMatrix.ViewAccess;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -72,7 +69,6 @@ import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 public final class SecurityUtils {
 
   public static final String SESSION_USERNAME = "username";
-  private static final String COOKIE_NAME = "remember-me";
 
 
   private SecurityUtils() {
@@ -132,9 +128,10 @@ public final class SecurityUtils {
    * @return true if access is granted, false otherwise.
    */
   public static boolean isAccessGranted(Class<?> viewClass) {
+    ViewAccess viewAccess = ViewAccessMatrix.getViewAccess(viewClass);
+
     // Always allow access to public views
-    PublicView publicView = AnnotationUtils.findAnnotation(viewClass, PublicView.class);
-    if (publicView != null) {
+    if (viewAccess.isPublicView()) {
       return true;
     }
 
@@ -145,15 +142,20 @@ public final class SecurityUtils {
       return false;
     }
 
-    // Allow if no roles are required.
-    Secured secured = AnnotationUtils.findAnnotation(viewClass, Secured.class);
-    if (secured == null) {
-      return true;
-    }
+    return viewAccess.isGranted(getUserRoles(userAuthentication));
+  }
 
-    List<String> allowedRoles = Arrays.asList(secured.value());
-    return userAuthentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
-        .anyMatch(allowedRoles::contains);
+  private static UserRoles getUserRoles(Authentication authentication) {
+    VaadinSession session = VaadinSession.getCurrent();
+    if (session == null) {
+      return ViewAccessMatrix.getUserRoles(authentication);
+    }
+    UserRoles userRoles = session.getAttribute(UserRoles.class);
+    if (userRoles == null || !userRoles.isValidFor(authentication)) {
+      userRoles = ViewAccessMatrix.getUserRoles(authentication);
+      session.setAttribute(UserRoles.class, userRoles);
+    }
+    return userRoles;
   }
 
   public static boolean hasRole(String role) {
@@ -177,9 +179,11 @@ public final class SecurityUtils {
     return isUserLoggedIn(SecurityContextHolder.getContext().getAuthentication());
   }
 
+  /**
+   * A remembered user is already logged in by {@link RememberMeCookieFilter} at this point
+   */
   private static boolean isUserLoggedIn(Authentication authentication) {
-    return (authentication != null
-        && !(authentication instanceof AnonymousAuthenticationToken)) || loginRememberedUser();
+    return authentication != null && !(authentication instanceof AnonymousAuthenticationToken);
   }
 
   /**
@@ -220,14 +224,8 @@ public final class SecurityUtils {
           .createRememberMeToken(new CreateRememberMeTokenQuery(securityUser.getId()));
 
       if (_rememberMeToken.getIsSuccess()) {
-        RememberMeToken rememberMeToken = _rememberMeToken.getData();
-
-        Cookie cookie = new Cookie(COOKIE_NAME, rememberMeToken.getToken());
-        cookie.setPath("/");
-        cookie.setMaxAge(
-            (int) (rememberMeToken.getExpiryDate().getTime() - System.currentTimeMillis() * 1000));
-        cookie.setHttpOnly(true);
-        VaadinService.getCurrentResponse().addCookie(cookie);
+        VaadinService.getCurrentResponse().addCookie(
+            SecurityServices.getRememberMeService().createCookie(_rememberMeToken.getData()));
       }
     }
   }
@@ -235,8 +233,7 @@ public final class SecurityUtils {
   public static void endSession(String jSessionId) {
     Optional<Cookie> cookie = getRememberMeCookie();
     if (cookie.isPresent()) {
-      String id = cookie.get().getValue();
-      BaseServices.getAuthService().clearRememberMeToken(new ClearRememberMeTokenQuery(id));
+      SecurityServices.getRememberMeService().clear(cookie.get().getValue());
       deleteRememberMeCookie(cookie.get());
     }
     AuditServices.getAuditServiceQueue().endSession(new EndSession(jSessionId, Instant.now()));
@@ -251,31 +248,13 @@ public final class SecurityUtils {
 
     Cookie[] cookies = VaadinService.getCurrentRequest().getCookies();
     if (cookies != null) {
-      return Arrays.stream(cookies).filter(c -> c.getName().equals(COOKIE_NAME)).findFirst();
+      return Arrays.stream(cookies)
+          .filter(c -> c.getName().equals(RememberMeService.COOKIE_NAME)).findFirst();
     }
 
     return Optional.empty();
   }
 
-  private static boolean loginRememberedUser() {
-    Optional<Cookie> rememberMeCookie = getRememberMeCookie();
-
-    if (rememberMeCookie.isPresent()) {
-      String id = rememberMeCookie.get().getValue();
-      ServiceResult<SecurityUser> _securityUser = BaseServices.getAuthService()
-          .getSecurityUserByRememberMeToken(new GetSecurityUserByRememberMeTokenQuery(id));
-
-      if (_securityUser != null && _securityUser.getIsSuccess()) {
-        newSession(_securityUser.getData(), true);
-        return true;
-      } else {
-        deleteRememberMeCookie(rememberMeCookie.get());
-      }
-    }
-
-    return false;
-  }
-
   private static void deleteRememberMeCookie(Cookie existing) {
     Cookie cookie = new Cookie(existing.getName(), null);
     if (existing.getPath() != null) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.security;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jhapy.frontend.annotations.PublicView;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * The roles required by each view, resolved once per view class. Every role found in a {@link
+ * Secured} annotation gets a bit, so the roles of a user become a {@link BitSet} and an access
+ * check is a bit test instead of an annotation lookup.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-19
+ */
+public final class ViewAccessMatrix {
+
+  private static final Map<String, Integer> roleIndexes = new ConcurrentHashMap<>();
+
+  private static final ClassValue<ViewAccess> viewAccesses = new ClassValue<>() {
+    @Override
+    protected ViewAccess computeValue(Class<?> viewClass) {
+      return resolve(viewClass);
+    }
+  };
+
+  private ViewAccessMatrix() {
+    // Util methods only
+  }
+
+  /**
+   * Resolve the access of the given views up front, usually all the routes at startup
+   */
+  public static void preload(Collection<Class<?>> viewClasses) {
+    viewClasses.forEach(viewAccesses::get);
+  }
+
+  public static ViewAccess getViewAccess(Class<?> viewClass) {
+    return viewAccesses.get(viewClass);
+  }
+
+  public static UserRoles getUserRoles(Authentication authentication) {
+    BitSet roles = new BitSet();
+    int roleCount = roleIndexes.size();
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      Integer index = roleIndexes.get(authority.getAuthority());
+      if (index != null) {
+        roles.set(index);
+      }
+    }
+    return new UserRoles(authentication, roleCount, roles);
+  }
+
+  private static ViewAccess resolve(Class<?> viewClass) {
+    if (AnnotationUtils.findAnnotation(viewClass, PublicView.class) != null) {
+      return ViewAccess.PUBLIC;
+    }
+    Secured secured = AnnotationUtils.findAnnotation(viewClass, Secured.class);
+    if (secured == null) {
+      return ViewAccess.AUTHENTICATED;
+    }
+    BitSet requiredRoles = new BitSet();
+    for (String role : secured.value()) {
+      requiredRoles.set(indexOf(role));
+    }
+    return new ViewAccess(false, requiredRoles);
+  }
+
+  private static synchronized int indexOf(String role) {
+    Integer index = roleIndexes.get(role);
+    if (index == null) {
+      index = roleIndexes.size();
+      roleIndexes.put(role, index);
+    }
+    return index;
+  }
+
+  /**
+   * Who can display one view
+   */
+  public static final class ViewAccess {
+
+    static final ViewAccess PUBLIC = new ViewAccess(true, null);
+    static final ViewAccess AUTHENTICATED = new ViewAccess(false, null);
+
+    private final boolean publicView;
+    /**
+     * Any of these roles is needed, <code>null</code> when being logged in is enough
+     */
+    private final BitSet requiredRoles;
+
+    private ViewAccess(boolean publicView, BitSet requiredRoles) {
+      this.publicView = publicView;
+      this.requiredRoles = requiredRoles;
+    }
+
+    public boolean isPublicView() {
+      return publicView;
+    }
+
+    public boolean isGranted(UserRoles userRoles) {
+      return publicView || requiredRoles == null || requiredRoles.intersects(userRoles.roles);
+    }
+  }
+
+  /**
+   * The roles of one authenticated user, kept in the session while the authentication does not
+   * change
+   */
+  public static final class UserRoles {
+
+    private final Authentication authentication;
+    private final int roleCount;
+    private final BitSet roles;
+
+    private UserRoles(Authentication authentication, int roleCount, BitSet roles) {
+      this.authentication = authentication;
+      this.roleCount = roleCount;
+      this.roles = roles;
+    }
+
+    /**
+     * @return false when the user changed, or when views resolved since then added new roles
+     */
+    public boolean isValidFor(Authentication authentication) {
+      return this.authentication == authentication && roleCount == roleIndexes.size();
+    }
+  }
+}
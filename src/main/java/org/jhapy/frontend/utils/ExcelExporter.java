@@ -19,196 +19,402 @@
 package org.jhapy.frontend.utils;
 
 import com.vaadin.flow.component.grid.Grid;
-import com.vaadin.flow.data.binder.PropertySet;
-import com.vaadin.flow.data.provider.DataCommunicator;
 import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.provider.Query;
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang.WordUtils;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.jhapy.commons.utils.HasLogger;
 import org.jhapy.dto.utils.StoredFile;
-import org.jhapy.frontend.views.JHapyMainView;
+import org.jhapy.frontend.dataproviders.utils.PageableDataProvider;
 
 /**
+ * Exports all the rows of a grid, pulled page by page from its data provider and written as they
+ * come: an XLSX file through a streaming workbook keeping only {@link #WINDOW_SIZE} rows in
+ * memory, or a CSV file. The columns are the getters of the entity type, read through method
+ * handles resolved once per type.
+ *
+ * <p>The data provider must apply its own filter (like the filterable data providers of this
+ * application do), or the filter has to be given with {@link #setFilter(Object)}. The pageable
+ * data providers are read with {@link PageableDataProvider#fetchDirect(Query)}, by pages of
+ * {@link #setPageSize(int)} items which do not go through the page cache of the grid.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 09/04/2020
  */
 public class ExcelExporter<T> implements HasLogger {
 
-  private static final String TMP_FILE_NAME = "tmp";
+  public static final int WINDOW_SIZE = 100;
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  /**
+   * Longest text an Excel cell can hold
+   */
+  private static final int MAX_CELL_LENGTH = 32767;
+
+  private static final ClassValue<List<Column>> columnsByType = new ClassValue<>() {
+    @Override
+    protected List<Column> computeValue(Class<?> type) {
+      return resolveColumns(type);
+    }
+  };
 
-  private File file;
-  private DataProvider dataProvider;
   private final Grid<T> grid;
   private final Class<T> entityType;
+  private final Set<String> excludedColumns;
+  private final Format format;
 
-  private PropertySet<T> propertySet;
+  private Object filter;
+  private int pageSize = DEFAULT_PAGE_SIZE;
 
   public ExcelExporter(Grid<T> grid, Class<T> entityType) {
     this(grid, entityType, null);
   }
 
   public ExcelExporter(Grid<T> grid, Class<T> entityType, List<String> excludedColumns) {
+    this(grid, entityType, excludedColumns, Format.XLSX);
+  }
+
+  public ExcelExporter(Grid<T> grid, Class<T> entityType, List<String> excludedColumns,
+      Format format) {
     this.grid = grid;
     this.entityType = entityType;
+    this.excludedColumns =
+        excludedColumns == null ? Collections.emptySet() : new HashSet<>(excludedColumns);
+    this.format = format;
+  }
+
+  public void setFilter(Object filter) {
+    this.filter = filter;
+  }
+
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  public String getFileExtension() {
+    return format.getFileExtension();
   }
 
+  /**
+   * @return the content of the exported file, which is deleted when the stream is closed
+   */
   public InputStream build() {
+    Path file = null;
     try {
-      initTempFile();
-      resetContent();
-      buildFileContent();
-      writeToFile();
-      return new FileInputStream(file);
+      file = Files.createTempFile("export", getFileExtension());
+      try (OutputStream outputStream = Files.newOutputStream(file)) {
+        write(outputStream);
+      }
+      Path exportedFile = file;
+      return new FilterInputStream(Files.newInputStream(file)) {
+        @Override
+        public void close() throws IOException {
+          super.close();
+          Files.deleteIfExists(exportedFile);
+        }
+      };
     } catch (Exception e) {
+      if (file != null) {
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+          // Nothing more to do
+        }
+      }
       throw new ExcelExporterException("An error happened during exporting your Grid", e);
     }
   }
 
-  private void initTempFile() throws IOException {
-    if (file == null || file.delete()) {
-      file = createTempFile();
+  /**
+   * Write the export directly to the given stream, for a download
+   */
+  public void write(OutputStream outputStream) throws IOException {
+    String loggerPrefix = getLoggerPrefix("write");
+
+    List<Column> columns = columnsByType.get(entityType).stream()
+        .filter(column -> !excludedColumns.contains(column.name))
+        .collect(Collectors.toList());
+    String className = WordUtils.uncapitalize(entityType.getSimpleName());
+    List<String> headers = columns.stream()
+        .map(column -> grid.getTranslation("element." + className + "." + column.name))
+        .collect(Collectors.toList());
+
+    long rows;
+    try (RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(outputStream)
+        : new XlsxRowWriter(outputStream)) {
+      rowWriter.writeHeader(headers);
+      rows = writeRows(columns, rowWriter);
     }
+    logger().debug(loggerPrefix + rows + " rows exported");
   }
 
-  private File createTempFile() throws IOException {
-    return File.createTempFile(TMP_FILE_NAME, getFileExtension());
+  @SuppressWarnings("unchecked")
+  private long writeRows(List<Column> columns, RowWriter rowWriter) throws IOException {
+    DataProvider<T, Object> dataProvider = (DataProvider<T, Object>) grid.getDataProvider();
+    Object[] values = new Object[columns.size()];
+    long rows = 0;
+    int offset = 0;
+    int fetched;
+    do {
+      Query<T, Object> query = new Query<>(offset, pageSize,
+          grid.getDataCommunicator().getBackEndSorting(),
+          grid.getDataCommunicator().getInMemorySorting(), filter);
+      fetched = 0;
+      try (Stream<T> page = fetch(dataProvider, query)) {
+        Iterator<T> iterator = page.iterator();
+        while (iterator.hasNext()) {
+          T item = iterator.next();
+          for (int i = 0; i < values.length; i++) {
+            values[i] = columns.get(i).get(item);
+          }
+          rowWriter.writeRow(values);
+          fetched++;
+        }
+      }
+      rows += fetched;
+      offset += fetched;
+    } while (fetched == pageSize);
+    return rows;
   }
 
-  protected void resetContent() {
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Stream<T> fetch(DataProvider<T, Object> dataProvider, Query<T, Object> query) {
+    if (dataProvider instanceof PageableDataProvider) {
+      return ((PageableDataProvider) dataProvider).fetchDirect(query);
+    }
+    return dataProvider.fetch(query);
+  }
 
+  private static List<Column> resolveColumns(Class<?> type) {
+    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    MethodType getterType = MethodType.methodType(Object.class, Object.class);
+    List<Column> columns = new ArrayList<>();
+    Set<String> names = new HashSet<>();
+    // The columns of the entity first, then the ones of its parents
+    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+      List<Method> methods = Arrays.stream(c.getDeclaredMethods())
+          .filter(ExcelExporter::isExportedGetter)
+          .sorted(Comparator.comparing(Method::getName))
+          .collect(Collectors.toList());
+      for (Method method : methods) {
+        String name = WordUtils.uncapitalize(method.getName().substring(3));
+        if (names.add(name)) {
+          try {
+            columns.add(new Column(name, lookup.unreflect(method).asType(getterType)));
+          } catch (IllegalAccessException e) {
+            // Not accessible, not exported
+          }
+        }
+      }
+    }
+    return Collections.unmodifiableList(columns);
   }
 
-  private void buildFileContent() {
-    buildHeaderRow();
-    buildRows();
-    buildFooter();
+  private static boolean isExportedGetter(Method method) {
+    return Modifier.isPublic(method.getModifiers())
+        && !Modifier.isStatic(method.getModifiers())
+        && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+        && method.getParameterCount() == 0
+        && method.getName().startsWith("get")
+        && method.getName().length() > 3
+        && !method.isBridge()
+        && !Collection.class.isAssignableFrom(method.getReturnType())
+        && !method.getReturnType().isArray()
+        && !method.getReturnType().equals(StoredFile.class);
   }
 
-  private void buildHeaderRow() {
-    onNewRow();
+  public enum Format {
+    XLSX(".xlsx"), CSV(".csv");
 
-    Method[] methods = entityType.getDeclaredMethods();
-    String className = WordUtils.uncapitalize(entityType.getSimpleName());
-    for (Method method : methods) {
-      if (method.getName().startsWith("get")
-          && !Collection.class.isAssignableFrom(method.getReturnType())
-          && !method.getReturnType().isArray()
-          && !method.getReturnType().equals(StoredFile.class)) {
-        onNewCell();
-        String attrName = WordUtils.uncapitalize(method.getName().substring(3));
-        buildColumnHeaderCell("element." + className + "." + attrName);
-      }
+    private final String fileExtension;
+
+    Format(String fileExtension) {
+      this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+      return fileExtension;
     }
   }
 
-  void buildColumnHeaderCell(String header) {
-    String loggerPrefix = getLoggerPrefix("buildColumnHeaderCell");
+  private static final class Column {
 
-    logger().debug(
-        loggerPrefix + "Build header for column name " + header + " : " + JHapyMainView.get()
-            .getTranslation(header));
-  }
+    private final String name;
+    private final MethodHandle getter;
 
-  private void buildRows() {
-    String loggerPrefix = getLoggerPrefix("buildRows");
-    Object filter = null;
-    try {
-      Method method = DataCommunicator.class.getDeclaredMethod("getFilter");
-      method.setAccessible(true);
-      filter = method.invoke(grid.getDataCommunicator());
-    } catch (Exception e) {
-      logger().error("Unable to get filter from DataCommunicator");
+    private Column(String name, MethodHandle getter) {
+      this.name = name;
+      this.getter = getter;
     }
 
-    Query streamQuery = new Query(0, grid.getDataProvider().size(new Query(filter)),
-        grid.getDataCommunicator().getBackEndSorting(),
-        grid.getDataCommunicator().getInMemorySorting(), null);
-    Stream<T> dataStream = getDataStream(streamQuery);
-
-    dataStream.forEach(t -> {
-      buildRow(t);
-    });
+    private Object get(Object item) {
+      try {
+        return (Object) getter.invokeExact(item);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ExcelExporterException("Cannot read " + name, new Exception(t));
+      }
+    }
   }
 
-  void buildFooter() {
+  private interface RowWriter extends AutoCloseable {
 
-  }
+    void writeHeader(List<String> headers) throws IOException;
 
-  void writeToFile() {
+    void writeRow(Object[] values) throws IOException;
 
+    @Override
+    void close() throws IOException;
   }
 
-  private void buildRow(T item) {
-    onNewRow();
-    Map<String, Object> values = new HashMap();
-    Method[] methods = item.getClass().getMethods();
-    for (Method method : methods) {
-      try {
-        if (method.getName().startsWith("get")
-            && !Collection.class.isAssignableFrom(method.getReturnType())
-            && !method.getReturnType().isArray()
-            && !method.getReturnType().equals(StoredFile.class)) {
-          String attrName = WordUtils.uncapitalize(method.getName().substring(3));
-          values.put(attrName, method.invoke(item));
-        }
-      } catch (IllegalAccessException e) {
-        e.printStackTrace();
-      } catch (InvocationTargetException e) {
-        e.printStackTrace();
+  private static final class XlsxRowWriter implements RowWriter {
+
+    private final OutputStream outputStream;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private final CellStyle dateStyle;
+    private int rowNumber = 0;
+
+    private XlsxRowWriter(OutputStream outputStream) {
+      this.outputStream = outputStream;
+      this.workbook = new SXSSFWorkbook(WINDOW_SIZE);
+      this.workbook.setCompressTempFiles(true);
+      this.sheet = workbook.createSheet();
+      this.dateStyle = workbook.createCellStyle();
+      this.dateStyle.setDataFormat(
+          workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+    }
+
+    @Override
+    public void writeHeader(List<String> headers) {
+      CellStyle headerStyle = workbook.createCellStyle();
+      Font font = workbook.createFont();
+      font.setBold(true);
+      headerStyle.setFont(font);
+
+      Row row = sheet.createRow(rowNumber++);
+      for (int i = 0; i < headers.size(); i++) {
+        Cell cell = row.createCell(i);
+        cell.setCellValue(headers.get(i));
+        cell.setCellStyle(headerStyle);
       }
+      sheet.createFreezePane(0, 1);
     }
 
-    values.forEach((s, o) -> {
-      onNewCell();
-      buildCell(o);
-    });
-  }
+    @Override
+    public void writeRow(Object[] values) {
+      Row row = sheet.createRow(rowNumber++);
+      for (int i = 0; i < values.length; i++) {
+        Object value = values[i];
+        if (value == null) {
+          continue;
+        }
+        Cell cell = row.createCell(i);
+        if (value instanceof Number) {
+          cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+          cell.setCellValue((Boolean) value);
+        } else if (value instanceof Date) {
+          cell.setCellValue((Date) value);
+          cell.setCellStyle(dateStyle);
+        } else {
+          String text = value.toString();
+          cell.setCellValue(
+              text.length() > MAX_CELL_LENGTH ? text.substring(0, MAX_CELL_LENGTH) : text);
+        }
+      }
+    }
 
-  String getFileExtension() {
-    return ".xlsx";
+    @Override
+    public void close() throws IOException {
+      try {
+        workbook.write(outputStream);
+      } finally {
+        // Removes the temporary files of the flushed rows
+        workbook.dispose();
+        workbook.close();
+      }
+    }
   }
 
-  void buildCell(Object value) {
-    String loggerPrefix = getLoggerPrefix("buildCell");
+  private static final class CsvRowWriter implements RowWriter {
 
-    logger().debug(loggerPrefix + "Build cell with value " + value);
-  }
+    private final Writer writer;
 
-  void onNewRow() {
-    String loggerPrefix = getLoggerPrefix("onNewRow");
+    private CsvRowWriter(OutputStream outputStream) throws IOException {
+      this.writer = new BufferedWriter(
+          new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      // Lets Excel detect the encoding
+      writer.write('\ufeff');
+    }
 
-    logger().debug(loggerPrefix + "New Row");
-  }
+    @Override
+    public void writeHeader(List<String> headers) throws IOException {
+      writeRow(headers.toArray());
+    }
 
-  void onNewCell() {
-    String loggerPrefix = getLoggerPrefix("onNewCell");
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        if (values[i] != null) {
+          writeValue(values[i].toString());
+        }
+      }
+      writer.write("\r\n");
+    }
 
-    logger().debug(loggerPrefix + "New Cell");
-  }
+    private void writeValue(String value) throws IOException {
+      if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+          && value.indexOf('\r') < 0) {
+        writer.write(value);
+      } else {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+      }
+    }
 
-  private Stream<T> getDataStream(Query newQuery) {
-    String loggerPrefix = getLoggerPrefix("getDataStream");
-    Stream<T> stream = grid.getDataProvider().fetch(newQuery);
-    if (stream.isParallel()) {
-      logger().debug("Data provider {} has returned "
-              + "parallel stream on 'fetch' call",
-          grid.getDataProvider().getClass());
-      stream = stream.collect(Collectors.toList()).stream();
-      assert !stream.isParallel();
+    @Override
+    public void close() throws IOException {
+      // The stream is closed by the caller
+      writer.flush();
     }
-    return stream;
   }
 }
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.utils.i18n;
+
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Locale.Category;
+import java.util.MissingFormatArgumentException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message translation pattern (using the {@link String#format(String, Object...)} syntax)
+ * parsed once. The flags, width, precision and conversion of each specifier are kept, so
+ * <code>%s</code> and <code>%d</code> (with an index, a width, <code>-</code> or
+ * <code>0</code>) are written directly. Other specifiers go through a {@link Formatter} kept per
+ * thread, instead of a new one for each call. Instances are immutable and can be shared between
+ * threads.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-10
+ */
+public final class CompiledMessage {
+
+  private static final Pattern FORMAT_SPECIFIER = Pattern
+      .compile("%(\\d+\\$)?([-#+ 0,(<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+  private static final ThreadLocal<SpecifierFormatter> formatters = ThreadLocal
+      .withInitial(SpecifierFormatter::new);
+
+  /**
+   * Zero digit of the last format locale used, to localize the digits like {@link Formatter}
+   */
+  private static volatile ZeroDigit zeroDigit = new ZeroDigit(Locale.ROOT, '0');
+
+  private final String pattern;
+  /**
+   * <code>null</code> when the pattern uses something not handled here, it is then given as is
+   * to {@link String#format(String, Object...)}
+   */
+  private final Segment[] segments;
+
+  private CompiledMessage(String pattern, Segment[] segments) {
+    this.pattern = pattern;
+    this.segments = segments;
+  }
+
+  public static CompiledMessage compile(String pattern) {
+    List<Segment> segments = new ArrayList<>();
+    Matcher matcher = FORMAT_SPECIFIER.matcher(pattern);
+    int position = 0;
+    int ordinaryIndex = 0;
+    int lastIndex = -1;
+
+    while (matcher.find()) {
+      if (pattern.indexOf('%', position) < matcher.start()) {
+        // A '%' not followed by a valid specifier, let Formatter report it
+        return new CompiledMessage(pattern, null);
+      }
+      if (matcher.start() > position) {
+        segments.add(Segment.literal(pattern.substring(position, matcher.start())));
+      }
+      position = matcher.end();
+
+      String explicitIndex = matcher.group(1);
+      String flags = matcher.group(2) == null ? "" : matcher.group(2);
+      String width = matcher.group(3);
+      String precision = matcher.group(4);
+      String dateTime = matcher.group(5);
+      char conversion = matcher.group(6).charAt(0);
+
+      if (conversion == '%' || conversion == 'n') {
+        if (explicitIndex != null || !flags.isEmpty() || width != null || precision != null
+            || dateTime != null) {
+          return new CompiledMessage(pattern, null);
+        }
+        segments.add(Segment.literal(conversion == '%' ? "%" : System.lineSeparator()));
+        continue;
+      }
+
+      int index;
+      if (flags.indexOf('<') >= 0) {
+        if (lastIndex < 0) {
+          return new CompiledMessage(pattern, null);
+        }
+        index = lastIndex;
+        flags = flags.replace("<", "");
+      } else if (explicitIndex != null) {
+        index = Integer.parseInt(explicitIndex.substring(0, explicitIndex.length() - 1)) - 1;
+        if (index < 0) {
+          return new CompiledMessage(pattern, null);
+        }
+      } else {
+        index = ordinaryIndex++;
+      }
+      lastIndex = index;
+
+      segments.add(Segment.argument(index, flags,
+          width == null ? -1 : Integer.parseInt(width),
+          precision == null ? -1 : Integer.parseInt(precision.substring(1)),
+          dateTime, conversion));
+    }
+    if (pattern.indexOf('%', position) >= 0) {
+      return new CompiledMessage(pattern, null);
+    }
+    if (position < pattern.length()) {
+      segments.add(Segment.literal(pattern.substring(position)));
+    }
+
+    return new CompiledMessage(pattern, segments.toArray(new Segment[0]));
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  public String format(Object... args) {
+    if (segments == null) {
+      return String.format(pattern, args);
+    }
+
+    StringBuilder result = new StringBuilder(pattern.length() + 16 * args.length);
+    for (Segment segment : segments) {
+      if (segment.kind == Kind.LITERAL) {
+        result.append(segment.text);
+        continue;
+      }
+      if (segment.index >= args.length) {
+        throw new MissingFormatArgumentException(segment.text);
+      }
+      Object arg = args[segment.index];
+      switch (segment.kind) {
+        case STRING:
+          if (arg instanceof Formattable) {
+            formatters.get().format(result, segment.text, arg);
+          } else {
+            appendString(result, segment, String.valueOf(arg));
+          }
+          break;
+        case INTEGER:
+          if (isIntegral(arg) && getZeroDigit() == '0') {
+            appendInteger(result, segment, ((Number) arg).longValue());
+          } else {
+            formatters.get().format(result, segment.text, arg);
+          }
+          break;
+        default:
+          formatters.get().format(result, segment.text, arg);
+      }
+    }
+    return result.toString();
+  }
+
+  private static void appendString(StringBuilder result, Segment segment, String value) {
+    if (segment.precision >= 0 && segment.precision < value.length()) {
+      value = value.substring(0, segment.precision);
+    }
+    if (segment.upperCase) {
+      value = value.toUpperCase(Locale.getDefault(Category.FORMAT));
+    }
+    if (segment.width <= value.length()) {
+      result.append(value);
+    } else if (segment.leftJustify) {
+      result.append(value);
+      pad(result, ' ', segment.width - value.length());
+    } else {
+      pad(result, ' ', segment.width - value.length());
+      result.append(value);
+    }
+  }
+
+  private static void appendInteger(StringBuilder result, Segment segment, long value) {
+    String digits = Long.toString(value);
+    if (segment.width <= digits.length()) {
+      result.append(digits);
+    } else if (segment.leftJustify) {
+      result.append(digits);
+      pad(result, ' ', segment.width - digits.length());
+    } else if (segment.zeroPad) {
+      // The zeros go between the sign and the digits
+      int start = 0;
+      if (value < 0) {
+        result.append('-');
+        start = 1;
+      }
+      pad(result, '0', segment.width - digits.length());
+      result.append(digits, start, digits.length());
+    } else {
+      pad(result, ' ', segment.width - digits.length());
+      result.append(digits);
+    }
+  }
+
+  private static void pad(StringBuilder result, char c, int count) {
+    for (int i = 0; i < count; i++) {
+      result.append(c);
+    }
+  }
+
+  private static boolean isIntegral(Object arg) {
+    return arg instanceof Integer || arg instanceof Long || arg instanceof Short
+        || arg instanceof Byte;
+  }
+
+  private static char getZeroDigit() {
+    Locale locale = Locale.getDefault(Category.FORMAT);
+    ZeroDigit current = zeroDigit;
+    if (!current.locale.equals(locale)) {
+      current = new ZeroDigit(locale, DecimalFormatSymbols.getInstance(locale).getZeroDigit());
+      zeroDigit = current;
+    }
+    return current.digit;
+  }
+
+  private enum Kind {
+    LITERAL,
+    /**
+     * <code>%s</code> or <code>%S</code>, with a width, a precision or <code>-</code>
+     */
+    STRING,
+    /**
+     * <code>%d</code>, with a width, <code>-</code> or <code>0</code>
+     */
+    INTEGER,
+    /**
+     * Anything else, given to a {@link Formatter}
+     */
+    FORMATTER
+  }
+
+  private static final class Segment {
+
+    private final Kind kind;
+    /**
+     * The literal text, or the specifier (without argument index) to give to a {@link
+     * Formatter}
+     */
+    private final String text;
+    /**
+     * Argument index, -1 for a literal
+     */
+    private final int index;
+    private final int width;
+    private final int precision;
+    private final boolean leftJustify;
+    private final boolean zeroPad;
+    private final boolean upperCase;
+
+    private Segment(Kind kind, String text, int index, int width, int precision,
+        boolean leftJustify, boolean zeroPad, boolean upperCase) {
+      this.kind = kind;
+      this.text = text;
+      this.index = index;
+      this.width = width;
+      this.precision = precision;
+      this.leftJustify = leftJustify;
+      this.zeroPad = zeroPad;
+      this.upperCase = upperCase;
+    }
+
+    static Segment literal(String text) {
+      return new Segment(Kind.LITERAL, text, -1, -1, -1, false, false, false);
+    }
+
+    static Segment argument(int index, String flags, int width, int precision, String dateTime,
+        char conversion) {
+      String specifier = "%" + flags + (width < 0 ? "" : width)
+          + (precision < 0 ? "" : "." + precision) + (dateTime == null ? "" : dateTime)
+          + conversion;
+      boolean leftJustify = flags.equals("-");
+      boolean zeroPad = flags.equals("0");
+      // Invalid combinations (like '-' without a width) are left to Formatter, which reports them
+      boolean simpleFlags = flags.isEmpty() || ((leftJustify || zeroPad) && width >= 0);
+
+      Kind kind = Kind.FORMATTER;
+      if (dateTime == null && simpleFlags) {
+        if ((conversion == 's' || conversion == 'S') && !zeroPad) {
+          kind = Kind.STRING;
+        } else if (conversion == 'd' && precision < 0) {
+          kind = Kind.INTEGER;
+        }
+      }
+      return new Segment(kind, specifier, index, width, precision, leftJustify, zeroPad,
+          conversion == 'S');
+    }
+  }
+
+  private static final class ZeroDigit {
+
+    private final Locale locale;
+    private final char digit;
+
+    private ZeroDigit(Locale locale, char digit) {
+      this.locale = locale;
+      this.digit = digit;
+    }
+  }
+
+  /**
+   * One {@link Formatter} per thread, created again when the default format locale changes. A
+   * message formatted from an argument's <code>toString()</code> gets its own formatter.
+   */
+  private static final class SpecifierFormatter {
+
+    private final StringBuilder buffer = new StringBuilder();
+    private Formatter formatter;
+    private boolean busy;
+
+    void format(StringBuilder result, String specifier, Object arg) {
+      if (busy) {
+        result.append(String.format(specifier, arg));
+        return;
+      }
+      Locale locale = Locale.getDefault(Category.FORMAT);
+      if (formatter == null || !formatter.locale().equals(locale)) {
+        formatter = new Formatter(buffer, locale);
+      }
+      busy = true;
+      try {
+        buffer.setLength(0);
+        formatter.format(specifier, arg);
+        result.append(buffer);
+      } finally {
+        busy = false;
+        if (buffer.length() > 1024) {
+          buffer.setLength(0);
+          buffer.trimToSize();
+        }
+      }
+    }
+  }
+}
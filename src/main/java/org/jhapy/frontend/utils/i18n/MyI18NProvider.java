@@ -19,28 +19,53 @@
 package org.jhapy.frontend.utils.i18n;
 
 import com.vaadin.flow.i18n.I18NProvider;
+import com.vaadin.flow.server.VaadinRequest;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import org.apache.commons.lang3.StringUtils;
 import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.dto.domain.i18n.Action;
 import org.jhapy.dto.domain.i18n.ActionTrl;
+import org.jhapy.dto.domain.i18n.Element;
 import org.jhapy.dto.domain.i18n.ElementTrl;
+import org.jhapy.dto.domain.i18n.Message;
 import org.jhapy.dto.domain.i18n.MessageTrl;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.i18n.FindByIso3Query;
 import org.jhapy.dto.serviceQuery.i18n.GetByNameAndIso3Query;
-import org.jhapy.frontend.client.i18n.I18NServices;
+import org.jhapy.frontend.client.i18n.ActionTrlService;
+import org.jhapy.frontend.client.i18n.ElementTrlService;
+import org.jhapy.frontend.client.i18n.I18NCacheUpdateQueue;
+import org.jhapy.frontend.client.i18n.MessageTrlService;
+import org.jhapy.frontend.client.i18n.TranslationUpdate;
+import org.jhapy.frontend.config.AppProperties;
 import org.jhapy.frontend.utils.AppConst;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jms.JmsException;
 import org.springframework.stereotype.Component;
 
 /**
+ * Translations are kept per language in an immutable {@link TranslationSnapshot}. Reads go
+ * through a {@link ConcurrentHashMap} and never lock, a language is only loaded once and reloads
+ * replace the snapshot in one step.
+ * <p>
+ * Keys missing locally are resolved with at most one bulk call per type and language during a
+ * Vaadin request, keys still unknown after that are remembered for
+ * <code>jhapy.i18n-cache.negative-cache-ttl</code> so they don't hit the server on every render.
+ * <p>
+ * Saving or deleting a translation only changes the related keys, and the change is sent to the
+ * other nodes through {@link I18NCacheUpdateQueue}.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 2019-04-18
@@ -48,11 +73,37 @@ import org.springframework.stereotype.Component;
 @Component
 public class MyI18NProvider implements I18NProvider, HasLogger {
 
+  private static final String ELEMENT = TranslationUpdate.ELEMENT;
+  private static final String ACTION = TranslationUpdate.ACTION;
+  private static final String MESSAGE = TranslationUpdate.MESSAGE;
+
+  private static final String METRIC_REMOTE_LOOKUPS = "i18n.lookups.remote";
+  private static final String METRIC_SAVED_LOOKUPS = "i18n.lookups.saved";
+
   private static Locale[] availableLanguages = null;
-  private Map<String, ElementTrl> elementMap = new HashMap<>();
-  private Map<String, ActionTrl> actionMap = new HashMap<>();
-  private Map<String, MessageTrl> messageMap = new HashMap<>();
-  private String loadedLocale;
+  private final Map<String, TranslationSnapshot> snapshots = new ConcurrentHashMap<>();
+  private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+  private final Map<String, Long> failedLoads = new ConcurrentHashMap<>();
+  private final Map<String, Long> missingKeys = new ConcurrentHashMap<>();
+  private final Map<String, CompiledMessage> compiledMessages = new ConcurrentHashMap<>();
+
+  private final AppProperties appProperties;
+  private final ElementTrlService elementTrlService;
+  private final ActionTrlService actionTrlService;
+  private final MessageTrlService messageTrlService;
+  private final I18NCacheUpdateQueue i18NCacheUpdateQueue;
+  private final MeterRegistry meterRegistry;
+
+  public MyI18NProvider(AppProperties appProperties, ElementTrlService elementTrlService,
+      ActionTrlService actionTrlService, MessageTrlService messageTrlService,
+      I18NCacheUpdateQueue i18NCacheUpdateQueue, MeterRegistry meterRegistry) {
+    this.appProperties = appProperties;
+    this.elementTrlService = elementTrlService;
+    this.actionTrlService = actionTrlService;
+    this.messageTrlService = messageTrlService;
+    this.i18NCacheUpdateQueue = i18NCacheUpdateQueue;
+    this.meterRegistry = meterRegistry;
+  }
 
   public static Locale[] getAvailableLanguages() {
     if (availableLanguages == null) {
@@ -85,22 +136,204 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
         Arrays.asList(Locale.getAvailableLocales()));
   }
 
+  @EventListener(ApplicationReadyEvent.class)
+  public void preload() {
+    String loggerPrefix = getLoggerPrefix("preload");
+
+    for (String iso3Language : appProperties.getI18nCache().getPreloadLanguages()) {
+      try {
+        TranslationSnapshot snapshot = fetchSnapshot(iso3Language);
+        if (snapshot != null) {
+          snapshots.put(iso3Language, snapshot);
+        } else {
+          logger().warn(
+              loggerPrefix + "Cannot preload " + iso3Language + ", will be loaded on first use");
+        }
+      } catch (Exception e) {
+        logger().warn(loggerPrefix + "Cannot preload " + iso3Language + " : " + e.getMessage());
+      }
+    }
+  }
+
   public void reload() {
-    reloadElements();
-    reloadMessages();
-    reloadActions();
+    String loggerPrefix = getLoggerPrefix("reload");
+
+    for (String iso3Language : snapshots.keySet()) {
+      TranslationSnapshot snapshot = fetchSnapshot(iso3Language);
+      if (snapshot != null) {
+        snapshots.put(iso3Language, snapshot);
+      } else {
+        logger().warn(loggerPrefix + "Cannot reload " + iso3Language + ", keep current values");
+      }
+    }
+    missingKeys.clear();
+    compiledMessages.clear();
   }
 
   public void reloadElements() {
-    elementMap = new HashMap<>();
+    snapshots.keySet().forEach(this::refreshElements);
+    forgetMissing(ELEMENT);
   }
 
   public void reloadMessages() {
-    messageMap = new HashMap<>();
+    snapshots.keySet().forEach(this::refreshMessages);
+    forgetMissing(MESSAGE);
+    compiledMessages.clear();
   }
 
   public void reloadActions() {
-    actionMap = new HashMap<>();
+    snapshots.keySet().forEach(this::refreshActions);
+    forgetMissing(ACTION);
+  }
+
+  public void elementSaved(Element element) {
+    if (element.getTranslations() == null) {
+      reloadElements();
+      return;
+    }
+    element.getTranslations().forEach(elementTrl -> translationChanged(
+        new TranslationUpdate(ELEMENT, TranslationUpdate.OPERATION_UPDATE, element.getName(),
+            elementTrl.getIso3Language(), elementTrl.getValue())));
+  }
+
+  public void elementDeleted(Element element) {
+    if (element.getTranslations() == null) {
+      reloadElements();
+      return;
+    }
+    element.getTranslations().forEach(elementTrl -> translationChanged(
+        new TranslationUpdate(ELEMENT, TranslationUpdate.OPERATION_DELETE, element.getName(),
+            elementTrl.getIso3Language(), null)));
+  }
+
+  public void actionSaved(Action action) {
+    if (action.getTranslations() == null) {
+      reloadActions();
+      return;
+    }
+    action.getTranslations().forEach(actionTrl -> translationChanged(
+        new TranslationUpdate(ACTION, TranslationUpdate.OPERATION_UPDATE, action.getName(),
+            actionTrl.getIso3Language(), actionTrl.getValue())));
+  }
+
+  public void actionDeleted(Action action) {
+    if (action.getTranslations() == null) {
+      reloadActions();
+      return;
+    }
+    action.getTranslations().forEach(actionTrl -> translationChanged(
+        new TranslationUpdate(ACTION, TranslationUpdate.OPERATION_DELETE, action.getName(),
+            actionTrl.getIso3Language(), null)));
+  }
+
+  public void messageSaved(Message message) {
+    if (message.getTranslations() == null) {
+      reloadMessages();
+      return;
+    }
+    message.getTranslations().forEach(messageTrl -> translationChanged(
+        new TranslationUpdate(MESSAGE, TranslationUpdate.OPERATION_UPDATE, message.getName(),
+            messageTrl.getIso3Language(), messageTrl.getValue())));
+  }
+
+  public void messageDeleted(Message message) {
+    if (message.getTranslations() == null) {
+      reloadMessages();
+      return;
+    }
+    message.getTranslations().forEach(messageTrl -> translationChanged(
+        new TranslationUpdate(MESSAGE, TranslationUpdate.OPERATION_DELETE, message.getName(),
+            messageTrl.getIso3Language(), null)));
+  }
+
+  /**
+   * Apply the change locally right away (so it is visible even if the broker is down), then
+   * publish it for the other nodes. Receiving our own message again is harmless.
+   */
+  private void translationChanged(TranslationUpdate translationUpdate) {
+    applyUpdate(translationUpdate);
+    try {
+      i18NCacheUpdateQueue.translationUpdated(translationUpdate);
+    } catch (JmsException e) {
+      logger().warn(getLoggerPrefix("translationChanged") + "Cannot publish " + translationUpdate
+          + " : " + e.getMessage());
+    }
+  }
+
+  /**
+   * Apply a single key change to the loaded snapshot of its language, languages not loaded yet
+   * will get it with their first load.
+   */
+  public void applyUpdate(TranslationUpdate translationUpdate) {
+    String name = translationUpdate.getName();
+    String iso3Language = translationUpdate.getIso3Language();
+    if (name == null || iso3Language == null) {
+      return;
+    }
+
+    switch (translationUpdate.getType()) {
+      case ELEMENT:
+        if (translationUpdate.isDelete()) {
+          snapshots.computeIfPresent(iso3Language, (iso, current) -> current.withoutElement(name));
+        } else {
+          ElementTrl elementTrl = new ElementTrl();
+          elementTrl.setName(name);
+          elementTrl.setIso3Language(iso3Language);
+          elementTrl.setValue(translationUpdate.getValue());
+          snapshots.computeIfPresent(iso3Language,
+              (iso, current) -> current.withElement(name, elementTrl));
+        }
+        break;
+      case ACTION:
+        if (translationUpdate.isDelete()) {
+          snapshots.computeIfPresent(iso3Language, (iso, current) -> current.withoutAction(name));
+        } else {
+          ActionTrl actionTrl = new ActionTrl();
+          actionTrl.setName(name);
+          actionTrl.setIso3Language(iso3Language);
+          actionTrl.setValue(translationUpdate.getValue());
+          snapshots.computeIfPresent(iso3Language,
+              (iso, current) -> current.withAction(name, actionTrl));
+        }
+        break;
+      case MESSAGE:
+        if (translationUpdate.isDelete()) {
+          snapshots.computeIfPresent(iso3Language, (iso, current) -> current.withoutMessage(name));
+        } else {
+          MessageTrl messageTrl = new MessageTrl();
+          messageTrl.setName(name);
+          messageTrl.setIso3Language(iso3Language);
+          messageTrl.setValue(translationUpdate.getValue());
+          snapshots.computeIfPresent(iso3Language,
+              (iso, current) -> current.withMessage(name, messageTrl));
+        }
+        break;
+      default:
+        logger().warn(getLoggerPrefix("applyUpdate") + "Unknown type : " + translationUpdate);
+        return;
+    }
+    missingKeys.remove(translationUpdate.getType() + ":" + iso3Language + ":" + name);
+  }
+
+  private boolean refreshElements(String iso3Language) {
+    ServiceResult<List<ElementTrl>> _elements = elementTrlService
+        .findByIso3(new FindByIso3Query(iso3Language));
+    return _elements.getIsSuccess() && snapshots.computeIfPresent(iso3Language,
+        (iso, snapshot) -> snapshot.withElements(_elements.getData())) != null;
+  }
+
+  private boolean refreshMessages(String iso3Language) {
+    ServiceResult<List<MessageTrl>> _messages = messageTrlService
+        .findByIso3(new FindByIso3Query(iso3Language));
+    return _messages.getIsSuccess() && snapshots.computeIfPresent(iso3Language,
+        (iso, snapshot) -> snapshot.withMessages(_messages.getData())) != null;
+  }
+
+  private boolean refreshActions(String iso3Language) {
+    ServiceResult<List<ActionTrl>> _actions = actionTrlService
+        .findByIso3(new FindByIso3Query(iso3Language));
+    return _actions.getIsSuccess() && snapshots.computeIfPresent(iso3Language,
+        (iso, snapshot) -> snapshot.withActions(_actions.getData())) != null;
   }
 
   @Override
@@ -111,8 +344,6 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
       iso3Language = AppConst.APP_LOCALE.getLanguage();
     }
 
-    loadRemoteLocales(iso3Language);
-
     if (s.startsWith("element.")) {
       return getElementTranslation(s.substring(s.indexOf('.') + 1), iso3Language);
     } else if (s.startsWith("action.")) {
@@ -157,7 +388,7 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
 
     if (messageTrl != null) {
       if (objects.length > 0) {
-        return String.format(messageTrl.getValue(), objects);
+        return getCompiledMessage(s, iso3Language, messageTrl.getValue()).format(objects);
       } else {
         return messageTrl.getValue();
       }
@@ -168,61 +399,143 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
     }
   }
 
-  private synchronized void loadRemoteLocales(String iso3Language) {
-    String loggerPrefix = getLoggerPrefix("loadRemoteLocales", iso3Language);
+  /**
+   * The compiled pattern is kept until the translation value changes, so there is no need to
+   * invalidate it when a single message is updated.
+   */
+  private CompiledMessage getCompiledMessage(String name, String iso3Language, String pattern) {
+    String key = iso3Language + ":" + name;
+    CompiledMessage compiledMessage = compiledMessages.get(key);
+    if (compiledMessage == null || !compiledMessage.getPattern().equals(pattern)) {
+      compiledMessage = CompiledMessage.compile(pattern);
+      compiledMessages.put(key, compiledMessage);
+    }
+    return compiledMessage;
+  }
 
-    if (loadedLocale != null && loadedLocale.equals(iso3Language)) {
-      return;
+  /**
+   * A language that cannot be loaded is not cached, the keys are shown untranslated and the load
+   * is tried again after <code>jhapy.i18n-cache.load-retry-delay</code>.
+   *
+   * @return <code>null</code> if the language is not loaded
+   */
+  private TranslationSnapshot getSnapshot(String iso3Language) {
+    TranslationSnapshot snapshot = snapshots.get(iso3Language);
+    if (snapshot != null) {
+      return snapshot;
     }
 
+    synchronized (loadLocks.computeIfAbsent(iso3Language, iso -> new Object())) {
+      snapshot = snapshots.get(iso3Language);
+      if (snapshot == null) {
+        Long retryAt = failedLoads.get(iso3Language);
+        if (retryAt != null && retryAt > System.currentTimeMillis()) {
+          return null;
+        }
+        snapshot = loadRemoteLocales(iso3Language);
+        if (snapshot != null) {
+          snapshots.put(iso3Language, snapshot);
+          failedLoads.remove(iso3Language);
+        } else {
+          failedLoads.put(iso3Language, System.currentTimeMillis() + appProperties
+              .getI18nCache().getLoadRetryDelay().toMillis());
+        }
+      }
+      return snapshot;
+    }
+  }
+
+  private TranslationSnapshot loadRemoteLocales(String iso3Language) {
+    String loggerPrefix = getLoggerPrefix("loadRemoteLocales", iso3Language);
+
     logger().debug(loggerPrefix + "Bootstrap " + iso3Language);
-    elementMap.clear();
-    List<ElementTrl> elements = I18NServices.getElementTrlService()
-        .findByIso3(new FindByIso3Query(iso3Language)).getData();
-    elements.forEach(element -> elementMap.put(element.getName(), element));
-    logger().debug(loggerPrefix + elements.size() + " elements loaded");
-
-    actionMap.clear();
-    List<ActionTrl> actions = I18NServices.getActionTrlService()
-        .findByIso3(new FindByIso3Query(iso3Language)).getData();
-    actions.forEach(action -> actionMap.put(action.getName(), action));
-    logger().debug(loggerPrefix + actions.size() + " actions loaded");
-
-    messageMap.clear();
-    List<MessageTrl> messages = I18NServices.getMessageTrlService()
-        .findByIso3(new FindByIso3Query(iso3Language)).getData();
-    messages.forEach(message -> messageMap.put(message.getName(), message));
-    logger().debug(loggerPrefix + messages.size() + " messages loaded");
-
-    loadedLocale = iso3Language;
+    TranslationSnapshot snapshot = fetchSnapshot(iso3Language);
+    if (snapshot == null) {
+      logger().warn(loggerPrefix + "Cannot load " + iso3Language + ", will retry in "
+          + appProperties.getI18nCache().getLoadRetryDelay());
+      return null;
+    }
+    logger().debug(loggerPrefix + snapshot.getElementCount() + " elements, "
+        + snapshot.getActionCount() + " actions, " + snapshot.getMessageCount()
+        + " messages loaded");
 
     logger().debug(loggerPrefix + "Bootstrap " + iso3Language + " done");
+    return snapshot;
+  }
+
+  /**
+   * Load all the translations of a language, returns <code>null</code> if one of the calls
+   * failed, so a partial result never replaces or becomes a snapshot.
+   */
+  private TranslationSnapshot fetchSnapshot(String iso3Language) {
+    ServiceResult<List<ElementTrl>> _elements = elementTrlService
+        .findByIso3(new FindByIso3Query(iso3Language));
+    ServiceResult<List<ActionTrl>> _actions = actionTrlService
+        .findByIso3(new FindByIso3Query(iso3Language));
+    ServiceResult<List<MessageTrl>> _messages = messageTrlService
+        .findByIso3(new FindByIso3Query(iso3Language));
+
+    if (_elements.getIsSuccess() && _actions.getIsSuccess() && _messages.getIsSuccess()) {
+      return TranslationSnapshot
+          .of(iso3Language, _elements.getData(), _actions.getData(), _messages.getData());
+    } else {
+      return null;
+    }
   }
 
   private ElementTrl getElementTrl(String name, String iso3Language) {
     String loggerPrefix = getLoggerPrefix("getElementTrl");
 
-    if (!loadedLocale.equals(iso3Language)) {
-      loadRemoteLocales(iso3Language);
+    TranslationSnapshot snapshot = getSnapshot(iso3Language);
+    if (snapshot == null) {
+      return null;
     }
 
-    ElementTrl element = elementMap.get(name);
+    ElementTrl element = snapshot.getElement(name);
     String altName = "baseEntity" + name.substring(name.indexOf('.'));
     if (element == null) {
-      element = elementMap.get(altName);
+      element = snapshot.getElement(altName);
     }
 
     if (element == null) {
+      if (isKnownMissing(ELEMENT, name, iso3Language)) {
+        return null;
+      }
+      BatchResult batchResult = resolveMissingInBatch(ELEMENT, iso3Language,
+          this::refreshElements);
+      if (batchResult == BatchResult.FAILED) {
+        return null;
+      } else if (batchResult == BatchResult.REFRESHED) {
+        snapshot = getSnapshot(iso3Language);
+        element = snapshot.getElement(name);
+        if (element == null) {
+          element = snapshot.getElement(altName);
+        }
+        if (element == null) {
+          logger().warn(loggerPrefix + "Element '" + name + "' not found on the server");
+          rememberMissing(ELEMENT, name, iso3Language);
+        }
+        return element;
+      }
+
       logger().warn(loggerPrefix + "Element '" + name + "' not found locally, check on the server");
-      ServiceResult<ElementTrl> _elementTrl = I18NServices.getElementTrlService()
+      meterRegistry.counter(METRIC_REMOTE_LOOKUPS, "type", ELEMENT).increment();
+      ServiceResult<ElementTrl> _elementTrl = elementTrlService
           .getByNameAndIso3(new GetByNameAndIso3Query(name, iso3Language));
-      if (_elementTrl.getIsSuccess()) {
+      if (_elementTrl.getIsSuccess() && _elementTrl.getData() != null) {
         element = _elementTrl.getData();
-        elementMap.put(name, element);
+        ElementTrl newElement = element;
+        snapshots.computeIfPresent(iso3Language,
+            (iso, current) -> current.withElement(name, newElement));
 
         return element;
-      } else {
+      } else if (_elementTrl.getIsSuccess()) {
         logger().error(loggerPrefix + "Element '" + name + "' not found on the server");
+        rememberMissing(ELEMENT, name, iso3Language);
+        return null;
+      } else {
+        logger().error(loggerPrefix + "Cannot check element '" + name + "' on the server : "
+            + _elementTrl.getMessage());
         return null;
       }
     } else {
@@ -233,23 +546,48 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
   private ActionTrl getActionTrl(String name, String iso3Language) {
     String loggerPrefix = getLoggerPrefix("getActionTrl");
 
-    if (!loadedLocale.equals(iso3Language)) {
-      loadRemoteLocales(iso3Language);
+    TranslationSnapshot snapshot = getSnapshot(iso3Language);
+    if (snapshot == null) {
+      return null;
     }
 
-    ActionTrl action = actionMap.get(name);
+    ActionTrl action = snapshot.getAction(name);
 
     if (action == null) {
+      if (isKnownMissing(ACTION, name, iso3Language)) {
+        return null;
+      }
+      BatchResult batchResult = resolveMissingInBatch(ACTION, iso3Language,
+          this::refreshActions);
+      if (batchResult == BatchResult.FAILED) {
+        return null;
+      } else if (batchResult == BatchResult.REFRESHED) {
+        action = getSnapshot(iso3Language).getAction(name);
+        if (action == null) {
+          logger().warn(loggerPrefix + "Action '" + name + "' not found on the server");
+          rememberMissing(ACTION, name, iso3Language);
+        }
+        return action;
+      }
+
       logger().warn(loggerPrefix + "Action '" + name + "' not found locally, check on the server");
-      ServiceResult<ActionTrl> _actionTrl = I18NServices.getActionTrlService()
+      meterRegistry.counter(METRIC_REMOTE_LOOKUPS, "type", ACTION).increment();
+      ServiceResult<ActionTrl> _actionTrl = actionTrlService
           .getByNameAndIso3(new GetByNameAndIso3Query(name, iso3Language));
-      if (_actionTrl.getIsSuccess()) {
+      if (_actionTrl.getIsSuccess() && _actionTrl.getData() != null) {
         action = _actionTrl.getData();
-        actionMap.put(name, action);
+        ActionTrl newAction = action;
+        snapshots.computeIfPresent(iso3Language,
+            (iso, current) -> current.withAction(name, newAction));
 
         return action;
-      } else {
+      } else if (_actionTrl.getIsSuccess()) {
         logger().error(loggerPrefix + "Action '" + name + "' not found on the server");
+        rememberMissing(ACTION, name, iso3Language);
+        return null;
+      } else {
+        logger().error(loggerPrefix + "Cannot check action '" + name + "' on the server : "
+            + _actionTrl.getMessage());
         return null;
       }
     } else {
@@ -260,27 +598,56 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
   private MessageTrl getMessageTrl(String name, String iso3Language) {
     String loggerPrefix = getLoggerPrefix("getMessageTrl");
 
-    if (!loadedLocale.equals(iso3Language)) {
-      loadRemoteLocales(iso3Language);
+    TranslationSnapshot snapshot = getSnapshot(iso3Language);
+    if (snapshot == null) {
+      return null;
     }
 
-    MessageTrl message = messageMap.get(name);
+    MessageTrl message = snapshot.getMessage(name);
     String altName = "baseEntity" + name.substring(name.indexOf('.'));
     if (message == null) {
-      message = messageMap.get(altName);
+      message = snapshot.getMessage(altName);
     }
 
     if (message == null) {
+      if (isKnownMissing(MESSAGE, name, iso3Language)) {
+        return null;
+      }
+      BatchResult batchResult = resolveMissingInBatch(MESSAGE, iso3Language,
+          this::refreshMessages);
+      if (batchResult == BatchResult.FAILED) {
+        return null;
+      } else if (batchResult == BatchResult.REFRESHED) {
+        snapshot = getSnapshot(iso3Language);
+        message = snapshot.getMessage(name);
+        if (message == null) {
+          message = snapshot.getMessage(altName);
+        }
+        if (message == null) {
+          logger().warn(loggerPrefix + "Message '" + name + "' not found on the server");
+          rememberMissing(MESSAGE, name, iso3Language);
+        }
+        return message;
+      }
+
       logger().warn(loggerPrefix + "Message '" + name + "' not found locally, check on the server");
-      ServiceResult<MessageTrl> _messageTrl = I18NServices.getMessageTrlService()
+      meterRegistry.counter(METRIC_REMOTE_LOOKUPS, "type", MESSAGE).increment();
+      ServiceResult<MessageTrl> _messageTrl = messageTrlService
           .getByNameAndIso3(new GetByNameAndIso3Query(name, iso3Language));
-      if (_messageTrl.getIsSuccess()) {
+      if (_messageTrl.getIsSuccess() && _messageTrl.getData() != null) {
         message = _messageTrl.getData();
-        messageMap.put(name, message);
+        MessageTrl newMessage = message;
+        snapshots.computeIfPresent(iso3Language,
+            (iso, current) -> current.withMessage(name, newMessage));
 
         return message;
-      } else {
+      } else if (_messageTrl.getIsSuccess()) {
         logger().error(loggerPrefix + "Message '" + name + "' not found on the server");
+        rememberMissing(MESSAGE, name, iso3Language);
+        return null;
+      } else {
+        logger().error(loggerPrefix + "Cannot check message '" + name + "' on the server : "
+            + _messageTrl.getMessage());
         return null;
       }
     } else {
@@ -288,7 +655,65 @@ public class MyI18NProvider implements I18NProvider, HasLogger {
     }
   }
 
+  /**
+   * During a Vaadin request, the first missing key of a type refreshes the whole type for the
+   * language in one call, the next missing keys of the same request are answered from that
+   * result.
+   *
+   * @return {@link BatchResult#NO_REQUEST} if there is no current request, the caller has to ask
+   * the server for the key itself
+   */
+  private BatchResult resolveMissingInBatch(String type, String iso3Language,
+      Predicate<String> refresher) {
+    VaadinRequest request = VaadinRequest.getCurrent();
+    if (request == null) {
+      return BatchResult.NO_REQUEST;
+    }
+
+    String attributeName = MyI18NProvider.class.getName() + "." + type + "." + iso3Language;
+    BatchResult batchResult = (BatchResult) request.getAttribute(attributeName);
+    if (batchResult == null) {
+      meterRegistry.counter(METRIC_REMOTE_LOOKUPS, "type", type).increment();
+      batchResult = refresher.test(iso3Language) ? BatchResult.REFRESHED : BatchResult.FAILED;
+      request.setAttribute(attributeName, batchResult);
+    } else {
+      meterRegistry.counter(METRIC_SAVED_LOOKUPS, "type", type, "reason", "batched").increment();
+    }
+    return batchResult;
+  }
+
+  private boolean isKnownMissing(String type, String name, String iso3Language) {
+    String key = type + ":" + iso3Language + ":" + name;
+    Long expireAt = missingKeys.get(key);
+    if (expireAt == null) {
+      return false;
+    }
+    if (expireAt < System.currentTimeMillis()) {
+      missingKeys.remove(key, expireAt);
+      return false;
+    }
+    meterRegistry.counter(METRIC_SAVED_LOOKUPS, "type", type, "reason", "negativeCache")
+        .increment();
+    return true;
+  }
+
+  private void rememberMissing(String type, String name, String iso3Language) {
+    missingKeys.put(type + ":" + iso3Language + ":" + name,
+        System.currentTimeMillis() + appProperties.getI18nCache().getNegativeCacheTtl().toMillis());
+  }
+
+  private void forgetMissing(String type) {
+    missingKeys.keySet().removeIf(key -> key.startsWith(type + ":"));
+  }
+
   public void init(Locale locale) {
-    loadRemoteLocales(locale.getISO3Language());
+    getSnapshot(locale.getISO3Language());
+  }
+
+  /**
+   * Outcome of the bulk refresh of a type, only a successful one proves a key is missing
+   */
+  private enum BatchResult {
+    NO_REQUEST, REFRESHED, FAILED
   }
 }
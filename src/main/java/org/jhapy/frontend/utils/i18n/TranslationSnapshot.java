@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.i18n;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jhapy.dto.domain.i18n.ActionTrl;
+import org.jhapy.dto.domain.i18n.ElementTrl;
+import org.jhapy.dto.domain.i18n.MessageTrl;
+
+/**
+ * Immutable view of all the translations loaded for one language. A new snapshot is built on
+ * every change, so readers never need to lock.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-08
+ */
+public final class TranslationSnapshot {
+
+  private final String iso3Language;
+  private final Map<String, ElementTrl> elements;
+  private final Map<String, ActionTrl> actions;
+  private final Map<String, MessageTrl> messages;
+
+  private TranslationSnapshot(String iso3Language, Map<String, ElementTrl> elements,
+      Map<String, ActionTrl> actions, Map<String, MessageTrl> messages) {
+    this.iso3Language = iso3Language;
+    this.elements = Collections.unmodifiableMap(elements);
+    this.actions = Collections.unmodifiableMap(actions);
+    this.messages = Collections.unmodifiableMap(messages);
+  }
+
+  public static TranslationSnapshot of(String iso3Language, List<ElementTrl> elements,
+      List<ActionTrl> actions, List<MessageTrl> messages) {
+    return new TranslationSnapshot(iso3Language, indexElements(elements), indexActions(actions),
+        indexMessages(messages));
+  }
+
+  public String getIso3Language() {
+    return iso3Language;
+  }
+
+  public ElementTrl getElement(String name) {
+    return elements.get(name);
+  }
+
+  public ActionTrl getAction(String name) {
+    return actions.get(name);
+  }
+
+  public MessageTrl getMessage(String name) {
+    return messages.get(name);
+  }
+
+  public int getElementCount() {
+    return elements.size();
+  }
+
+  public int getActionCount() {
+    return actions.size();
+  }
+
+  public int getMessageCount() {
+    return messages.size();
+  }
+
+  public TranslationSnapshot withElement(String name, ElementTrl elementTrl) {
+    Map<String, ElementTrl> newElements = new HashMap<>(elements);
+    newElements.put(name, elementTrl);
+    return new TranslationSnapshot(iso3Language, newElements, actions, messages);
+  }
+
+  public TranslationSnapshot withAction(String name, ActionTrl actionTrl) {
+    Map<String, ActionTrl> newActions = new HashMap<>(actions);
+    newActions.put(name, actionTrl);
+    return new TranslationSnapshot(iso3Language, elements, newActions, messages);
+  }
+
+  public TranslationSnapshot withMessage(String name, MessageTrl messageTrl) {
+    Map<String, MessageTrl> newMessages = new HashMap<>(messages);
+    newMessages.put(name, messageTrl);
+    return new TranslationSnapshot(iso3Language, elements, actions, newMessages);
+  }
+
+  public TranslationSnapshot withoutElement(String name) {
+    Map<String, ElementTrl> newElements = new HashMap<>(elements);
+    newElements.remove(name);
+    return new TranslationSnapshot(iso3Language, newElements, actions, messages);
+  }
+
+  public TranslationSnapshot withoutAction(String name) {
+    Map<String, ActionTrl> newActions = new HashMap<>(actions);
+    newActions.remove(name);
+    return new TranslationSnapshot(iso3Language, elements, newActions, messages);
+  }
+
+  public TranslationSnapshot withoutMessage(String name) {
+    Map<String, MessageTrl> newMessages = new HashMap<>(messages);
+    newMessages.remove(name);
+    return new TranslationSnapshot(iso3Language, elements, actions, newMessages);
+  }
+
+  public TranslationSnapshot withElements(List<ElementTrl> elementTrls) {
+    return new TranslationSnapshot(iso3Language, indexElements(elementTrls), actions, messages);
+  }
+
+  public TranslationSnapshot withActions(List<ActionTrl> actionTrls) {
+    return new TranslationSnapshot(iso3Language, elements, indexActions(actionTrls), messages);
+  }
+
+  public TranslationSnapshot withMessages(List<MessageTrl> messageTrls) {
+    return new TranslationSnapshot(iso3Language, elements, actions, indexMessages(messageTrls));
+  }
+
+  private static Map<String, ElementTrl> indexElements(List<ElementTrl> elementTrls) {
+    Map<String, ElementTrl> result = new HashMap<>();
+    if (elementTrls != null) {
+      elementTrls.forEach(element -> result.put(element.getName(), element));
+    }
+    return result;
+  }
+
+  private static Map<String, ActionTrl> indexActions(List<ActionTrl> actionTrls) {
+    Map<String, ActionTrl> result = new HashMap<>();
+    if (actionTrls != null) {
+      actionTrls.forEach(action -> result.put(action.getName(), action));
+    }
+    return result;
+  }
+
+  private static Map<String, MessageTrl> indexMessages(List<MessageTrl> messageTrls) {
+    Map<String, MessageTrl> result = new HashMap<>();
+    if (messageTrls != null) {
+      messageTrls.forEach(message -> result.put(message.getName(), message));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jhapy.frontend.utils.i18n;
+
+import javax.jms.JMSException;
+import javax.jms.MapMessage;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.client.i18n.I18NCacheUpdateQueue;
+import org.jhapy.frontend.client.i18n.TranslationUpdate;
+import org.jhapy.frontend.config.JmsConfiguration;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies translation changes published by any node (or by the i18n server) to the local
+ * translation cache.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-09
+ */
+@Component
+public class TranslationUpdateListener implements HasLogger {
+
+  private final MyI18NProvider myI18NProvider;
+
+  public TranslationUpdateListener(MyI18NProvider myI18NProvider) {
+    this.myI18NProvider = myI18NProvider;
+  }
+
+  @JmsListener(destination = I18NCacheUpdateQueue.TOPIC, containerFactory = JmsConfiguration.TOPIC_LISTENER_FACTORY)
+  public void onTranslationUpdate(MapMessage message) throws JMSException {
+    TranslationUpdate translationUpdate = TranslationUpdate.fromMessage(message);
+    logger().debug(getLoggerPrefix("onTranslationUpdate") + translationUpdate);
+
+    myI18NProvider.applyUpdate(translationUpdate);
+  }
+}
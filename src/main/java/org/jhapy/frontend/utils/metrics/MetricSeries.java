@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.metrics;
+
+/**
+ * Series kept by {@link MetricsHistory} for each instance
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-15
+ */
+public enum MetricSeries {
+  HEAP_USED("heapUsed"),
+  NON_HEAP_USED("nonHeapUsed"),
+  GC_PAUSE_P50("gcPauseP50"),
+  GC_PAUSE_P99("gcPauseP99"),
+  GC_PAUSE_MAX("gcPauseMax"),
+  THREADS("threads"),
+  THREADS_RUNNABLE("threadsRunnable"),
+  THREADS_BLOCKED("threadsBlocked"),
+  HTTP_REQUESTS_PER_SECOND("httpRequestsPerSecond"),
+  CACHE_HIT_RATIO("cacheHitRatio");
+
+  private final String key;
+
+  MetricSeries(String key) {
+    this.key = key;
+  }
+
+  /**
+   * @return the suffix of the translation key of the series
+   */
+  public String getKey() {
+    return key;
+  }
+}
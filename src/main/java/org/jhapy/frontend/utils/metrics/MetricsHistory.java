@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rolling window of the main metrics of each instance shown in the Metrics tab. Every series is a
+ * {@link TimeSeriesRingBuffer} sized for the window at the configured resolution, so the memory
+ * used per instance is fixed. Instances not sampled during a whole window are dropped.
+ * <p>
+ * The samples come from {@link MetricsHistoryRecorder} for all the registered instances, and from
+ * the Metrics tab, which alone adds the thread counts.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-15
+ */
+@Component
+public class MetricsHistory implements HasLogger {
+
+  private final long windowMillis;
+  private final long resolutionMillis;
+  private final int capacity;
+  private final Map<String, InstanceHistory> instances = new ConcurrentHashMap<>();
+
+  public MetricsHistory(AppProperties appProperties) {
+    this.windowMillis = appProperties.getMetricsHistory().getWindow().toMillis();
+    this.resolutionMillis = appProperties.getMetricsHistory().getResolution().toMillis();
+    this.capacity = (int) Math.max(1, windowMillis / resolutionMillis);
+  }
+
+  /**
+   * Record a sample, ignored if the last one of this instance is more recent than the resolution
+   * (several views rendering the same snapshot record it once)
+   */
+  public void record(String instanceId, long timestamp, MetricsSample sample) {
+    instances.compute(instanceId, (key, history) -> {
+      InstanceHistory result = history == null ? new InstanceHistory() : history;
+      result.record(timestamp, sample);
+      return result;
+    });
+
+    // Evicted in compute too, so a sample is never added to a dropped history
+    long expiredBefore = System.currentTimeMillis() - windowMillis;
+    for (String key : instances.keySet()) {
+      instances.computeIfPresent(key,
+          (k, history) -> history.getLastSeen() < expiredBefore ? null : history);
+    }
+  }
+
+  /**
+   * Iterate over the samples of the current window of a series, oldest first
+   */
+  public void forEach(String instanceId, MetricSeries series,
+      TimeSeriesRingBuffer.SampleConsumer consumer) {
+    InstanceHistory history = instances.get(instanceId);
+    if (history != null) {
+      history.series.get(series).forEach(System.currentTimeMillis() - windowMillis, consumer);
+    }
+  }
+
+  public int getSampleCount(String instanceId) {
+    InstanceHistory history = instances.get(instanceId);
+    return history == null ? 0 : history.series.get(MetricSeries.HEAP_USED).size();
+  }
+
+  private class InstanceHistory {
+
+    private final Map<MetricSeries, TimeSeriesRingBuffer> series = new EnumMap<>(
+        MetricSeries.class);
+    private volatile long lastTimestamp = Long.MIN_VALUE;
+    private volatile long lastThreadsTimestamp = Long.MIN_VALUE;
+    private double lastHttpRequestCount = Double.NaN;
+    private double lastCacheHits = Double.NaN;
+    private double lastCacheMisses = Double.NaN;
+
+    private InstanceHistory() {
+      for (MetricSeries metricSeries : MetricSeries.values()) {
+        series.put(metricSeries, new TimeSeriesRingBuffer(capacity));
+      }
+    }
+
+    private long getLastSeen() {
+      return Math.max(lastTimestamp, lastThreadsTimestamp);
+    }
+
+    private synchronized void record(long timestamp, MetricsSample sample) {
+      // The thread counts are only in the samples of the Metrics tab, they have their own pace
+      if (!Double.isNaN(sample.getThreads()) && (lastThreadsTimestamp == Long.MIN_VALUE
+          || timestamp >= lastThreadsTimestamp + resolutionMillis)) {
+        add(MetricSeries.THREADS, timestamp, sample.getThreads());
+        add(MetricSeries.THREADS_RUNNABLE, timestamp, sample.getThreadsRunnable());
+        add(MetricSeries.THREADS_BLOCKED, timestamp, sample.getThreadsBlocked());
+        lastThreadsTimestamp = timestamp;
+      }
+
+      if (lastTimestamp != Long.MIN_VALUE && timestamp < lastTimestamp + resolutionMillis) {
+        return;
+      }
+      double elapsedSeconds = (timestamp - lastTimestamp) / 1000d;
+
+      add(MetricSeries.HEAP_USED, timestamp, sample.getHeapUsed());
+      add(MetricSeries.NON_HEAP_USED, timestamp, sample.getNonHeapUsed());
+      add(MetricSeries.GC_PAUSE_P50, timestamp, sample.getGcPauseP50());
+      add(MetricSeries.GC_PAUSE_P99, timestamp, sample.getGcPauseP99());
+      add(MetricSeries.GC_PAUSE_MAX, timestamp, sample.getGcPauseMax());
+
+      // Counters: a restarted instance gives a negative delta, skipped
+      double requests = sample.getHttpRequestCount() - lastHttpRequestCount;
+      if (requests >= 0) {
+        add(MetricSeries.HTTP_REQUESTS_PER_SECOND, timestamp, requests / elapsedSeconds);
+      }
+      double hits = sample.getCacheHits() - lastCacheHits;
+      double misses = sample.getCacheMisses() - lastCacheMisses;
+      if (hits >= 0 && misses >= 0 && hits + misses > 0) {
+        add(MetricSeries.CACHE_HIT_RATIO, timestamp, hits / (hits + misses));
+      }
+
+      lastTimestamp = timestamp;
+      lastHttpRequestCount = sample.getHttpRequestCount();
+      lastCacheHits = sample.getCacheHits();
+      lastCacheMisses = sample.getCacheMisses();
+    }
+
+    private void add(MetricSeries metricSeries, long timestamp, double value) {
+      if (!Double.isNaN(value)) {
+        series.get(metricSeries).add(timestamp, value);
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vaadin.flow.shared.Registration;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.client.registry.ActuatorClient;
+import org.jhapy.frontend.client.registry.ActuatorPollingHub;
+import org.jhapy.frontend.client.registry.ActuatorServiceCredentials;
+import org.jhapy.frontend.client.registry.ActuatorSnapshot;
+import org.jhapy.frontend.client.registry.actuator.JhaMetrics;
+import org.jhapy.frontend.config.AppProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the {@link MetricsHistory} of every registered instance, whether or not an admin looks at
+ * it. The <code>/jhametrics</code> endpoint of each instance known by the discovery client is
+ * subscribed to on the {@link ActuatorPollingHub} (shared with the Metrics tab) at the history
+ * resolution, with the credentials of this application.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-21
+ */
+@Component
+public class MetricsHistoryRecorder implements HasLogger {
+
+  private final ActuatorPollingHub actuatorPollingHub;
+  private final ActuatorServiceCredentials actuatorServiceCredentials;
+  private final DiscoveryClient discoveryClient;
+  private final MetricsHistory metricsHistory;
+  private final ObjectMapper objectMapper;
+  private final Duration resolution;
+  private final Duration registryRefresh;
+  private final Map<String, Registration> subscriptions = new ConcurrentHashMap<>();
+  private ScheduledExecutorService scheduler;
+
+  public MetricsHistoryRecorder(ActuatorPollingHub actuatorPollingHub,
+      ActuatorServiceCredentials actuatorServiceCredentials, DiscoveryClient discoveryClient,
+      MetricsHistory metricsHistory, ActuatorClient actuatorClient, AppProperties appProperties) {
+    this.actuatorPollingHub = actuatorPollingHub;
+    this.actuatorServiceCredentials = actuatorServiceCredentials;
+    this.discoveryClient = discoveryClient;
+    this.metricsHistory = metricsHistory;
+    this.objectMapper = actuatorClient.getObjectMapper();
+    this.resolution = appProperties.getMetricsHistory().getResolution();
+    this.registryRefresh = appProperties.getMetricsHistory().getRegistryRefresh();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!actuatorServiceCredentials.isAvailable()) {
+      logger().info(getLoggerPrefix("start") + "No actuator client registration, the metrics "
+          + "history is only recorded while the Metrics tab is open");
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    scheduler.scheduleWithFixedDelay(this::updateSubscriptions, 0, registryRefresh.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void close() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+    subscriptions.values().forEach(Registration::remove);
+    subscriptions.clear();
+  }
+
+  /**
+   * Subscribe to the new instances, unsubscribe from the ones gone
+   */
+  protected void updateSubscriptions() {
+    String loggerPrefix = getLoggerPrefix("updateSubscriptions");
+    try {
+      Map<String, String> instanceIds = new HashMap<>();
+      for (String serviceId : discoveryClient.getServices()) {
+        for (ServiceInstance serviceInstance : discoveryClient.getInstances(serviceId)) {
+          String managementUrl = serviceInstance.getMetadata().get("management.url");
+          if (managementUrl != null) {
+            instanceIds.put(managementUrl + "/jhametrics", serviceInstance.getInstanceId());
+          }
+        }
+      }
+
+      Iterator<Map.Entry<String, Registration>> iterator = subscriptions.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, Registration> subscription = iterator.next();
+        if (!instanceIds.containsKey(subscription.getKey())) {
+          logger().debug(loggerPrefix + "Stop recording " + subscription.getKey());
+          subscription.getValue().remove();
+          iterator.remove();
+        }
+      }
+      instanceIds.forEach((url, instanceId) -> subscriptions.computeIfAbsent(url, key -> {
+        logger().debug(loggerPrefix + "Start recording " + url);
+        return actuatorPollingHub.subscribe(url, resolution,
+            () -> actuatorServiceCredentials.getHeaders(MediaType.APPLICATION_JSON),
+            snapshot -> record(instanceId, snapshot));
+      }));
+    } catch (Exception e) {
+      logger().warn(loggerPrefix + "Cannot update the recorded instances : " + e.getMessage());
+    }
+  }
+
+  private void record(String instanceId, ActuatorSnapshot snapshot) {
+    JhaMetrics jhaMetrics = snapshot.getPayload(JhaMetrics.class, objectMapper);
+    metricsHistory.record(instanceId, snapshot.getFetchedAt().toEpochMilli(),
+        MetricsSample.of(jhaMetrics, objectMapper));
+  }
+}
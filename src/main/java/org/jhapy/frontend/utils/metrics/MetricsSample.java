@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import lombok.Data;
+import org.jhapy.dto.registry.GarbageCollector;
+import org.jhapy.dto.registry.Thread;
+import org.jhapy.frontend.client.registry.actuator.JhaMetrics;
+import org.jhapy.frontend.client.registry.actuator.JhaMetrics.MemoryPool;
+
+/**
+ * Values read from one <code>/jhametrics</code> and <code>/threaddump</code> response. Counters
+ * are the raw cumulated values, {@link MetricsHistory} turns them into rates. Unknown values are
+ * left to <code>NaN</code>.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-15
+ */
+@Data
+public class MetricsSample {
+
+  private double heapUsed = Double.NaN;
+  private double nonHeapUsed = Double.NaN;
+  private double gcPauseP50 = Double.NaN;
+  private double gcPauseP99 = Double.NaN;
+  private double gcPauseMax = Double.NaN;
+  private double threads = Double.NaN;
+  private double threadsRunnable = Double.NaN;
+  private double threadsBlocked = Double.NaN;
+  private double httpRequestCount = Double.NaN;
+  private double cacheHits = Double.NaN;
+  private double cacheMisses = Double.NaN;
+
+  /**
+   * The values of a <code>/jhametrics</code> response, the thread counts are left unknown
+   */
+  public static MetricsSample of(JhaMetrics jhaMetrics, ObjectMapper objectMapper) {
+    MetricsSample sample = new MetricsSample();
+
+    double heapUsed = 0;
+    double nonHeapUsed = 0;
+    for (Map.Entry<String, MemoryPool> pool : jhaMetrics.getJvm().entrySet()) {
+      if (pool.getValue().getUsed() != null) {
+        double used = pool.getValue().getUsed();
+        if (isNonHeapPool(pool.getKey())) {
+          nonHeapUsed += used;
+        } else {
+          heapUsed += used;
+        }
+      }
+    }
+    sample.setHeapUsed(heapUsed);
+    sample.setNonHeapUsed(nonHeapUsed);
+
+    GarbageCollector garbageCollector = objectMapper
+        .convertValue(jhaMetrics.getGarbageCollector(), GarbageCollector.class);
+    if (garbageCollector.getJvmGcPause() != null && !garbageCollector.getJvmGcPause().isEmpty()) {
+      double p50 = 0;
+      double p99 = 0;
+      double max = 0;
+      for (GarbageCollector.JvmGcPause gcPause : garbageCollector.getJvmGcPause()) {
+        p50 = Math.max(p50, toDouble(gcPause.getP050()));
+        p99 = Math.max(p99, toDouble(gcPause.getP099()));
+        max = Math.max(max, toDouble(gcPause.getMax()));
+      }
+      sample.setGcPauseP50(p50);
+      sample.setGcPauseP99(p99);
+      sample.setGcPauseMax(max);
+    }
+
+    Long requestCount = jhaMetrics.getHttpServerRequests().getAll().getCount();
+    if (requestCount != null) {
+      sample.setHttpRequestCount(requestCount);
+    }
+
+    if (!jhaMetrics.getCache().isEmpty()) {
+      double hits = 0;
+      double misses = 0;
+      for (Map<String, Double> cache : jhaMetrics.getCache().values()) {
+        hits += cache.getOrDefault("cache.gets.hit", 0d);
+        misses += cache.getOrDefault("cache.gets.miss", 0d);
+      }
+      sample.setCacheHits(hits);
+      sample.setCacheMisses(misses);
+    }
+    return sample;
+  }
+
+  /**
+   * Count the threads of a <code>/threaddump</code> response
+   */
+  public void setThreadStates(Thread[] threadDump) {
+    int runnable = 0;
+    int blocked = 0;
+    for (Thread thread : threadDump) {
+      if ("RUNNABLE".equals(thread.getThreadState())) {
+        runnable++;
+      } else if ("BLOCKED".equals(thread.getThreadState())) {
+        blocked++;
+      }
+    }
+    setThreads(threadDump.length);
+    setThreadsRunnable(runnable);
+    setThreadsBlocked(blocked);
+  }
+
+  private static boolean isNonHeapPool(String poolName) {
+    return poolName.contains("Metaspace") || poolName.contains("Compressed Class")
+        || poolName.contains("Code");
+  }
+
+  private static double toDouble(Number value) {
+    return value == null ? 0 : value.doubleValue();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.metrics;
+
+/**
+ * Fixed size series of (timestamp, value) samples, kept in primitive arrays. When full, the oldest
+ * sample is overwritten, so the memory used never grows.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-15
+ */
+public class TimeSeriesRingBuffer {
+
+  private final long[] timestamps;
+  private final double[] values;
+  private int start = 0;
+  private int size = 0;
+
+  public TimeSeriesRingBuffer(int capacity) {
+    this.timestamps = new long[capacity];
+    this.values = new double[capacity];
+  }
+
+  public synchronized void add(long timestamp, double value) {
+    int index = (start + size) % timestamps.length;
+    timestamps[index] = timestamp;
+    values[index] = value;
+    if (size < timestamps.length) {
+      size++;
+    } else {
+      start = (start + 1) % timestamps.length;
+    }
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return timestamps.length;
+  }
+
+  /**
+   * Iterate, oldest first, over the samples taken at or after <code>since</code>
+   */
+  public synchronized void forEach(long since, SampleConsumer consumer) {
+    for (int i = 0; i < size; i++) {
+      int index = (start + i) % timestamps.length;
+      if (timestamps[index] >= since) {
+        consumer.accept(timestamps[index], values[index]);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface SampleConsumer {
+
+    void accept(long timestamp, double value);
+  }
+}
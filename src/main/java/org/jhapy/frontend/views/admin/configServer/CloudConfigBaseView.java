@@ -32,6 +32,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.jhapy.commons.security.oauth2.AuthorizationHeaderUtil;
 import org.jhapy.commons.utils.HasLogger;
+import org.jhapy.frontend.client.registry.RegistryServices;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.layout.size.Bottom;
 import org.jhapy.frontend.layout.size.Horizontal;
@@ -53,7 +54,7 @@ public abstract class CloudConfigBaseView extends Component implements HasLogger
 
   protected String I18N_PREFIX;
   protected AuthorizationHeaderUtil authorizationHeaderUtil;
-  protected RestTemplate restTemplate = new RestTemplate();
+  protected RestTemplate restTemplate;
 
   protected Authentication authentication;
 
@@ -69,6 +70,7 @@ public abstract class CloudConfigBaseView extends Component implements HasLogger
     this.I18N_PREFIX = I18N_PREFIX;
     this.authorizationHeaderUtil = authorizationHeaderUtil;
     this.authentication = SecurityContextHolder.getContext().getAuthentication();
+    this.restTemplate = RegistryServices.getActuatorClient().getRestTemplate();
   }
 
   public abstract Component getContent();
@@ -18,8 +18,10 @@
 
 package org.jhapy.frontend.views.admin.eureka;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.contextmenu.MenuItem;
 import com.vaadin.flow.component.contextmenu.SubMenu;
 import com.vaadin.flow.component.html.Label;
@@ -27,16 +29,25 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.menubar.MenuBar;
 import com.vaadin.flow.component.menubar.MenuBarVariant;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.shared.Registration;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import org.jhapy.commons.security.oauth2.AuthorizationHeaderUtil;
 import org.jhapy.commons.utils.HasLogger;
 import org.jhapy.dto.registry.EurekaApplication;
 import org.jhapy.dto.registry.EurekaApplicationInstance;
 import org.jhapy.dto.registry.EurekaInfo;
+import org.jhapy.frontend.client.registry.ActuatorPollingHub;
+import org.jhapy.frontend.client.registry.ActuatorSnapshot;
+import org.jhapy.frontend.client.registry.RegistryServices;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.layout.size.Bottom;
 import org.jhapy.frontend.layout.size.Horizontal;
@@ -44,11 +55,18 @@ import org.jhapy.frontend.layout.size.Right;
 import org.jhapy.frontend.utils.IconSize;
 import org.jhapy.frontend.utils.TextColor;
 import org.jhapy.frontend.utils.UIUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.client.RestTemplate;
 
 /**
+ * Base of the Eureka admin tabs. Actuator endpoints read through {@link
+ * #getFromActuator(String, MediaType)} are polled by the shared {@link ActuatorPollingHub} when an
+ * automatic refresh is set, the view being refreshed (through push) when a new snapshot arrives.
+ * Tabs not reading any actuator endpoint keep their own timer.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 07/06/2020
@@ -57,7 +75,7 @@ public abstract class ActuatorBaseView extends Component implements HasLogger {
 
   protected String I18N_PREFIX;
   protected AuthorizationHeaderUtil authorizationHeaderUtil;
-  protected RestTemplate restTemplate = new RestTemplate();
+  protected RestTemplate restTemplate;
 
   protected EurekaInfo eurekaInfo;
   protected EurekaApplication currentEurekaApplication;
@@ -69,12 +87,22 @@ public abstract class ActuatorBaseView extends Component implements HasLogger {
   protected ScheduledExecutorService timer;
   protected UI ui;
 
+  private Integer refreshRate;
+  private final Map<String, MediaType> polledUrls = new ConcurrentHashMap<>();
+  private final Map<String, Registration> subscriptions = new ConcurrentHashMap<>();
+  private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+  private final ActuatorPollingHub actuatorPollingHub;
+  protected final ObjectMapper objectMapper;
+
   public ActuatorBaseView(UI ui, String I18N_PREFIX,
       AuthorizationHeaderUtil authorizationHeaderUtil) {
     this.ui = ui;
     this.I18N_PREFIX = I18N_PREFIX;
     this.authorizationHeaderUtil = authorizationHeaderUtil;
     this.authentication = SecurityContextHolder.getContext().getAuthentication();
+    this.restTemplate = RegistryServices.getActuatorClient().getRestTemplate();
+    this.actuatorPollingHub = RegistryServices.getActuatorPollingHub();
+    this.objectMapper = RegistryServices.getActuatorClient().getObjectMapper();
   }
 
   public abstract Component getContent(EurekaInfo eurekaInfo);
@@ -84,28 +112,102 @@ public abstract class ActuatorBaseView extends Component implements HasLogger {
 
   public void setRefreshRate(Integer refreshRate) {
     String loggerPrefix = getLoggerPrefix("setRefreshRate");
+    this.refreshRate = refreshRate;
+    unsubscribeAll();
+    stopTimer();
     if (refreshRate == null) {
-      if (timer != null) {
-        logger().debug(loggerPrefix + "Cancel timer");
-        timer.shutdown();
-      } else {
-        logger().debug(loggerPrefix + "No timer set");
-      }
+      logger().debug(loggerPrefix + "Automatic refresh disabled");
+      return;
+    }
+    if (polledUrls.isEmpty()) {
+      // Reading the actuator endpoints subscribes to them
+      refresh();
+    } else {
+      polledUrls.forEach(this::subscribe);
+    }
+    if (!polledUrls.isEmpty()) {
+      logger().debug(loggerPrefix + "Subscribed to " + polledUrls.keySet());
     } else {
-      if (timer != null) {
-        timer.shutdown();
-        timer = null;
-      }
       logger().debug(loggerPrefix + "Create a new timer");
       timer = Executors.newScheduledThreadPool(0);
+      // Just refreshed above
       timer.scheduleAtFixedRate(() -> {
         ui.access(this::refresh);
-      }, 0, refreshRate, TimeUnit.SECONDS);
+      }, refreshRate, refreshRate, TimeUnit.SECONDS);
 
       logger().debug(loggerPrefix + "Schedule timer");
     }
   }
 
+  /**
+   * Read an actuator endpoint. When an automatic refresh is set, the endpoint is polled by the
+   * {@link ActuatorPollingHub} and the last snapshot is returned if it is fresh enough.
+   */
+  protected String getFromActuator(String url, MediaType accept) {
+    return getActuatorSnapshot(url, accept).getBody();
+  }
+
+  /**
+   * Read an actuator endpoint and decode its JSON payload, see {@link
+   * ActuatorSnapshot#getPayload(Class, ObjectMapper)}
+   */
+  protected <T> T getFromActuator(String url, Class<T> type) {
+    return getActuatorSnapshot(url, MediaType.APPLICATION_JSON).getPayload(type, objectMapper);
+  }
+
+  protected ActuatorSnapshot getActuatorSnapshot(String url, MediaType accept) {
+    polledUrls.put(url, accept);
+    if (refreshRate != null && !subscriptions.containsKey(url)) {
+      // The hub refreshes the views reading actuator endpoints, they don't need a timer
+      stopTimer();
+      subscribe(url, accept);
+    }
+    return actuatorPollingHub.get(url, () -> getActuatorHeaders(accept));
+  }
+
+  protected HttpHeaders getActuatorHeaders(MediaType accept) {
+    HttpHeaders httpHeaders = new HttpHeaders();
+    authorizationHeaderUtil.getAuthorizationHeader(authentication)
+        .ifPresent(authorization -> httpHeaders.set("Authorization", authorization));
+    httpHeaders.setAccept(Collections.singletonList(accept));
+    return httpHeaders;
+  }
+
+  private void subscribe(String url, MediaType accept) {
+    subscriptions.put(url, actuatorPollingHub
+        .subscribe(url, Duration.ofSeconds(refreshRate), () -> getActuatorHeaders(accept),
+            snapshot -> onSnapshot()));
+  }
+
+  /**
+   * Called from the poller thread, several endpoints updated together trigger only one refresh
+   */
+  private void onSnapshot() {
+    if (refreshPending.compareAndSet(false, true)) {
+      try {
+        ui.access(() -> {
+          refreshPending.set(false);
+          refresh();
+        });
+      } catch (UIDetachedException e) {
+        unsubscribeAll();
+      }
+    }
+  }
+
+  private void stopTimer() {
+    if (timer != null) {
+      timer.shutdown();
+      timer = null;
+    }
+  }
+
+  private void unsubscribeAll() {
+    subscriptions.values().forEach(Registration::remove);
+    subscriptions.clear();
+    refreshPending.set(false);
+  }
+
   protected FlexBoxLayout createHeader(VaadinIcon icon, String title, Component... buttons) {
     FlexBoxLayout header = new FlexBoxLayout(
         UIUtils.createIcon(IconSize.M, TextColor.TERTIARY, icon),
@@ -143,6 +245,9 @@ public abstract class ActuatorBaseView extends Component implements HasLogger {
           subMenu
               .addClickListener(menuItemClickEvent -> {
                 setMenuItemChecked(eurekaApplicationInstanceSubMenu, subMenu);
+                // The endpoints of the previous instance are not needed anymore
+                unsubscribeAll();
+                polledUrls.clear();
                 currentEurekaApplication = eurekaApplication;
                 currentEurekaApplicationInstance = eurekaApplicationInstance;
                 UI.getCurrent().getSession()
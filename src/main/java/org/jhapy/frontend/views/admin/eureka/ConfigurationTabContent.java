@@ -18,9 +18,6 @@
 
 package org.jhapy.frontend.views.admin.eureka;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.vaadin.flow.component.Component;
@@ -40,7 +37,6 @@ import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.data.value.ValueChangeMode;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -58,16 +54,10 @@ import org.jhapy.dto.registry.actuate.ConfigProps.Contexts.Context.Bean;
 import org.jhapy.dto.registry.actuate.Env;
 import org.jhapy.dto.registry.actuate.Env.PropertySource;
 import org.jhapy.dto.registry.actuate.Env.PropertySource.Property;
+import org.jhapy.frontend.client.registry.actuator.ConfigPropsPayload;
+import org.jhapy.frontend.client.registry.actuator.EnvPayload;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.utils.UIUtils;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.vaadin.tabs.PagedTabs;
 
 /**
@@ -117,53 +107,28 @@ public class ConfigurationTabContent extends ActuatorBaseView {
             .getInstanceId());
 
     try {
-      final HttpHeaders httpHeaders = new HttpHeaders() {{
-        set("Authorization", authorizationHeaderUtil.getAuthorizationHeader().get());
-        setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-      }};
-
       logger().debug(
           "Application : " + eurekaApplication.getName() + ", Config Props Url = "
               + eurekaApplicationInstance.getMetadata().get("management.url") + "/configprops");
-      ResponseEntity<String> configprops = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/configprops"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String configpropsBody = configprops.getBody();
-
-      logger().debug("Config Props = " + configpropsBody);
-
-      JSONParser jsonParser = new JSONParser();
-
-      ObjectMapper objectMapper = new ObjectMapper();
+      ConfigPropsPayload configPropsPayload = getFromActuator(
+          eurekaApplicationInstance.getMetadata().get("management.url") + "/configprops",
+          ConfigPropsPayload.class);
 
       ConfigProps configPropsObj = new ConfigProps();
       Contexts contextsObj = new Contexts();
       contextsObj.setContexts(new HashMap<>());
       configPropsObj.setContexts(contextsObj);
 
-      JSONObject configpropsJsonObject = (JSONObject) jsonParser.parse(configpropsBody);
-
-      JSONObject contextsJsonObject = (JSONObject) configpropsJsonObject.get("contexts");
-      contextsJsonObject.forEach((key, contexts) -> {
+      configPropsPayload.getContexts().forEach((key, contexts) -> {
         ConfigProps.Contexts.Context contextObj = new Context();
         contextObj.setBeans(new HashMap<>());
-        JSONObject beansJsonObject = (JSONObject) ((JSONObject) contexts).get("beans");
-
-        beansJsonObject.forEach((o, o2) -> {
+        contexts.getBeans().forEach((name, bean) -> {
           Bean beanObj = new Bean();
-          beanObj.setPrefix(((JSONObject) o2).get("prefix").toString());
-          try {
-            beanObj.setProperties(objectMapper
-                .readValue(((JSONObject) o2).get("properties").toString(),
-                    new TypeReference<Map<String, Object>>() {
-                    }));
-          } catch (JsonProcessingException e) {
-            e.printStackTrace();
-          }
-          contextObj.getBeans().put(o.toString(), beanObj);
+          beanObj.setPrefix(bean.getPrefix());
+          beanObj.setProperties(bean.getProperties());
+          contextObj.getBeans().put(name, beanObj);
         });
-        contextsObj.getContexts().put(key.toString(), contextObj);
+        contextsObj.getContexts().put(key, contextObj);
       });
 
       //logger().debug("Config Props Converted = " + configPropsObj);
@@ -173,38 +138,23 @@ public class ConfigurationTabContent extends ActuatorBaseView {
       logger().debug(
           "Application : " + eurekaApplication.getName() + ", Env Url = "
               + eurekaApplicationInstance.getMetadata().get("management.url") + "/env");
-      ResponseEntity<String> env = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/env"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String envBody = env.getBody();
-
-      //logger().debug("Env = " + envBody);
+      EnvPayload envPayload = getFromActuator(
+          eurekaApplicationInstance.getMetadata().get("management.url") + "/env",
+          EnvPayload.class);
 
       Env env1 = new Env();
-
-      JSONObject envJsonObject = (JSONObject) jsonParser.parse(envBody);
-      JSONArray activeProfilesJsonObject = (JSONArray) envJsonObject.get("activeProfiles");
-      env1.setActiveProfiles(
-          (String[]) activeProfilesJsonObject.stream().map(Object::toString)
-              .toArray(String[]::new));
-      JSONArray propertySourcesJsonObject = (JSONArray) envJsonObject.get("propertySources");
-      env1.setPropertySources((PropertySource[]) propertySourcesJsonObject.stream().map(o -> {
+      env1.setActiveProfiles(envPayload.getActiveProfiles().toArray(String[]::new));
+      env1.setPropertySources(envPayload.getPropertySources().stream().map(source -> {
         PropertySource propertySource = new PropertySource();
-        JSONObject propertySourceJsonObject = (JSONObject) o;
-        propertySource.setName(propertySourceJsonObject.get("name").toString());
+        propertySource.setName(source.getName());
         propertySource.setProperties(new HashMap<>());
-        JSONObject properties = (JSONObject) propertySourceJsonObject.get("properties");
-        properties.forEach((o1, o2) -> {
+        source.getProperties().forEach((name, value) -> {
           Property property = new Property();
-          JSONObject propertyJsonObject = (JSONObject) o2;
-          if (propertyJsonObject.get("value") != null) {
-            property.setValue(propertyJsonObject.get("value").toString());
-          }
-          if (propertyJsonObject.get("origin") != null) {
-            property.setOrigin(propertyJsonObject.get("origin").toString());
+          if (value.getValue() != null) {
+            property.setValue(value.getValue().toString());
           }
-          propertySource.getProperties().put(o1.toString(), property);
+          property.setOrigin(value.getOrigin());
+          propertySource.getProperties().put(name, property);
         });
         return propertySource;
       }).toArray(PropertySource[]::new));
@@ -34,9 +34,11 @@ import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.utils.SecurityConst;
 import org.jhapy.frontend.client.registry.RegistryServices;
 import org.jhapy.frontend.components.navigation.bar.AppBar;
+import org.jhapy.frontend.config.AppProperties;
 import org.jhapy.frontend.layout.ViewFrame;
 import org.jhapy.frontend.utils.AppConst;
 import org.jhapy.frontend.utils.i18n.I18NPageTitle;
+import org.jhapy.frontend.utils.metrics.MetricsHistory;
 import org.jhapy.frontend.views.JHapyMainView;
 import org.springframework.core.env.Environment;
 import org.springframework.security.access.annotation.Secured;
@@ -57,6 +59,7 @@ public class EurekaView extends ViewFrame implements HasLogger {
   private ActuatorBaseView configurationsTabContent;
   private ActuatorBaseView meticsTabContent;
   private ActuatorBaseView healthTabContent;
+  private ActuatorBaseView fleetHealthTabContent;
   private ActuatorBaseView apisTabContent;
 
   private Tab home;
@@ -64,6 +67,7 @@ public class EurekaView extends ViewFrame implements HasLogger {
   private Tab instances;
   private Tab metrics;
   private Tab healths;
+  private Tab fleetHealth;
   private Tab configurations;
   private Tab loggers;
   private Tab logs;
@@ -72,11 +76,16 @@ public class EurekaView extends ViewFrame implements HasLogger {
   protected UI ui;
 
   private final AuthorizationHeaderUtil authorizationHeaderUtil;
+  private final MetricsHistory metricsHistory;
+  private final AppProperties appProperties;
 
   public EurekaView(Environment env,
-      AuthorizationHeaderUtil authorizationHeaderUtil) {
+      AuthorizationHeaderUtil authorizationHeaderUtil, MetricsHistory metricsHistory,
+      AppProperties appProperties) {
     this.env = env;
     this.authorizationHeaderUtil = authorizationHeaderUtil;
+    this.metricsHistory = metricsHistory;
+    this.appProperties = appProperties;
   }
 
   @Override
@@ -92,11 +101,15 @@ public class EurekaView extends ViewFrame implements HasLogger {
     this.eurekaHistoryTabContent = new EurekaHistoryTabContent(ui, I18N_PREFIX,
         authorizationHeaderUtil);
     this.healthTabContent = new HealthTabContent(ui, I18N_PREFIX, authorizationHeaderUtil);
+    this.fleetHealthTabContent = new FleetHealthTabContent(ui, I18N_PREFIX,
+        authorizationHeaderUtil);
     this.configurationsTabContent = new ConfigurationTabContent(ui, I18N_PREFIX,
         authorizationHeaderUtil);
     this.loggersTabContent = new LoggersTabContent(ui, I18N_PREFIX, authorizationHeaderUtil);
-    this.logsTabContent = new LogsTabContent(ui, I18N_PREFIX, authorizationHeaderUtil);
-    this.meticsTabContent = new MetricsTabContent(ui, I18N_PREFIX, authorizationHeaderUtil);
+    this.logsTabContent = new LogsTabContent(ui, I18N_PREFIX, authorizationHeaderUtil,
+        appProperties.getActuatorClient());
+    this.meticsTabContent = new MetricsTabContent(ui, I18N_PREFIX, authorizationHeaderUtil,
+        metricsHistory);
     this.apisTabContent = new ApiTabContent(ui, I18N_PREFIX, authorizationHeaderUtil);
 
     lookupData();
@@ -110,6 +123,10 @@ public class EurekaView extends ViewFrame implements HasLogger {
 
     homeTabContent.setRefreshRate(null);
     eurekaInstancesTabContent.setRefreshRate(null);
+    eurekaHistoryTabContent.setRefreshRate(null);
+    healthTabContent.setRefreshRate(null);
+    fleetHealthTabContent.setRefreshRate(null);
+    configurationsTabContent.setRefreshRate(null);
     loggersTabContent.setRefreshRate(null);
     logsTabContent.setRefreshRate(null);
     meticsTabContent.setRefreshRate(null);
@@ -124,6 +141,7 @@ public class EurekaView extends ViewFrame implements HasLogger {
     instances = appBar.addTab(getTranslation("element." + I18N_PREFIX + "tab.instances"));
     metrics = appBar.addTab(getTranslation("element." + I18N_PREFIX + "tab.metrics"));
     healths = appBar.addTab(getTranslation("element." + I18N_PREFIX + "tab.healths"));
+    fleetHealth = appBar.addTab(getTranslation("element." + I18N_PREFIX + "tab.fleetHealth"));
     configurations = appBar
         .addTab(getTranslation("element." + I18N_PREFIX + "tab.configurations"));
     loggers = appBar.addTab(getTranslation("element." + I18N_PREFIX + "tab.loggers"));
@@ -153,6 +171,8 @@ public class EurekaView extends ViewFrame implements HasLogger {
       return meticsTabContent;
     } else if (tab.equals(healths)) {
       return healthTabContent;
+    } else if (tab.equals(fleetHealth)) {
+      return fleetHealthTabContent;
     } else if (tab.equals(configurations)) {
       return configurationsTabContent;
     } else if (tab.equals(loggers)) {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.views.admin.eureka;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.grid.ColumnTextAlign;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.FlexDirection;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.jhapy.commons.security.oauth2.AuthorizationHeaderUtil;
+import org.jhapy.dto.registry.EurekaApplication;
+import org.jhapy.dto.registry.EurekaApplicationInstance;
+import org.jhapy.dto.registry.EurekaInfo;
+import org.jhapy.dto.serviceQuery.BaseRemoteQuery;
+import org.jhapy.dto.serviceQuery.ServiceResult;
+import org.jhapy.frontend.client.registry.EurekaService;
+import org.jhapy.frontend.client.registry.FleetHealthChecker;
+import org.jhapy.frontend.client.registry.InstanceHealth;
+import org.jhapy.frontend.client.registry.RegistryServices;
+import org.jhapy.frontend.components.Badge;
+import org.jhapy.frontend.components.FlexBoxLayout;
+import org.jhapy.frontend.layout.size.Horizontal;
+import org.jhapy.frontend.utils.UIUtils;
+import org.jhapy.frontend.utils.css.lumo.BadgeColor;
+import org.springframework.http.MediaType;
+
+/**
+ * Health of all the registered instances at once. The checks run in parallel (see {@link
+ * FleetHealthChecker}) and each row is updated as soon as its instance answered. Instances come
+ * and go, so the registry is read again on each refresh.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@Tag("fleetHealthTabContent")
+public class FleetHealthTabContent extends ActuatorBaseView {
+
+  protected FlexBoxLayout content;
+  protected Grid<InstanceHealth> grid;
+  protected ListDataProvider<InstanceHealth> dataProvider;
+  protected Label summaryLabel;
+
+  private final FleetHealthChecker fleetHealthChecker;
+  private final EurekaService eurekaService;
+  private CompletableFuture<Void> currentCheck;
+
+  public FleetHealthTabContent(UI ui, String I18N_PREFIX,
+      AuthorizationHeaderUtil authorizationHeaderUtil) {
+    super(ui, I18N_PREFIX + "fleetHealth.", authorizationHeaderUtil);
+    this.fleetHealthChecker = RegistryServices.getFleetHealthChecker();
+    this.eurekaService = RegistryServices.getEurekaService();
+  }
+
+  public Component getContent(EurekaInfo eurekaInfo) {
+    this.eurekaInfo = eurekaInfo;
+    content = new FlexBoxLayout(createHeader(VaadinIcon.HEART,
+        getTranslation("element." + I18N_PREFIX + "title"),
+        getEurekaInstancesList(false, eurekaInfo.getApplicationList(), null)));
+    content.setAlignItems(FlexComponent.Alignment.CENTER);
+    content.setFlexDirection(FlexDirection.COLUMN);
+    content.setSizeFull();
+
+    summaryLabel = UIUtils.createH5Label("");
+    content.add(summaryLabel);
+
+    grid = new Grid<>();
+    grid.setWidthFull();
+    grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES);
+
+    ComponentRenderer<Badge, InstanceHealth> badgeRenderer = new ComponentRenderer<>(
+        instanceHealth -> {
+          switch (instanceHealth.getStatus()) {
+            case "UP":
+              return new Badge("UP", BadgeColor.SUCCESS);
+            case "DOWN":
+            case InstanceHealth.ERROR:
+              return new Badge(instanceHealth.getStatus(), BadgeColor.ERROR);
+            case InstanceHealth.TIMEOUT:
+              return new Badge(InstanceHealth.TIMEOUT, BadgeColor.CONTRAST);
+            case InstanceHealth.PENDING:
+              return new Badge(InstanceHealth.PENDING, BadgeColor.NORMAL);
+            default:
+              return new Badge(instanceHealth.getStatus(), BadgeColor.SUCCESS_PRIMARY);
+          }
+        });
+
+    grid.addColumn(InstanceHealth::getApplication).setKey("application").setSortable(true);
+    grid.addColumn(InstanceHealth::getInstanceId).setKey("instanceId").setSortable(true);
+    grid.addColumn(badgeRenderer).setKey("status").setWidth("150px").setFlexGrow(0);
+    grid.addColumn(instanceHealth -> instanceHealth.getResponseTime() == null ? ""
+        : instanceHealth.getResponseTime() + " ms").setKey("responseTime")
+        .setTextAlign(ColumnTextAlign.END).setWidth("150px").setFlexGrow(0);
+    grid.addColumn(InstanceHealth::getError).setKey("error");
+
+    grid.getColumns().forEach(column -> {
+      if (column.getKey() != null) {
+        column.setHeader(getTranslation("element." + I18N_PREFIX + column.getKey()));
+        column.setResizable(true);
+      }
+    });
+
+    FlexBoxLayout gridLayout = new FlexBoxLayout(grid);
+    gridLayout.setPadding(Horizontal.RESPONSIVE_L);
+    gridLayout.setWidthFull();
+    content.add(gridLayout);
+    content.setFlex("1", gridLayout);
+
+    // The registry given here has just been read
+    checkInstances();
+
+    return content;
+  }
+
+  @Override
+  public void refresh() {
+    if (currentCheck != null && !currentCheck.isDone()) {
+      logger().debug(getLoggerPrefix("refresh") + "Previous check still running, skip");
+      return;
+    }
+    reloadRegistry();
+    checkInstances();
+  }
+
+  /**
+   * The last registry read is kept when the registry server does not answer
+   */
+  protected void reloadRegistry() {
+    ServiceResult<EurekaInfo> result = eurekaService.getApplications(new BaseRemoteQuery());
+    if (result.getIsSuccess() && result.getData() != null) {
+      eurekaInfo = result.getData();
+    } else {
+      logger().warn(getLoggerPrefix("reloadRegistry") + "Cannot read the registry, "
+          + "check the last known instances : " + result.getMessage());
+    }
+  }
+
+  protected void checkInstances() {
+    String loggerPrefix = getLoggerPrefix("checkInstances");
+    List<InstanceHealth> instances = new ArrayList<>();
+    for (EurekaApplication eurekaApplication : eurekaInfo.getApplicationList()) {
+      for (EurekaApplicationInstance eurekaApplicationInstance : eurekaApplication
+          .getInstances()) {
+        instances.add(new InstanceHealth(eurekaApplication.getName(),
+            eurekaApplicationInstance.getInstanceId(),
+            eurekaApplicationInstance.getHealthCheckUrl()));
+      }
+    }
+    logger().debug(loggerPrefix + "Check " + instances.size() + " instances");
+
+    dataProvider = new ListDataProvider<>(instances);
+    grid.setDataProvider(dataProvider);
+    updateSummary();
+
+    currentCheck = fleetHealthChecker
+        .check(instances, () -> getActuatorHeaders(MediaType.APPLICATION_JSON),
+            instanceHealth -> {
+              try {
+                ui.access(() -> {
+                  dataProvider.refreshItem(instanceHealth);
+                  updateSummary();
+                });
+              } catch (UIDetachedException e) {
+                // The results of the current check are not displayed anymore
+              }
+            });
+  }
+
+  protected void updateSummary() {
+    long up = dataProvider.getItems().stream()
+        .filter(instanceHealth -> "UP".equals(instanceHealth.getStatus())).count();
+    long pending = dataProvider.getItems().stream().filter(InstanceHealth::isPending).count();
+    long total = dataProvider.getItems().size();
+    summaryLabel.setText(
+        getTranslation("element." + I18N_PREFIX + "summary", up, total - up - pending, pending));
+  }
+}
@@ -18,7 +18,6 @@
 
 package org.jhapy.frontend.views.admin.eureka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.vaadin.flow.component.Component;
@@ -38,7 +37,6 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.renderer.TemplateRenderer;
 import java.net.URI;
 import java.text.DecimalFormat;
-import java.util.Arrays;
 import java.util.Collections;
 import org.jhapy.commons.security.oauth2.AuthorizationHeaderUtil;
 import org.jhapy.dto.registry.ActuatorHealth;
@@ -368,22 +366,12 @@ public class HealthTabContent extends ActuatorBaseView {
         getTranslation("element." + I18N_PREFIX + "title") + " - " + eurekaApplicationInstance
             .getInstanceId());
 
-    final HttpHeaders httpHeaders = new HttpHeaders() {{
-      set("Authorization", authorizationHeaderUtil.getAuthorizationHeader().get());
-      setAccept(Arrays.asList(MediaType.APPLICATION_JSON));
-    }};
-
     try {
       logger().debug(
           "Application : " + eurekaApplication.getName() + ", Health Url = "
               + eurekaApplicationInstance.getHealthCheckUrl());
-      ResponseEntity<String> aa = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getHealthCheckUrl()), HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String jsonBody = aa.getBody();
-      logger().debug("Actuator Health before Convert = " + jsonBody);
-      ObjectMapper mapper = new ObjectMapper();
-      ActuatorHealth actuatorHealth = mapper.readValue(jsonBody, ActuatorHealth.class);
+      ActuatorHealth actuatorHealth = getFromActuator(
+          eurekaApplicationInstance.getHealthCheckUrl(), ActuatorHealth.class);
       logger().debug("Actuator Health = " + actuatorHealth);
 
       grid.setItems(actuatorHealth.getComponentsList());
@@ -18,7 +18,6 @@
 
 package org.jhapy.frontend.views.admin.eureka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
@@ -28,9 +27,7 @@ import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.FlexLayout.FlexDirection;
 import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
-import java.net.URI;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -43,11 +40,6 @@ import org.jhapy.dto.registry.Loggers.LogLevel;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.utils.TextColor;
 import org.jhapy.frontend.utils.UIUtils;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 
 /**
  * @author jHapy Lead Dev.
@@ -132,21 +124,12 @@ public class LoggersTabContent extends ActuatorBaseView {
         getTranslation("element." + I18N_PREFIX + "title") + " - " + eurekaApplicationInstance
             .getInstanceId());
     try {
-      final HttpHeaders httpHeaders = new HttpHeaders() {{
-        set("Authorization", authorizationHeaderUtil.getAuthorizationHeader().get());
-        setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-      }};
-
       logger().debug(
           "Application : " + eurekaApplication.getName() + ", Loggers Url = "
               + eurekaApplicationInstance.getMetadata().get("management.url") + "/loggers");
-      ResponseEntity<String> aa = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/loggers"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String jsonBody = aa.getBody();
-      ObjectMapper mapper = new ObjectMapper();
-      Loggers loggers = mapper.readValue(jsonBody, Loggers.class);
+      Loggers loggers = getFromActuator(
+          eurekaApplicationInstance.getMetadata().get("management.url") + "/loggers",
+          Loggers.class);
       logger().debug("Loggers = " + loggers);
 
       List<LogLevel> availableLogLevels = new ArrayList<>(loggers.getLevels());
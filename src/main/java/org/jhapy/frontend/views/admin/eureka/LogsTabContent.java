@@ -21,24 +21,34 @@ package org.jhapy.frontend.views.admin.eureka;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.FlexLayout.FlexDirection;
-import com.vaadin.flow.component.textfield.TextArea;
-import java.net.URI;
-import java.util.Collections;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.dom.Element;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.commons.lang3.StringUtils;
 import org.jhapy.commons.security.oauth2.AuthorizationHeaderUtil;
 import org.jhapy.dto.registry.EurekaApplication;
 import org.jhapy.dto.registry.EurekaApplicationInstance;
 import org.jhapy.dto.registry.EurekaInfo;
+import org.jhapy.frontend.client.registry.LogTail;
 import org.jhapy.frontend.components.FlexBoxLayout;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.jhapy.frontend.config.AppProperties;
+import org.jhapy.frontend.utils.UIUtils;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 
 /**
+ * Tail of the log file of an instance. Only the bytes appended since the last refresh are read
+ * (see {@link LogTail}) and only the new lines are sent to the browser. The search runs in the
+ * background over the end of the file, the matching lines replacing the tail (through push) until
+ * it is cleared.
+ *
  * @author jHapy Lead Dev.
  * @version 1.0
  * @since 07/06/2020
@@ -47,21 +57,46 @@ import org.springframework.http.ResponseEntity;
 public class LogsTabContent extends ActuatorBaseView {
 
   protected FlexBoxLayout content;
-  protected Component component;
+  protected Div logLines;
+  protected TextField grepField;
+
+  private final AppProperties.ActuatorClient actuatorClientProperties;
+  private LogTail logTail;
+  private CompletableFuture<List<String>> currentSearch;
 
   public LogsTabContent(UI ui, String I18N_PREFIX,
-      AuthorizationHeaderUtil authorizationHeaderUtil) {
+      AuthorizationHeaderUtil authorizationHeaderUtil,
+      AppProperties.ActuatorClient actuatorClientProperties) {
     super(ui, I18N_PREFIX + "logs.", authorizationHeaderUtil);
+    this.actuatorClientProperties = actuatorClientProperties;
   }
 
   public Component getContent(EurekaInfo eurekaInfo) {
+    grepField = new TextField();
+    grepField.setPlaceholder(getTranslation("element." + I18N_PREFIX + "grep"));
+    grepField.setPrefixComponent(VaadinIcon.SEARCH.create());
+    grepField.setClearButtonVisible(true);
+    // Searching reads the end of the file, only on enter or blur
+    grepField.setValueChangeMode(ValueChangeMode.ON_CHANGE);
+    grepField.addValueChangeListener(event -> displayLines());
+
     content = new FlexBoxLayout(createHeader(VaadinIcon.SEARCH,
         getTranslation("element." + I18N_PREFIX + "title"),
+        grepField,
         getEurekaInstancesList(true, eurekaInfo.getApplicationList(), this::getDetails)));
     content.setAlignItems(FlexComponent.Alignment.CENTER);
     content.setFlexDirection(FlexDirection.COLUMN);
     content.setSizeFull();
 
+    logLines = new Div();
+    logLines.setWidthFull();
+    logLines.getStyle().set("overflow", "auto");
+    logLines.getStyle().set("white-space", "pre");
+    logLines.getStyle().set("font-family", "monospace");
+    logLines.getStyle().set("font-size", "var(--lumo-font-size-s)");
+    content.add(logLines);
+    content.setFlex("1", logLines);
+
     return content;
   }
 
@@ -76,49 +111,102 @@ public class LogsTabContent extends ActuatorBaseView {
     }
   }
 
-  protected Component getLogs(String logFile) {
-    TextArea loggerArea = new TextArea();
-    loggerArea.setValue(logFile);
-    loggerArea.setSizeFull();
-
-    return loggerArea;
-  }
-
   protected void getDetails(EurekaApplication eurekaApplication,
       EurekaApplicationInstance eurekaApplicationInstance) {
     titleLabel.setText(
         getTranslation("element." + I18N_PREFIX + "title") + " - " + eurekaApplicationInstance
             .getInstanceId());
     try {
-      final HttpHeaders httpHeaders = new HttpHeaders() {{
-        set("Authorization", authorizationHeaderUtil.getAuthorizationHeader().get());
-        setAccept(Collections.singletonList(MediaType.TEXT_PLAIN));
-      }};
-
-      logger().debug(
-          "Application : " + eurekaApplication.getName() + ", Loggers Url = "
-              + eurekaApplicationInstance.getMetadata().get("management.url") + "/logfile");
-      ResponseEntity<String> aa = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/logfile"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String logFile = aa.getBody();
-
-      logger().debug("Logs = " + logFile);
-
-      if (content.getChildren().count() > 1) {
-        if (component != null) {
-          content.remove(component);
-        }
+      String logFileUrl =
+          eurekaApplicationInstance.getMetadata().get("management.url") + "/logfile";
+      if (logTail == null || !logTail.getUrl().equals(logFileUrl)) {
+        logger().debug(
+            "Application : " + eurekaApplication.getName() + ", Logs Url = " + logFileUrl);
+        logTail = new LogTail(restTemplate, logFileUrl,
+            () -> getActuatorHeaders(MediaType.TEXT_PLAIN),
+            actuatorClientProperties.getLogTailLines(),
+            actuatorClientProperties.getLogTailInitialBytes());
+        logLines.removeAll();
       }
 
-      component = getLogs(logFile);
-      content.add(component);
-      content.setFlex("1", component);
+      List<String> newLines = logTail.fetchNewLines();
+      logger().debug("New log lines = " + newLines.size());
+
+      if (StringUtils.isBlank(grepField.getValue())) {
+        appendLines(newLines);
+      }
     } catch (Throwable t) {
       t.printStackTrace();
     }
+  }
+
+  /**
+   * Display the tail, or start a search, its matching lines being displayed when it is done
+   */
+  protected void displayLines() {
+    if (logTail == null) {
+      return;
+    }
+    if (currentSearch != null) {
+      currentSearch.cancel(false);
+      currentSearch = null;
+    }
+    logLines.removeAll();
+    String text = grepField.getValue();
+    if (StringUtils.isBlank(text)) {
+      appendLines(logTail.getLines());
+      return;
+    }
+
+    try {
+      CompletableFuture<List<String>> search = logTail.grepAsync(text.trim(),
+          actuatorClientProperties.getLogGrepMaxMatches(),
+          actuatorClientProperties.getLogGrepMaxBytes(),
+          actuatorClientProperties.getLogGrepTimeout());
+      currentSearch = search;
+      search.whenComplete((matches, t) -> {
+        try {
+          ui.access(() -> {
+            if (search != currentSearch) {
+              // Another search started, or the search was cleared
+              return;
+            }
+            currentSearch = null;
+            if (t == null) {
+              appendLines(matches);
+            } else {
+              searchFailed(t instanceof CompletionException ? t.getCause() : t);
+            }
+          });
+        } catch (UIDetachedException e) {
+          // Nobody to display the result to
+        }
+      });
+    } catch (Exception e) {
+      searchFailed(e);
+    }
+  }
 
+  protected void searchFailed(Throwable t) {
+    logger().error(getLoggerPrefix("searchFailed") + "Search failed : " + t.getMessage());
+    UIUtils.showNotification(t.getMessage());
   }
 
+  /**
+   * Only the new lines are added to the DOM, the oldest being removed past the lines kept
+   */
+  protected void appendLines(List<String> lines) {
+    if (lines.isEmpty()) {
+      return;
+    }
+    Element element = logLines.getElement();
+    for (String line : lines) {
+      element.appendChild(new Element("div").setText(line));
+    }
+    int overflow = element.getChildCount() - logTail.getMaxLines();
+    for (int i = 0; i < overflow; i++) {
+      element.removeChild(0);
+    }
+    element.executeJs("this.scrollTop = this.scrollHeight");
+  }
 }
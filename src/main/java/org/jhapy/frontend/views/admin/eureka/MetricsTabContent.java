@@ -18,13 +18,20 @@
 
 package org.jhapy.frontend.views.admin.eureka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.board.Row;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.charts.Chart;
+import com.vaadin.flow.component.charts.model.AxisType;
+import com.vaadin.flow.component.charts.model.ChartType;
+import com.vaadin.flow.component.charts.model.Configuration;
+import com.vaadin.flow.component.charts.model.DataSeries;
+import com.vaadin.flow.component.charts.model.DataSeriesItem;
+import com.vaadin.flow.component.charts.model.Marker;
+import com.vaadin.flow.component.charts.model.PlotOptionsLine;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.grid.ColumnTextAlign;
 import com.vaadin.flow.component.grid.Grid;
@@ -34,15 +41,15 @@ import com.vaadin.flow.component.html.Label;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.FlexLayout.FlexDirection;
+import com.vaadin.flow.component.orderedlayout.FlexLayout.WrapMode;
 import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.data.renderer.TemplateRenderer;
-import java.net.URI;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.apache.commons.lang3.time.FastDateFormat;
@@ -60,6 +67,10 @@ import org.jhapy.dto.registry.HttpRequests;
 import org.jhapy.dto.registry.HttpRequests.HttpRequest;
 import org.jhapy.dto.registry.Thread;
 import org.jhapy.dto.registry.Thread.StackTrace;
+import org.jhapy.frontend.client.registry.ActuatorSnapshot;
+import org.jhapy.frontend.client.registry.actuator.JhaMetrics;
+import org.jhapy.frontend.client.registry.actuator.JhaMetrics.MemoryPool;
+import org.jhapy.frontend.client.registry.actuator.ThreadDump;
 import org.jhapy.frontend.components.Badge;
 import org.jhapy.frontend.components.FlexBoxLayout;
 import org.jhapy.frontend.components.ListItem;
@@ -69,13 +80,10 @@ import org.jhapy.frontend.utils.BoxShadowBorders;
 import org.jhapy.frontend.utils.LumoStyles;
 import org.jhapy.frontend.utils.UIUtils;
 import org.jhapy.frontend.utils.css.lumo.BadgeColor;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.jhapy.frontend.utils.metrics.MetricSeries;
+import org.jhapy.frontend.utils.metrics.MetricsHistory;
+import org.jhapy.frontend.utils.metrics.MetricsSample;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 
 /**
  * @author jHapy Lead Dev.
@@ -95,10 +103,14 @@ public class MetricsTabContent extends ActuatorBaseView {
   protected Component requestsComponent;
   protected Component cachesComponent;
   protected Component databaseComponent;
+  protected Component trendsComponent;
+
+  private final MetricsHistory metricsHistory;
 
   public MetricsTabContent(UI ui, String I18N_PREFIX,
-      AuthorizationHeaderUtil authorizationHeaderUtil) {
+      AuthorizationHeaderUtil authorizationHeaderUtil, MetricsHistory metricsHistory) {
     super(ui, I18N_PREFIX + "metrics.", authorizationHeaderUtil);
+    this.metricsHistory = metricsHistory;
   }
 
   public Component getContent(EurekaInfo eurekaInfo) {
@@ -133,8 +145,9 @@ public class MetricsTabContent extends ActuatorBaseView {
     }
   }
 
-  protected Component createJVMMemory(JSONObject jvmMetrics, JSONObject processMetrics,
-      JSONObject garbageCollectorMetrics, Thread[] threads) {
+  protected Component createJVMMemory(Map<String, MemoryPool> jvmMetrics,
+      Map<String, Double> processMetrics, Map<String, Object> garbageCollectorMetrics,
+      Thread[] threads) {
     FlexBoxLayout payments = new FlexBoxLayout(
         createHeader(VaadinIcon.CREDIT_CARD,
             getTranslation("element." + I18N_PREFIX + "jvmMetrics")));
@@ -150,6 +163,61 @@ public class MetricsTabContent extends ActuatorBaseView {
     return payments;
   }
 
+  protected Component createTrends(String instanceId) {
+    FlexBoxLayout trends = new FlexBoxLayout(
+        createHeader(VaadinIcon.CHART_LINE,
+            getTranslation("element." + I18N_PREFIX + "trends")));
+    trends.setFlexDirection(FlexDirection.ROW);
+    trends.setWrapMode(WrapMode.WRAP);
+    trends.setMargin(Top.M);
+    trends.setPadding(Horizontal.RESPONSIVE_L);
+    trends.setWidthFull();
+
+    trends.add(
+        createTrendChart(instanceId, "trend.heap", 1024 * 1024, MetricSeries.HEAP_USED,
+            MetricSeries.NON_HEAP_USED),
+        createTrendChart(instanceId, "trend.gcPause", 1, MetricSeries.GC_PAUSE_P50,
+            MetricSeries.GC_PAUSE_P99, MetricSeries.GC_PAUSE_MAX),
+        createTrendChart(instanceId, "trend.threads", 1, MetricSeries.THREADS,
+            MetricSeries.THREADS_RUNNABLE, MetricSeries.THREADS_BLOCKED),
+        createTrendChart(instanceId, "trend.httpRequests", 1,
+            MetricSeries.HTTP_REQUESTS_PER_SECOND),
+        createTrendChart(instanceId, "trend.caches", 0.01, MetricSeries.CACHE_HIT_RATIO));
+    return trends;
+  }
+
+  /**
+   * @param scale the values are divided by it (bytes to MB, ratio to %)
+   */
+  protected Chart createTrendChart(String instanceId, String titleKey, double scale,
+      MetricSeries... metricSeries) {
+    Chart chart = new Chart(ChartType.LINE);
+    chart.setWidth("50%");
+    chart.setHeight("250px");
+
+    Configuration configuration = chart.getConfiguration();
+    configuration.setTitle(getTranslation("element." + I18N_PREFIX + titleKey));
+    configuration.getxAxis().setType(AxisType.DATETIME);
+    configuration.getyAxis().setTitle("");
+    PlotOptionsLine plotOptions = new PlotOptionsLine();
+    plotOptions.setMarker(new Marker(false));
+    plotOptions.setAnimation(false);
+    configuration.setPlotOptions(plotOptions);
+
+    for (MetricSeries series : metricSeries) {
+      DataSeries dataSeries = new DataSeries(
+          getTranslation("element." + I18N_PREFIX + "trend." + series.getKey()));
+      metricsHistory.forEach(instanceId, series, (timestamp, value) -> dataSeries
+          .add(new DataSeriesItem(Instant.ofEpochMilli(timestamp), value / scale)));
+      configuration.addSeries(dataSeries);
+    }
+    return chart;
+  }
+
+  private Double asDouble(Object value) {
+    return value instanceof Number ? ((Number) value).doubleValue() : null;
+  }
+
   protected Component createGarbage(GarbageCollector garbageCollector) {
     FlexBoxLayout payments = new FlexBoxLayout(
         createHeader(VaadinIcon.CREDIT_CARD,
@@ -458,7 +526,8 @@ public class MetricsTabContent extends ActuatorBaseView {
     return payments;
   }
 
-  protected Component getFirstRow(JSONObject jvmMetrics, JSONObject processMetrics) {
+  protected Component getFirstRow(Map<String, MemoryPool> jvmMetrics,
+      Map<String, Double> processMetrics) {
     Row docs = new Row(getMemory(jvmMetrics), getSystem(processMetrics));
     //docs.addClassName(LumoStyles.Margin.Top.XL);
     // UIUtils.setMaxWidth(MAX_WIDTH, docs);
@@ -467,7 +536,7 @@ public class MetricsTabContent extends ActuatorBaseView {
     return docs;
   }
 
-  protected Component getSecondRow(JSONObject garbageCollector, Thread[] threads) {
+  protected Component getSecondRow(Map<String, Object> garbageCollector, Thread[] threads) {
     Row docs = new Row(getThreads(threads), getGarbageCollector(garbageCollector));
     //docs.addClassName(LumoStyles.Margin.Top.XL);
     // UIUtils.setMaxWidth(MAX_WIDTH, docs);
@@ -476,7 +545,7 @@ public class MetricsTabContent extends ActuatorBaseView {
     return docs;
   }
 
-  protected Component getMemory(JSONObject jvmMetrics) {
+  protected Component getMemory(Map<String, MemoryPool> jvmMetrics) {
     FlexBoxLayout content = new FlexBoxLayout();
     content.setFlexDirection(FlexDirection.COLUMN);
     //content.setMargin(Horizontal.AUTO, Vertical.RESPONSIVE_L);
@@ -489,22 +558,21 @@ public class MetricsTabContent extends ActuatorBaseView {
     Div items = new Div();
     items.addClassNames(BoxShadowBorders.BOTTOM, LumoStyles.Padding.Bottom.L);
     int idx = 0;
-    for (Object key : jvmMetrics.keySet()) {
-      JSONObject jsonObject = (JSONObject) jvmMetrics.get(key);
+    for (Map.Entry<String, MemoryPool> entry : jvmMetrics.entrySet()) {
+      MemoryPool memoryPool = entry.getValue();
       ListItem item;
-      if ((Double) jsonObject.get("max") == -1) {
+      if (memoryPool.getMax() == -1) {
         item = new ListItem(
-            key.toString(),
-            "Committed : " + getValue((Double) jsonObject.get("committed")),
-            UIUtils.createH5Label(getValue((Double) jsonObject.get("used")))
+            entry.getKey(),
+            "Committed : " + getValue(memoryPool.getCommitted()),
+            UIUtils.createH5Label(getValue(memoryPool.getUsed()))
         );
       } else {
         item = new ListItem(
-            key.toString(),
-            "Committed : " + getValue((Double) jsonObject.get("committed")) + " / Max : "
-                + getValue(
-                (Double) jsonObject.get("max")),
-            UIUtils.createH5Label(getValue((Double) jsonObject.get("used")))
+            entry.getKey(),
+            "Committed : " + getValue(memoryPool.getCommitted()) + " / Max : "
+                + getValue(memoryPool.getMax()),
+            UIUtils.createH5Label(getValue(memoryPool.getUsed()))
         );
       }
       item.setDividerVisible(++idx < jvmMetrics.size());
@@ -600,7 +668,7 @@ public class MetricsTabContent extends ActuatorBaseView {
     return content;
   }
 
-  protected Component getSystem(JSONObject jvmMetrics) {
+  protected Component getSystem(Map<String, Double> jvmMetrics) {
     FlexBoxLayout content = new FlexBoxLayout();
     content.setFlexDirection(FlexDirection.COLUMN);
     //  content.setMargin(Horizontal.AUTO, Vertical.RESPONSIVE_L);
@@ -612,14 +680,14 @@ public class MetricsTabContent extends ActuatorBaseView {
 
     Div items = new Div();
     items.addClassNames(BoxShadowBorders.BOTTOM, LumoStyles.Padding.Bottom.L);
-    Double upTime = (Double) jvmMetrics.get("process.uptime");
-    Double startTime = (Double) jvmMetrics.get("process.start.time");
-    Double processCpuUsage = (Double) jvmMetrics.get("process.cpu.usage");
-    Double systemCpuUsage = (Double) jvmMetrics.get("system.cpu.usage");
-    Double processCpuCount = (Double) jvmMetrics.get("system.cpu.count");
-    Double loadAverage1m = (Double) jvmMetrics.get("system.load.average.1m");
-    Double processFilesMax = (Double) jvmMetrics.get("process.files.max");
-    Double processFilesOpen = (Double) jvmMetrics.get("process.files.open");
+    Double upTime = jvmMetrics.get("process.uptime");
+    Double startTime = jvmMetrics.get("process.start.time");
+    Double processCpuUsage = jvmMetrics.get("process.cpu.usage");
+    Double systemCpuUsage = jvmMetrics.get("system.cpu.usage");
+    Double processCpuCount = jvmMetrics.get("system.cpu.count");
+    Double loadAverage1m = jvmMetrics.get("system.load.average.1m");
+    Double processFilesMax = jvmMetrics.get("process.files.max");
+    Double processFilesOpen = jvmMetrics.get("process.files.open");
 
     DecimalFormat numberFormat = new DecimalFormat("###.##");
     {
@@ -700,7 +768,7 @@ public class MetricsTabContent extends ActuatorBaseView {
     return content;
   }
 
-  protected Component getGarbageCollector(JSONObject jvmMetrics) {
+  protected Component getGarbageCollector(Map<String, Object> jvmMetrics) {
     FlexBoxLayout content = new FlexBoxLayout();
     content.setFlexDirection(FlexDirection.COLUMN);
     //   content.setMargin(Horizontal.AUTO, Vertical.RESPONSIVE_L);
@@ -715,8 +783,8 @@ public class MetricsTabContent extends ActuatorBaseView {
     items.addClassNames(BoxShadowBorders.BOTTOM, LumoStyles.Padding.Bottom.L);
 
     {
-      Double gcLiveDateSize = (Double) jvmMetrics.get("jvm.gc.live.data.size");
-      Double gcMaxDateSize = (Double) jvmMetrics.get("jvm.gc.max.data.size");
+      Double gcLiveDateSize = asDouble(jvmMetrics.get("jvm.gc.live.data.size"));
+      Double gcMaxDateSize = asDouble(jvmMetrics.get("jvm.gc.max.data.size"));
       ListItem item = new ListItem(
           "GC Live Data Size/GC Max Data Size",
           UIUtils.createH5Label(getValue(gcLiveDateSize) + " / " + getValue(gcMaxDateSize))
@@ -725,8 +793,8 @@ public class MetricsTabContent extends ActuatorBaseView {
       items.add(item);
     }
     {
-      Double gcPromoted = (Double) jvmMetrics.get("jvm.gc.memory.promoted");
-      Double gcAllocated = (Double) jvmMetrics.get("jvm.gc.memory.allocated");
+      Double gcPromoted = asDouble(jvmMetrics.get("jvm.gc.memory.promoted"));
+      Double gcAllocated = asDouble(jvmMetrics.get("jvm.gc.memory.allocated"));
       ListItem item = new ListItem(
           "GC Memory Promoted/GC Memory Allocated",
           UIUtils.createH5Label(getValue(gcPromoted) + " / " + getValue(gcAllocated))
@@ -735,7 +803,7 @@ public class MetricsTabContent extends ActuatorBaseView {
       items.add(item);
     }
     {
-      Double classesLoaded = (Double) jvmMetrics.get("classesLoaded");
+      Double classesLoaded = asDouble(jvmMetrics.get("classesLoaded"));
       ListItem item = new ListItem(
           "Class loaded",
           UIUtils.createH5Label(Integer.toString(classesLoaded.intValue()))
@@ -744,7 +812,7 @@ public class MetricsTabContent extends ActuatorBaseView {
       items.add(item);
     }
     {
-      Double classesUnloaded = (Double) jvmMetrics.get("classesUnloaded");
+      Double classesUnloaded = asDouble(jvmMetrics.get("classesUnloaded"));
       ListItem item = new ListItem(
           "Class unloaded",
           UIUtils.createH5Label(Integer.toString(classesUnloaded.intValue()))
@@ -800,87 +868,50 @@ public class MetricsTabContent extends ActuatorBaseView {
             .getInstanceId());
 
     try {
-      final HttpHeaders httpHeaders;
-      Optional<String> authorization = authorizationHeaderUtil
-          .getAuthorizationHeader(authentication);
-      if (authorization.isPresent()) {
-        httpHeaders = new HttpHeaders() {{
-          set("Authorization", authorization.get());
-          setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        }};
-      } else {
+      if (authorizationHeaderUtil.getAuthorizationHeader(authentication).isEmpty()) {
         logger().warn(loggerPrefix + "Cannot get Authorization headers... skip");
         return;
       }
       logger().debug(
           "Application : " + eurekaApplication.getName() + ", Metrics Url = "
               + eurekaApplicationInstance.getMetadata().get("management.url") + "/jhametrics");
-      ResponseEntity<String> jhametricsResponseEntity = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/jhametrics"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String jhametricsBody = jhametricsResponseEntity.getBody();
-
-      JSONParser jsonParser = new JSONParser();
-      JSONObject jhametricsObject = (JSONObject) jsonParser.parse(jhametricsBody);
-
-      ResponseEntity<String> threadDumpResponseEntity = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/threaddump"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String threaddumpBody = threadDumpResponseEntity.getBody();
-
-      JSONObject threaddumpObject = (JSONObject) jsonParser.parse(threaddumpBody);
+      ActuatorSnapshot jhametricsSnapshot = getActuatorSnapshot(
+          eurekaApplicationInstance.getMetadata().get("management.url") + "/jhametrics",
+          MediaType.APPLICATION_JSON);
+      JhaMetrics jhaMetrics = jhametricsSnapshot.getPayload(JhaMetrics.class, objectMapper);
 
-      ObjectMapper mapper = new ObjectMapper();
-      Thread[] threads = mapper
-          .readValue(threaddumpObject.get("threads").toString(), Thread[].class);
+      Thread[] threads = getFromActuator(
+          eurekaApplicationInstance.getMetadata().get("management.url") + "/threaddump",
+          ThreadDump.class).getThreads();
 
-      ResponseEntity<String> metricsResponseEntity = restTemplate.exchange(URI.create(
-          eurekaApplicationInstance.getMetadata().get("management.url") + "/metrics"),
-          HttpMethod.GET,
-          new HttpEntity<>(httpHeaders), String.class);
-      String metricsBody = metricsResponseEntity.getBody();
+      GarbageCollector garbageCollector = objectMapper
+          .convertValue(jhaMetrics.getGarbageCollector(), GarbageCollector.class);
 
-//      logger().debug("Thread = " + threads);
-
-      logger().debug("Metrics = " + jhametricsBody);
-
-      //    logger().debug("ThreadDump = " + threaddumpObject);
-
-      GarbageCollector garbageCollector = mapper
-          .readValue(jhametricsObject.get("garbageCollector").toString(), GarbageCollector.class);
-
-      JSONObject jvmMetrics = (JSONObject) jhametricsObject.get("jvm");
-      JSONObject processMetrics = (JSONObject) jhametricsObject.get("processMetrics");
-      JSONObject garbageMetrics = (JSONObject) jhametricsObject.get("garbageCollector");
-      JSONObject endpointMetrics = (JSONObject) jhametricsObject.get("services");
-      JSONObject cachesMetrics = (JSONObject) jhametricsObject.get("cache");
-      JSONObject databasesMetrics = (JSONObject) jhametricsObject.get("databases");
-      JSONObject httpRequestMetrics = (JSONObject) jhametricsObject.get("http.server.requests");
+      Map<String, MemoryPool> jvmMetrics = jhaMetrics.getJvm();
+      Map<String, Double> processMetrics = jhaMetrics.getProcessMetrics();
+      Map<String, Object> garbageMetrics = jhaMetrics.getGarbageCollector();
 
       Databases databases = null;
-      if (databasesMetrics.size() > 0) {
-        databases = mapper.readValue(databasesMetrics.toString(), Databases.class);
+      if (jhaMetrics.getDatabases().size() > 0) {
+        databases = objectMapper.convertValue(jhaMetrics.getDatabases(), Databases.class);
       }
 
       final Caches caches;
-      if (cachesMetrics.size() > 0) {
+      if (jhaMetrics.getCache().size() > 0) {
         caches = new Caches();
         caches.setCaches(new ArrayList<>());
-        cachesMetrics.keySet().forEach(o -> {
-          JSONObject data = (JSONObject) cachesMetrics.get(o);
+        jhaMetrics.getCache().forEach((name, data) -> {
           Caches.Cache cache = new Cache();
-          cache.setName(o.toString());
-          cache.setMemoryEntry((Double) data.getOrDefault("cache.entry.memory", 0d));
-          cache.setSize((Double) data.getOrDefault("cache.size", 0d));
-          cache.setPuts((Double) data.getOrDefault("cache.puts", 0d));
-          cache.setGetsHit((Double) data.getOrDefault("cache.entry.gets.hit", 0d));
-          cache.setPartitionGets((Double) data.getOrDefault("cache.partition.gets", 0d));
-          cache.setEntries((Double) data.getOrDefault("cache.entries", 0d));
-          cache.setEvictions((Double) data.getOrDefault("cache.evictions", 0d));
-          cache.setGetsMissed((Double) data.getOrDefault("cache.gets.miss", 0d));
-          cache.setRemoval((Double) data.getOrDefault("cache.removals", 0d));
+          cache.setName(name);
+          cache.setMemoryEntry(data.getOrDefault("cache.entry.memory", 0d));
+          cache.setSize(data.getOrDefault("cache.size", 0d));
+          cache.setPuts(data.getOrDefault("cache.puts", 0d));
+          cache.setGetsHit(data.getOrDefault("cache.gets.hit", 0d));
+          cache.setPartitionGets(data.getOrDefault("cache.partition.gets", 0d));
+          cache.setEntries(data.getOrDefault("cache.entries", 0d));
+          cache.setEvictions(data.getOrDefault("cache.evictions", 0d));
+          cache.setGetsMissed(data.getOrDefault("cache.gets.miss", 0d));
+          cache.setRemoval(data.getOrDefault("cache.removals", 0d));
           caches.getCaches().add(cache);
         });
       } else {
@@ -888,44 +919,47 @@ public class MetricsTabContent extends ActuatorBaseView {
       }
 
       final Endpoints endpoints;
-      if (endpointMetrics.size() > 0) {
+      if (jhaMetrics.getServices().size() > 0) {
         endpoints = new Endpoints();
         endpoints.setEndpointList(new ArrayList<>());
-        endpointMetrics.keySet().forEach(o -> {
-          JSONObject methods = (JSONObject) endpointMetrics.get(o);
-          methods.keySet().forEach(o1 -> {
-            JSONObject method = (JSONObject) methods.get(o1);
-            Endpoint endpoint = new Endpoint();
-            endpoint.setPath(o.toString());
-            endpoint.setMethod(o1.toString());
-            endpoint.setMax((Double) method.get("max"));
-            endpoint.setMean((Double) method.get("mean"));
-            endpoint.setCount((Long) method.get("count"));
-
-            endpoints.getEndpointList().add(endpoint);
-          });
-        });
+        jhaMetrics.getServices().forEach((path, methods) -> methods.forEach((method, stats) -> {
+          Endpoint endpoint = new Endpoint();
+          endpoint.setPath(path);
+          endpoint.setMethod(method);
+          endpoint.setMax(stats.getMax());
+          endpoint.setMean(stats.getMean());
+          endpoint.setCount(stats.getCount());
+
+          endpoints.getEndpointList().add(endpoint);
+        }));
       } else {
         endpoints = null;
       }
 
       HttpRequests httpRequests = new HttpRequests();
       httpRequests.setRequests(new ArrayList<>());
-      httpRequests.setAll((Long) ((JSONObject) httpRequestMetrics.get("all")).get("count"));
-      JSONObject perCode = (JSONObject) httpRequestMetrics.get("percode");
-      perCode.keySet().forEach(o -> {
-        JSONObject code = (JSONObject) perCode.get(o);
+      httpRequests.setAll(jhaMetrics.getHttpServerRequests().getAll().getCount());
+      jhaMetrics.getHttpServerRequests().getPercode().forEach((code, stats) -> {
         HttpRequests.HttpRequest httpRequest = new HttpRequest();
-        httpRequest.setCode(Integer.parseInt(o.toString()));
-        httpRequest.setMax((Double) code.get("max"));
-        httpRequest.setMean((Double) code.get("mean"));
-        httpRequest.setCount((Long) code.get("count"));
+        httpRequest.setCode(Integer.parseInt(code));
+        httpRequest.setMax(stats.getMax());
+        httpRequest.setMean(stats.getMean());
+        httpRequest.setCount(stats.getCount());
         httpRequests.getRequests().add(httpRequest);
-
       });
 
+      // The jhametrics values are usually recorded already by MetricsHistoryRecorder, the thread
+      // counts only from here
+      MetricsSample metricsSample = MetricsSample.of(jhaMetrics, objectMapper);
+      metricsSample.setThreadStates(threads);
+      metricsHistory.record(eurekaApplicationInstance.getInstanceId(),
+          jhametricsSnapshot.getFetchedAt().toEpochMilli(), metricsSample);
+
       if (content.getChildren().count() > 1) {
         logger().debug(loggerPrefix + "Remove previous content");
+        if (trendsComponent != null) {
+          content.remove(trendsComponent);
+        }
         if (jvmMemoryComponent != null) {
           content.remove(jvmMemoryComponent);
         }
@@ -951,6 +985,9 @@ public class MetricsTabContent extends ActuatorBaseView {
       jvmMemoryComponent = createJVMMemory(jvmMetrics, processMetrics, garbageMetrics, threads);
       content.add(jvmMemoryComponent);
 
+      trendsComponent = createTrends(eurekaApplicationInstance.getInstanceId());
+      content.add(trendsComponent);
+
       garbageComponent = createGarbage(garbageCollector);
       content.add(garbageComponent);
       content.setFlex("1", garbageComponent);
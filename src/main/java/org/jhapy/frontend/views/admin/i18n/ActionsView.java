@@ -34,19 +34,16 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.server.StreamRegistration;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.VaadinSession;
-import java.io.ByteArrayInputStream;
 import java.util.List;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jhapy.dto.domain.i18n.Action;
 import org.jhapy.dto.domain.i18n.ActionTrl;
-import org.jhapy.dto.serviceQuery.BaseRemoteQuery;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
-import org.jhapy.dto.serviceQuery.i18n.ImportI18NFileQuery;
 import org.jhapy.dto.serviceQuery.i18n.actionTrl.FindByActionQuery;
 import org.jhapy.dto.utils.SecurityConst;
+import org.jhapy.frontend.client.i18n.I18NFileClient;
 import org.jhapy.frontend.client.i18n.I18NServices;
 import org.jhapy.frontend.components.CheckboxColumnComponent;
 import org.jhapy.frontend.components.ImportFileDialog;
@@ -61,6 +58,7 @@ import org.jhapy.frontend.utils.i18n.MyI18NProvider;
 import org.jhapy.frontend.views.DefaultMasterDetailsView;
 import org.jhapy.frontend.views.JHapyMainView;
 import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.client.RestClientException;
 import org.vaadin.olli.FileDownloadWrapper;
 
 /**
@@ -77,11 +75,17 @@ public class ActionsView extends DefaultMasterDetailsView<Action, DefaultFilter>
         (e) -> {
           ServiceResult<Action> _elt = I18NServices.getActionService().save(new SaveQuery<>(e));
           if (_elt.getIsSuccess()) {
-            myI18NProvider.reloadActions();
+            myI18NProvider.actionSaved(_elt.getData());
           }
           return _elt;
         },
-        e -> I18NServices.getActionService().delete(new DeleteByIdQuery(e.getId())));
+        e -> {
+          ServiceResult<Void> _result = I18NServices.getActionService()
+              .delete(new DeleteByIdQuery(e.getId()));
+          if (_result.getIsSuccess()) {
+            myI18NProvider.actionDeleted(e);
+          }
+        });
   }
 
   @Override
@@ -132,10 +136,11 @@ public class ActionsView extends DefaultMasterDetailsView<Action, DefaultFilter>
 
     Button exportI18NButton = new Button(getTranslation("action.i18n.download"));
     exportI18NButton.addClickListener(buttonClickEvent -> {
-      ServiceResult<Byte[]> result = I18NServices.getI18NService()
-          .getI18NFile(new BaseRemoteQuery());
+      // Copied from the i18n server to the browser while it is received
       final StreamResource resource = new StreamResource("i18n.xlsx",
-          () -> new ByteArrayInputStream(ArrayUtils.toPrimitive(result.getData())));
+          (outputStream, session) -> I18NServices.getI18NFileClient()
+              .exportI18NFile(outputStream));
+      resource.setContentType(I18NFileClient.XLSX.toString());
       final StreamRegistration registration = VaadinSession.getCurrent().getResourceRegistry()
           .registerResource(resource);
       UI.getCurrent().getPage().setLocation(registration.getResourceUri());
@@ -143,13 +148,17 @@ public class ActionsView extends DefaultMasterDetailsView<Action, DefaultFilter>
 
     Button importI18NButton = new Button(getTranslation("action.i18n.upload"));
     importI18NButton.addClickListener(buttonClickEvent -> {
-      ImportFileDialog<byte[]> importFileDialog = new ImportFileDialog();
+      ImportFileDialog<?> importFileDialog = new ImportFileDialog<>();
       importFileDialog
           .open(getTranslation("element.i18n.upload"), getTranslation("message.i18n.upload"), null,
-              getTranslation("action.i18n.upload"), bytes -> {
+              getTranslation("action.i18n.upload"), inputStream -> {
                 importFileDialog.close();
-                ServiceResult<Void> result = I18NServices.getI18NService()
-                    .importI18NFile(new ImportI18NFileQuery(ArrayUtils.toObject(bytes)));
+                ServiceResult<Void> result;
+                try {
+                  result = I18NServices.getI18NFileClient().importI18NFile(inputStream, null);
+                } catch (RestClientException e) {
+                  result = new ServiceResult<>(false, e.getLocalizedMessage(), null);
+                }
                 if (result.getIsSuccess()) {
                   JHapyMainView.get()
                       .displayInfoMessage(getTranslation("message.fileImport.success"));
@@ -61,11 +61,17 @@ public class ElementsView extends DefaultMasterDetailsView<Element, DefaultFilte
         (e) -> {
           ServiceResult<Element> _elt = I18NServices.getElementService().save(new SaveQuery<>(e));
           if (_elt.getIsSuccess()) {
-            myI18NProvider.reloadElements();
+            myI18NProvider.elementSaved(_elt.getData());
           }
           return _elt;
         },
-        e -> I18NServices.getElementService().delete(new DeleteByIdQuery(e.getId())));
+        e -> {
+          ServiceResult<Void> _result = I18NServices.getElementService()
+              .delete(new DeleteByIdQuery(e.getId()));
+          if (_result.getIsSuccess()) {
+            myI18NProvider.elementDeleted(e);
+          }
+        });
 
   }
 
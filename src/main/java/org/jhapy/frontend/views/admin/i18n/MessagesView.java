@@ -62,11 +62,17 @@ public class MessagesView extends DefaultMasterDetailsView<Message, DefaultFilte
         (e) -> {
           ServiceResult<Message> _elt = I18NServices.getMessageService().save(new SaveQuery<>(e));
           if (_elt.getIsSuccess()) {
-            myI18NProvider.reloadMessages();
+            myI18NProvider.messageSaved(_elt.getData());
           }
           return _elt;
         },
-        e -> I18NServices.getMessageService().delete(new DeleteByIdQuery(e.getId())));
+        e -> {
+          ServiceResult<Void> _result = I18NServices.getMessageService()
+              .delete(new DeleteByIdQuery(e.getId()));
+          if (_result.getIsSuccess()) {
+            myI18NProvider.messageDeleted(e);
+          }
+        });
   }
 
   @Override
@@ -31,20 +31,15 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.renderer.TextRenderer;
 import org.jhapy.dto.domain.reference.Country;
 import org.jhapy.dto.domain.reference.IntermediateRegion;
-import org.jhapy.dto.domain.reference.IntermediateRegionTrl;
 import org.jhapy.dto.domain.reference.Region;
-import org.jhapy.dto.domain.reference.RegionTrl;
 import org.jhapy.dto.domain.reference.SubRegion;
-import org.jhapy.dto.domain.reference.SubRegionTrl;
-import org.jhapy.dto.serviceQuery.BaseRemoteQuery;
+import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByIdQuery;
-import org.jhapy.dto.serviceQuery.generic.GetByIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
-import org.jhapy.dto.serviceQuery.reference.intermediateRegionTrl.GetIntermediateRegionTrlQuery;
-import org.jhapy.dto.serviceQuery.reference.regionTrl.GetRegionTrlQuery;
-import org.jhapy.dto.serviceQuery.reference.subRegionTrl.GetSubRegionTrlQuery;
 import org.jhapy.dto.utils.AppContext;
 import org.jhapy.dto.utils.SecurityConst;
+import org.jhapy.frontend.client.reference.ReferenceDataCache;
+import org.jhapy.frontend.client.reference.ReferenceLabelCache;
 import org.jhapy.frontend.client.reference.ReferenceServices;
 import org.jhapy.frontend.customFields.CountryTrlListField;
 import org.jhapy.frontend.dataproviders.CountryDataProvider;
@@ -66,10 +61,31 @@ import org.springframework.security.access.annotation.Secured;
 @Secured(SecurityConst.ROLE_ADMIN)
 public class CountriesView extends DefaultMasterDetailsView<Country, DefaultFilter> {
 
+  private final ReferenceLabelCache referenceLabelCache;
+  private final ReferenceDataCache referenceDataCache;
+
   public CountriesView() {
     super("country.", Country.class, new CountryDataProvider(),
-        (e) -> ReferenceServices.getCountryService().save(new SaveQuery<>(e)),
-        e -> ReferenceServices.getCountryService().delete(new DeleteByIdQuery(e.getId())));
+        CountriesView::saveCountry, CountriesView::deleteCountry);
+    this.referenceLabelCache = ReferenceServices.getReferenceLabelCache();
+    this.referenceDataCache = ReferenceServices.getReferenceDataCache();
+  }
+
+  private static ServiceResult<Country> saveCountry(Country country) {
+    ServiceResult<Country> result = ReferenceServices.getCountryService()
+        .save(new SaveQuery<>(country));
+    if (result.getIsSuccess() && result.getData() != null) {
+      ReferenceServices.getReferenceDataCache().countrySaved(result.getData());
+    }
+    return result;
+  }
+
+  private static void deleteCountry(Country country) {
+    ServiceResult<Void> result = ReferenceServices.getCountryService()
+        .delete(new DeleteByIdQuery(country.getId()));
+    if (result.getIsSuccess()) {
+      ReferenceServices.getReferenceDataCache().countryDeleted(country.getId());
+    }
   }
 
   protected Grid createGrid() {
@@ -131,53 +147,24 @@ public class CountriesView extends DefaultMasterDetailsView<Country, DefaultFilt
     dialingCode.setWidth("100%");
 
     ComboBox<Region> region = new ComboBox<>();
-    region.setItems(ReferenceServices.getRegionService().findAll().getData());
+    region.setDataProvider(referenceDataCache.getRegionDataProvider());
     region.setItemLabelGenerator(
-        (ItemLabelGenerator<Region>) e -> {
-          RegionTrl regionTrl = ReferenceServices.getRegionTrlService()
-              .getRegionTrl(new GetRegionTrlQuery(e.getId(), getLocale().getLanguage()))
-              .getData();
-          if (regionTrl != null) {
-            return regionTrl.getName();
-          } else {
-            return "";
-          }
-        });
+        (ItemLabelGenerator<Region>) e -> referenceLabelCache
+            .getRegionName(e.getId(), getLocale().getLanguage()));
     region.setWidth("100%");
 
     ComboBox<SubRegion> subRegion = new ComboBox<>();
-    subRegion.setItems(ReferenceServices.getSubRegionService().findAll().getData());
+    subRegion.setDataProvider(referenceDataCache.getSubRegionDataProvider());
     subRegion.setItemLabelGenerator(
-        (ItemLabelGenerator<SubRegion>) e -> {
-          SubRegionTrl subRegionTrl = ReferenceServices.getSubRegionTrlService()
-              .getSubRegionTrl(
-                  new GetSubRegionTrlQuery(e.getId(), getLocale().getLanguage()))
-              .getData();
-          if (subRegionTrl != null) {
-            return subRegionTrl.getName();
-          } else {
-            return "";
-          }
-        });
+        (ItemLabelGenerator<SubRegion>) e -> referenceLabelCache
+            .getSubRegionName(e.getId(), getLocale().getLanguage()));
     subRegion.setWidth("100%");
 
     ComboBox<IntermediateRegion> intermediateRegion = new ComboBox<>();
-    intermediateRegion
-        .setItems(ReferenceServices.getIntermediateRegionService().findAll(new BaseRemoteQuery())
-            .getData());
+    intermediateRegion.setDataProvider(referenceDataCache.getIntermediateRegionDataProvider());
     intermediateRegion.setItemLabelGenerator(
-        (ItemLabelGenerator<IntermediateRegion>) e -> {
-          IntermediateRegionTrl intermediateRegionTrl = ReferenceServices
-              .getIntermediateRegionTrlService()
-              .getIntermediateRegionTrl(
-                  new GetIntermediateRegionTrlQuery(e.getId(), getLocale().getLanguage()))
-              .getData();
-          if (intermediateRegionTrl != null) {
-            return intermediateRegionTrl.getName();
-          } else {
-            return "";
-          }
-        });
+        (ItemLabelGenerator<IntermediateRegion>) e -> referenceLabelCache
+            .getIntermediateRegionName(e.getId(), getLocale().getLanguage()));
     intermediateRegion.setWidth("100%");
 
     RadioButtonGroup<Boolean> isActive = new RadioButtonGroup<>();
@@ -240,33 +227,35 @@ public class CountriesView extends DefaultMasterDetailsView<Country, DefaultFilt
     return editingForm;
   }
 
+  /**
+   * The regions come from the edited country, the snapshot (which may be a few minutes old) is
+   * only used to find the combo box item with the same id
+   */
   private Region getRegion(Country country) {
-    Country c = ReferenceServices.getCountryService().getById(new GetByIdQuery(country.getId()))
-        .getData();
-    if (c == null || c.getRegion() == null) {
+    Region region = country.getRegion();
+    if (region == null) {
       return null;
-    } else {
-      return c.getRegion();
     }
+    Region item = referenceDataCache.getSnapshot().getRegion(region.getId());
+    return item == null ? region : item;
   }
 
   private SubRegion getSubRegion(Country country) {
-    Country c = ReferenceServices.getCountryService().getById(new GetByIdQuery(country.getId()))
-        .getData();
-    if (c == null || c.getSubRegion() == null) {
+    SubRegion subRegion = country.getSubRegion();
+    if (subRegion == null) {
       return null;
-    } else {
-      return c.getSubRegion();
     }
+    SubRegion item = referenceDataCache.getSnapshot().getSubRegion(subRegion.getId());
+    return item == null ? subRegion : item;
   }
 
   private IntermediateRegion getIntermediateRegion(Country country) {
-    Country c = ReferenceServices.getCountryService().getById(new GetByIdQuery(country.getId()))
-        .getData();
-    if (c == null || c.getIntermediateRegion() == null) {
+    IntermediateRegion intermediateRegion = country.getIntermediateRegion();
+    if (intermediateRegion == null) {
       return null;
-    } else {
-      return c.getIntermediateRegion();
     }
+    IntermediateRegion item = referenceDataCache.getSnapshot()
+        .getIntermediateRegion(intermediateRegion.getId());
+    return item == null ? intermediateRegion : item;
   }
 }
@@ -35,6 +35,7 @@ import org.jhapy.dto.domain.security.SecurityKeycloakRole;
 import org.jhapy.dto.domain.security.SecurityKeycloakUser;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByStrIdQuery;
+import org.jhapy.dto.serviceQuery.generic.GetByStrIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
 import org.jhapy.dto.utils.SecurityConst;
 import org.jhapy.frontend.client.security.SecurityServices;
@@ -90,6 +91,21 @@ public class SecurityKeycloakGroupsView extends
     return grid;
   }
 
+  /**
+   * The grid gets a light page, load the complete entity when a row is opened
+   */
+  @Override
+  protected void showDetails(SecurityKeycloakGroup entity) {
+    if (entity.getId() != null && entity.getEffectiveRoles() == null) {
+      ServiceResult<SecurityKeycloakGroup> _entity = SecurityServices.getKeycloakClient()
+          .getGroupById(new GetByStrIdQuery(entity.getId()));
+      if (_entity.getIsSuccess() && _entity.getData() != null) {
+        entity = _entity.getData();
+      }
+    }
+    super.showDetails(entity);
+  }
+
   protected Component createDetails(SecurityKeycloakGroup securityKeycloakGroup) {
     boolean isNew = securityKeycloakGroup.getId() == null;
     detailsDrawerHeader.setTitle(isNew ? getTranslation("element.global.new") + " : "
@@ -44,6 +44,7 @@ import org.jhapy.dto.domain.security.SecurityKeycloakRole;
 import org.jhapy.dto.domain.security.SecurityKeycloakUser;
 import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByStrIdQuery;
+import org.jhapy.dto.serviceQuery.generic.GetByStrIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
 import org.jhapy.dto.utils.SecurityConst;
 import org.jhapy.frontend.client.security.SecurityServices;
@@ -105,6 +106,21 @@ public class SecurityKeycloakUsersView extends
     return grid;
   }
 
+  /**
+   * The grid gets a light page, load the complete entity when a row is opened
+   */
+  @Override
+  protected void showDetails(SecurityKeycloakUser entity) {
+    if (entity.getId() != null && entity.getEffectiveRoles() == null) {
+      ServiceResult<SecurityKeycloakUser> _entity = SecurityServices.getKeycloakClient()
+          .getUserById(new GetByStrIdQuery(entity.getId()));
+      if (_entity.getIsSuccess() && _entity.getData() != null) {
+        entity = _entity.getData();
+      }
+    }
+    super.showDetails(entity);
+  }
+
   protected Component createDetails(SecurityKeycloakUser securityUser) {
     boolean isNew = securityUser.getId() == null;
     detailsDrawerHeader.setTitle(isNew ? getTranslation("element.global.new") + " : "
@@ -26,6 +26,7 @@ import com.vaadin.flow.component.grid.Grid.SelectionMode;
 import com.vaadin.flow.component.textfield.TextField;
 import org.apache.commons.lang3.StringUtils;
 import org.jhapy.dto.domain.security.SecurityRole;
+import org.jhapy.dto.serviceQuery.ServiceResult;
 import org.jhapy.dto.serviceQuery.generic.DeleteByStrIdQuery;
 import org.jhapy.dto.serviceQuery.generic.SaveQuery;
 import org.jhapy.dto.utils.SecurityConst;
@@ -46,8 +47,20 @@ public class SecurityRolesView extends DefaultMasterDetailsView<SecurityRole, De
 
   public SecurityRolesView() {
     super("securityRole.", SecurityRole.class, new SecurityRoleDataProvider(),
-        (e) -> SecurityServices.getSecurityRoleService().save(new SaveQuery<>(e)),
-        e -> SecurityServices.getSecurityRoleService().delete(new DeleteByStrIdQuery(e.getId())));
+        SecurityRolesView::saveRole, SecurityRolesView::deleteRole);
+  }
+
+  private static ServiceResult<SecurityRole> saveRole(SecurityRole securityRole) {
+    ServiceResult<SecurityRole> result = SecurityServices.getSecurityRoleService()
+        .save(new SaveQuery<>(securityRole));
+    // The role may have been allowed or disallowed to log in
+    SecurityServices.getAccessDecisionVoter().invalidateAllowedRoles();
+    return result;
+  }
+
+  private static void deleteRole(SecurityRole securityRole) {
+    SecurityServices.getSecurityRoleService().delete(new DeleteByStrIdQuery(securityRole.getId()));
+    SecurityServices.getAccessDecisionVoter().invalidateAllowedRoles();
   }
 
   protected Grid createGrid() {
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the endpoint tag of the actuator client timers.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-14
+ */
+class ActuatorClientTest {
+
+  @Test
+  void tagsTheFirstSegmentAfterTheBasePath() {
+    assertEquals("loggers", endpointOf("http://host:8080/actuator/loggers/ROOT"));
+    assertEquals("health", endpointOf("http://host:8080/management/health"));
+    assertEquals("actuator", endpointOf("http://host:8080/actuator"));
+  }
+
+  @Test
+  void tagsThePathsOutsideOfTheBasePathAsOther() {
+    assertEquals("other", endpointOf("http://host:8080/loggers/org.jhapy.frontend"));
+    assertEquals("other", endpointOf("http://host:8080/encrypt"));
+    assertEquals("/", endpointOf("http://host:8080/"));
+  }
+
+  private static String endpointOf(String url) {
+    return ActuatorClient.getEndpoint(URI.create(url));
+  }
+}
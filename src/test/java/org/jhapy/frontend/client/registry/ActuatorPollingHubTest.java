@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.vaadin.flow.shared.Registration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.jhapy.frontend.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Polls a stub actuator served locally, which only accepts the {@link #VALID_TOKEN} token.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-14
+ */
+class ActuatorPollingHubTest {
+
+  private static final String VALID_TOKEN = "Bearer valid";
+  private static final String EXPIRED_TOKEN = "Bearer expired";
+  private static final Duration INTERVAL = Duration.ofMillis(200);
+  private static final long TIMEOUT = 10_000;
+
+  private final AtomicInteger hits = new AtomicInteger();
+  private final List<Registration> registrations = new ArrayList<>();
+
+  private HttpServer server;
+  private ActuatorClient actuatorClient;
+  private ActuatorPollingHub actuatorPollingHub;
+  private String url;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/actuator/health", exchange -> {
+      hits.incrementAndGet();
+      if (VALID_TOKEN.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+        respond(exchange, 200, "{\"status\":\"UP\"}");
+      } else {
+        respond(exchange, 401, "");
+      }
+    });
+    server.start();
+    url = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+        + server.getAddress().getPort() + "/actuator/health";
+
+    AppProperties appProperties = new AppProperties();
+    actuatorClient = new ActuatorClient(appProperties, new SimpleMeterRegistry());
+    actuatorPollingHub = new ActuatorPollingHub(actuatorClient, appProperties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    registrations.forEach(Registration::remove);
+    actuatorPollingHub.close();
+    actuatorClient.close();
+    server.stop(0);
+  }
+
+  @Test
+  void fetchesOncePerIntervalForAllTheSubscribers() throws Exception {
+    Set<ActuatorSnapshot> snapshots = ConcurrentHashMap.newKeySet();
+    List<AtomicInteger> received = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      AtomicInteger count = new AtomicInteger();
+      received.add(count);
+      subscribe(headers(VALID_TOKEN), snapshot -> {
+        snapshots.add(snapshot);
+        count.incrementAndGet();
+      });
+    }
+
+    await(() -> received.stream().allMatch(count -> count.get() >= 3));
+
+    // Each call to the instance gave one snapshot shared by all the subscribers (the last call
+    // may still be running)
+    assertTrue(hits.get() <= snapshots.size() + 1, hits.get() + " calls for "
+        + snapshots.size() + " snapshots");
+    assertEquals(1, actuatorPollingHub.getPolledEndpointCount());
+  }
+
+  @Test
+  void servesTheLastSnapshotWhileItIsFresh() throws Exception {
+    // The first poll runs at once, the next one is not due during the test
+    Duration interval = Duration.ofMinutes(1);
+    List<ActuatorSnapshot> received = new CopyOnWriteArrayList<>();
+    subscribe(interval, headers(VALID_TOKEN), received::add);
+    await(() -> !received.isEmpty());
+
+    ActuatorSnapshot snapshot = actuatorPollingHub.get(url, headers(VALID_TOKEN));
+
+    assertEquals("{\"status\":\"UP\"}", snapshot.getBody());
+    assertSame(received.get(0), snapshot);
+    assertEquals(1, hits.get());
+
+    // A new subscriber gets the last snapshot right away
+    List<ActuatorSnapshot> late = new CopyOnWriteArrayList<>();
+    subscribe(interval, headers(VALID_TOKEN), late::add);
+    assertEquals(1, late.size());
+    assertEquals(1, hits.get());
+  }
+
+  @Test
+  void stopsPollingWithTheLastSubscriber() throws Exception {
+    AtomicInteger received = new AtomicInteger();
+    subscribe(headers(VALID_TOKEN), snapshot -> received.incrementAndGet());
+    subscribe(headers(VALID_TOKEN), snapshot -> received.incrementAndGet());
+    await(() -> received.get() >= 2);
+
+    registrations.forEach(Registration::remove);
+    registrations.clear();
+    assertEquals(0, actuatorPollingHub.getPolledEndpointCount());
+
+    // A poll may still be running when the last subscriber leaves
+    Thread.sleep(INTERVAL.toMillis());
+    int hitsAfterRemove = hits.get();
+    Thread.sleep(3 * INTERVAL.toMillis());
+    assertEquals(hitsAfterRemove, hits.get());
+  }
+
+  @Test
+  void givesNothingToTheSubscribersRefused() throws Exception {
+    List<ActuatorSnapshot> expired = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      subscribe(headers(EXPIRED_TOKEN), expired::add);
+    }
+    List<ActuatorSnapshot> valid = new CopyOnWriteArrayList<>();
+    subscribe(headers(VALID_TOKEN), valid::add);
+
+    await(() -> valid.size() >= 3);
+    assertNotNull(valid.get(0).getBody());
+    assertTrue(expired.isEmpty());
+
+    // Nor is the last snapshot served to them, the instance refuses them again
+    assertThrows(HttpClientErrorException.class,
+        () -> actuatorPollingHub.get(url, headers(EXPIRED_TOKEN)));
+    List<ActuatorSnapshot> late = new CopyOnWriteArrayList<>();
+    subscribe(headers(EXPIRED_TOKEN), late::add);
+    assertTrue(late.isEmpty());
+  }
+
+  @Test
+  void keepsPollingWhenAllTheSubscribersAreRefused() throws Exception {
+    List<ActuatorSnapshot> received = new CopyOnWriteArrayList<>();
+    subscribe(headers(EXPIRED_TOKEN), received::add);
+
+    await(() -> hits.get() >= 3);
+
+    assertTrue(received.isEmpty());
+    assertEquals(1, actuatorPollingHub.getPolledEndpointCount());
+  }
+
+  private void subscribe(Supplier<HttpHeaders> headers, Consumer<ActuatorSnapshot> listener) {
+    subscribe(INTERVAL, headers, listener);
+  }
+
+  private void subscribe(Duration interval, Supplier<HttpHeaders> headers,
+      Consumer<ActuatorSnapshot> listener) {
+    registrations.add(actuatorPollingHub.subscribe(url, interval, headers, listener));
+  }
+
+  private static Supplier<HttpHeaders> headers(String authorization) {
+    return () -> {
+      HttpHeaders httpHeaders = new HttpHeaders();
+      httpHeaders.set("Authorization", authorization);
+      return httpHeaders;
+    };
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+      Thread.sleep(20);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(bytes);
+    }
+  }
+}
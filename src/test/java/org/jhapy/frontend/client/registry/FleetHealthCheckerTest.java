@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jhapy.frontend.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Checks the fleet health against stub instances served locally.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+class FleetHealthCheckerTest {
+
+  private static final int CONCURRENCY = 3;
+  private static final Duration TIMEOUT = Duration.ofMillis(500);
+  private static final long SLOW_DELAY = 5_000;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private ActuatorClient actuatorClient;
+  private FleetHealthChecker fleetHealthChecker;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    serverExecutor = Executors.newCachedThreadPool();
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(serverExecutor);
+    server.createContext("/up", exchange -> respond(exchange, 200, "{\"status\":\"UP\"}"));
+    server.createContext("/down", exchange -> respond(exchange, 503, "{\"status\":\"DOWN\"}"));
+    server.createContext("/broken", exchange -> respond(exchange, 500, ""));
+    server.createContext("/garbage", exchange -> respond(exchange, 200, "<html></html>"));
+    server.createContext("/slow", exchange -> {
+      sleep(SLOW_DELAY);
+      respond(exchange, 200, "{\"status\":\"UP\"}");
+    });
+    server.createContext("/busy", exchange -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      sleep(100);
+      inFlight.decrementAndGet();
+      respond(exchange, 200, "{\"status\":\"UP\"}");
+    });
+    server.start();
+
+    AppProperties appProperties = new AppProperties();
+    appProperties.getActuatorClient().setFleetHealthConcurrency(CONCURRENCY);
+    appProperties.getActuatorClient().setFleetHealthTimeout(TIMEOUT);
+    actuatorClient = new ActuatorClient(appProperties, new SimpleMeterRegistry());
+    fleetHealthChecker = new FleetHealthChecker(actuatorClient, appProperties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    fleetHealthChecker.close();
+    actuatorClient.close();
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  void reportsTheStatusOfEachInstance() throws Exception {
+    InstanceHealth up = instance("up");
+    InstanceHealth down = instance("down");
+    InstanceHealth broken = instance("broken");
+    InstanceHealth garbage = instance("garbage");
+    InstanceHealth unreachable = new InstanceHealth("app", "unreachable",
+        "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":1/health");
+    List<InstanceHealth> instances = List.of(up, down, broken, garbage, unreachable);
+
+    List<InstanceHealth> received = new CopyOnWriteArrayList<>();
+    fleetHealthChecker.check(instances, HttpHeaders::new, received::add)
+        .get(10, TimeUnit.SECONDS);
+
+    assertEquals(instances.size(), received.size());
+    assertEquals("UP", up.getStatus());
+    assertNotNull(up.getResponseTime());
+    // A DOWN instance answers 503 with its health
+    assertEquals("DOWN", down.getStatus());
+    assertEquals(InstanceHealth.ERROR, broken.getStatus());
+    assertEquals(InstanceHealth.ERROR, garbage.getStatus());
+    assertNotNull(garbage.getError());
+    assertEquals(InstanceHealth.ERROR, unreachable.getStatus());
+  }
+
+  @Test
+  void aSlowInstanceOnlyDelaysItself() throws Exception {
+    InstanceHealth slow = instance("slow");
+    List<InstanceHealth> instances = new ArrayList<>();
+    instances.add(slow);
+    for (int i = 0; i < 5; i++) {
+      instances.add(instance("up"));
+    }
+
+    List<InstanceHealth> received = new CopyOnWriteArrayList<>();
+    long start = System.nanoTime();
+    fleetHealthChecker.check(instances, HttpHeaders::new, received::add)
+        .get(10, TimeUnit.SECONDS);
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertEquals(InstanceHealth.TIMEOUT, slow.getStatus());
+    assertTrue(elapsed < SLOW_DELAY, "Waited for the slow instance : " + elapsed + " ms");
+    // The other instances were given to the listener without waiting for the slow one
+    assertEquals(slow, received.get(received.size() - 1));
+    received.stream().filter(instance -> instance != slow)
+        .forEach(instance -> assertEquals("UP", instance.getStatus()));
+  }
+
+  @Test
+  void capsTheCallsInFlight() throws Exception {
+    List<InstanceHealth> instances = new ArrayList<>();
+    for (int i = 0; i < 4 * CONCURRENCY; i++) {
+      instances.add(instance("busy"));
+    }
+
+    fleetHealthChecker.check(instances, HttpHeaders::new, instance -> {
+    }).get(10, TimeUnit.SECONDS);
+
+    instances.forEach(instance -> assertEquals("UP", instance.getStatus()));
+    assertTrue(maxInFlight.get() <= CONCURRENCY, "Calls in flight : " + maxInFlight.get());
+  }
+
+  private InstanceHealth instance(String path) {
+    return new InstanceHealth("app", path, "http://"
+        + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort()
+        + "/" + path);
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    try (OutputStream outputStream = exchange.getResponseBody()) {
+      outputStream.write(bytes);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.client.registry.actuator;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.jhapy.dto.registry.Databases;
+import org.jhapy.dto.registry.GarbageCollector;
+import org.jhapy.dto.registry.Thread;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Decoding of the <code>/jhametrics</code> and <code>/threaddump</code> payloads used by the
+ * Metrics tab: the json-simple parsing with sub-trees parsed again by a new {@link ObjectMapper}
+ * it replaced, against the typed model decoded once by the shared mapper. Run from {@link
+ * #main(String[])}, with the GC profiler for the allocation rates.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActuatorPayloadBenchmark {
+
+  private String jhametrics;
+  private String threaddump;
+  private ObjectMapper sharedMapper;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ActuatorPayloadBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build()).run();
+  }
+
+  @Setup
+  public void setup() throws IOException {
+    jhametrics = read("jhametrics.json");
+    threaddump = read("threaddump.json");
+    // Configured like ActuatorClient#getObjectMapper()
+    sharedMapper = Jackson2ObjectMapperBuilder.json().failOnUnknownProperties(false).build();
+  }
+
+  @Benchmark
+  public void jsonSimpleThenObjectMapper(Blackhole blackhole)
+      throws ParseException, IOException {
+    JSONParser jsonParser = new JSONParser();
+    JSONObject jhametricsObject = (JSONObject) jsonParser.parse(jhametrics);
+    JSONObject threaddumpObject = (JSONObject) jsonParser.parse(threaddump);
+
+    // Unknown properties ignored, so both paths decode the same payloads
+    ObjectMapper mapper = new ObjectMapper()
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    blackhole.consume(
+        mapper.readValue(threaddumpObject.get("threads").toString(), Thread[].class));
+    blackhole.consume(mapper.readValue(jhametricsObject.get("garbageCollector").toString(),
+        GarbageCollector.class));
+    blackhole.consume(
+        mapper.readValue(jhametricsObject.get("databases").toString(), Databases.class));
+    blackhole.consume(jhametricsObject.get("jvm"));
+    blackhole.consume(jhametricsObject.get("services"));
+  }
+
+  @Benchmark
+  public void typedPayloads(Blackhole blackhole) throws IOException {
+    JhaMetrics jhaMetrics = sharedMapper.readValue(jhametrics, JhaMetrics.class);
+    blackhole.consume(sharedMapper.readValue(threaddump, ThreadDump.class).getThreads());
+    blackhole.consume(
+        sharedMapper.convertValue(jhaMetrics.getGarbageCollector(), GarbageCollector.class));
+    blackhole.consume(sharedMapper.convertValue(jhaMetrics.getDatabases(), Databases.class));
+    blackhole.consume(jhaMetrics.getJvm());
+    blackhole.consume(jhaMetrics.getServices());
+  }
+
+  private static String read(String name) throws IOException {
+    try (InputStream inputStream = ActuatorPayloadBenchmark.class.getResourceAsStream(name)) {
+      if (inputStream == null) {
+        throw new IOException("Missing payload " + name);
+      }
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
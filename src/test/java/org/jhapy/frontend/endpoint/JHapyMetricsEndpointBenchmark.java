@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.endpoint;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * One call of the <code>/jhametrics</code> endpoint on registries of 5k and 20k meters: the
+ * previous implementation searching the registry for each category, {@link MeterIndex} without
+ * reusing the result, and with the result reused for one second (several admins polling). Run
+ * from {@link #main(String[])}.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JHapyMetricsEndpointBenchmark {
+
+  @Param({"5000", "20000"})
+  private int meters;
+
+  private SearchBasedMetricsEndpoint searchBasedEndpoint;
+  private JHapyMetricsEndpoint indexedEndpoint;
+  private JHapyMetricsEndpoint memoizedEndpoint;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JHapyMetricsEndpointBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Setup
+  public void setup() {
+    SimpleMeterRegistry registry = MetricsRegistryFixture.create(meters);
+    searchBasedEndpoint = new SearchBasedMetricsEndpoint(registry);
+    indexedEndpoint = new JHapyMetricsEndpoint(registry);
+    memoizedEndpoint = new JHapyMetricsEndpoint(registry, Duration.ofSeconds(1));
+  }
+
+  @Benchmark
+  public Map<String, Map> searchBased() {
+    return searchBasedEndpoint.allMetrics();
+  }
+
+  @Benchmark
+  public Map<String, Map> meterIndex() {
+    return indexedEndpoint.allMetrics();
+  }
+
+  @Benchmark
+  public Map<String, Map> meterIndexWithResponseTtl() {
+    return memoizedEndpoint.allMetrics();
+  }
+}
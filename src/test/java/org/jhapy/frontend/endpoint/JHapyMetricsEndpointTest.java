@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.endpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares {@link JHapyMetricsEndpoint} with the previous implementation searching the registry.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-20
+ */
+class JHapyMetricsEndpointTest {
+
+  @Test
+  void givesTheSameMetricsAsSearchingTheRegistry() {
+    SimpleMeterRegistry registry = MetricsRegistryFixture.create(2_000);
+
+    assertEquals(new SearchBasedMetricsEndpoint(registry).allMetrics(),
+        new JHapyMetricsEndpoint(registry).allMetrics());
+  }
+
+  @Test
+  void followsTheMetersAddedAndRemoved() {
+    SimpleMeterRegistry registry = MetricsRegistryFixture.create(500);
+    JHapyMetricsEndpoint endpoint = new JHapyMetricsEndpoint(registry);
+    assertFalse(getServices(endpoint.allMetrics()).containsKey("/api/new"));
+
+    Timer timer = Timer.builder("http.server.requests")
+        .tags("uri", "/api/new", "method", "GET", "status", "201").register(registry);
+    timer.record(5, TimeUnit.MILLISECONDS);
+    Map<String, Map> metrics = endpoint.allMetrics();
+    assertTrue(getServices(metrics).containsKey("/api/new"));
+    assertEquals(new SearchBasedMetricsEndpoint(registry).allMetrics(), metrics);
+
+    registry.remove(timer);
+    assertFalse(getServices(endpoint.allMetrics()).containsKey("/api/new"));
+  }
+
+  @Test
+  void reusesTheResultDuringItsTtl() {
+    SimpleMeterRegistry registry = MetricsRegistryFixture.create(500);
+
+    JHapyMetricsEndpoint endpoint = new JHapyMetricsEndpoint(registry, Duration.ofMinutes(1));
+    assertSame(endpoint.allMetrics(), endpoint.allMetrics());
+
+    JHapyMetricsEndpoint uncached = new JHapyMetricsEndpoint(registry);
+    assertEquals(uncached.allMetrics(), uncached.allMetrics());
+  }
+
+  private static Map<?, ?> getServices(Map<String, Map> metrics) {
+    return metrics.get("services");
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.endpoint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A registry with the meters of a busy service: JVM, process, connection pool, caches, one HTTP
+ * timer per uri, method and status, and other application meters up to the requested count. The
+ * values are fixed, so two reads give the same figures.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-20
+ */
+final class MetricsRegistryFixture {
+
+  private static final String[] MEMORY_POOLS = {"Code Cache", "Metaspace",
+      "Compressed Class Space", "G1 Eden Space", "G1 Old Gen", "G1 Survivor Space"};
+  private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+  private static final String[] STATUSES = {"200", "404", "500"};
+  private static final int CACHES = 20;
+
+  /**
+   * The function meters keep a weak reference to the object they read
+   */
+  private static final Object SOURCE = new Object();
+
+  private MetricsRegistryFixture() {
+  }
+
+  /**
+   * @param meterCount number of meters, half of them (after the fixed ones) being HTTP timers
+   */
+  static SimpleMeterRegistry create(int meterCount) {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    for (String pool : MEMORY_POOLS) {
+      String area = pool.startsWith("G1") ? "heap" : "nonheap";
+      gauge(registry, "jvm.memory.used", 64 * 1024 * 1024, "area", area, "id", pool);
+      gauge(registry, "jvm.memory.max", 512 * 1024 * 1024, "area", area, "id", pool);
+      gauge(registry, "jvm.memory.committed", 128 * 1024 * 1024, "area", area, "id", pool);
+    }
+
+    Timer gcPause = Timer.builder("jvm.gc.pause")
+        .tags("action", "end of minor GC", "cause", "G1 Evacuation Pause")
+        .publishPercentiles(0.5, 0.95).register(registry);
+    for (int i = 1; i <= 20; i++) {
+      gcPause.record(i, TimeUnit.MILLISECONDS);
+    }
+    gauge(registry, "jvm.gc.max.data.size", 1024 * 1024 * 1024);
+    gauge(registry, "jvm.gc.live.data.size", 80 * 1024 * 1024);
+    Counter.builder("jvm.gc.memory.allocated").register(registry).increment(9.8e9);
+    Counter.builder("jvm.gc.memory.promoted").register(registry).increment(1.2e8);
+    gauge(registry, "jvm.classes.loaded", 21874);
+    FunctionCounter.builder("jvm.classes.unloaded", SOURCE, source -> 312).register(registry);
+
+    gauge(registry, "system.cpu.usage", 0.12);
+    gauge(registry, "system.cpu.count", 8);
+    gauge(registry, "process.cpu.usage", 0.02);
+    gauge(registry, "process.files.open", 187);
+    TimeGauge.builder("process.uptime", SOURCE, TimeUnit.MILLISECONDS, source -> 86_400_000)
+        .register(registry);
+
+    for (String name : new String[]{"acquire", "creation", "usage"}) {
+      Timer timer = Timer.builder("hikaricp.connections." + name).tags("pool", "HikariPool-1")
+          .register(registry);
+      timer.record(3, TimeUnit.MILLISECONDS);
+    }
+    for (String name : new String[]{"active", "idle", "pending", "min", "max"}) {
+      gauge(registry, "hikaricp.connections." + name, 10, "pool", "HikariPool-1");
+    }
+
+    for (int i = 0; i < CACHES; i++) {
+      String cache = "cache-" + i;
+      FunctionCounter.builder("cache.gets", SOURCE, source -> 1000)
+          .tags("name", cache, "result", "hit").register(registry);
+      FunctionCounter.builder("cache.gets", SOURCE, source -> 100)
+          .tags("name", cache, "result", "miss").register(registry);
+      FunctionCounter.builder("cache.puts", SOURCE, source -> 100)
+          .tags("name", cache).register(registry);
+      gauge(registry, "cache.size", 50, "name", cache);
+    }
+
+    gauge(registry, "vaadin.sessions", 12);
+
+    int fixedMeters = registry.getMeters().size();
+    int httpTimers = Math.max(0, (meterCount - fixedMeters) / 2);
+    for (int i = 0; i < httpTimers; i++) {
+      // Each index gives a different uri, method and status
+      Timer timer = Timer.builder("http.server.requests")
+          .tags("uri", "/api/resource-" + i / (METHODS.length * STATUSES.length),
+              "method", METHODS[i % METHODS.length],
+              "status", STATUSES[i / METHODS.length % STATUSES.length],
+              "outcome", "SUCCESS", "exception", "None")
+          .register(registry);
+      timer.record(i % 500 + 1, TimeUnit.MILLISECONDS);
+    }
+
+    for (int i = 0; registry.getMeters().size() < meterCount; i++) {
+      Counter.builder("app.events").tags("type", "event-" + i).register(registry).increment();
+    }
+    return registry;
+  }
+
+  private static void gauge(MeterRegistry registry, String name, double value, String... tags) {
+    Gauge.builder(name, () -> value).tags(tags).register(registry);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.i18n;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.IllegalFormatException;
+import java.util.Locale;
+import java.util.Locale.Category;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares {@link CompiledMessage} with {@link String#format(String, Object...)}.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-10
+ */
+class CompiledMessageTest {
+
+  private static final String[] PATTERNS = {
+      "No argument", "Hello %s !", "%s and %s", "%2$s before %1$s", "%s then %<s again",
+      "[%10s]", "[%-10s]", "[%.3s]", "[%8.2s]", "%S", "%d items", "[%5d]", "[%-5d]", "[%05d]",
+      "%,d", "%+d", "%x", "%.2f %%", "%08.3f", "%e", "%b", "%c", "Line%nbreak", "%1$s %1$d"
+  };
+
+  private static final Object[][] ARGUMENTS = {
+      {"text", 42}, {42, "text"}, {-7, 3}, {123456789L, (short) 5}, {null, null},
+      {"a much longer text", Long.MIN_VALUE}
+  };
+
+  private final Locale defaultLocale = Locale.getDefault(Category.FORMAT);
+
+  @AfterEach
+  void restoreLocale() {
+    Locale.setDefault(Category.FORMAT, defaultLocale);
+  }
+
+  @Test
+  void formatsLikeStringFormat() {
+    for (Locale locale : new Locale[]{Locale.ENGLISH, Locale.FRANCE, new Locale("ar", "SA")}) {
+      Locale.setDefault(Category.FORMAT, locale);
+      for (String pattern : PATTERNS) {
+        CompiledMessage message = CompiledMessage.compile(pattern);
+        for (Object[] args : ARGUMENTS) {
+          assertSameResult(pattern, message, args);
+        }
+      }
+    }
+  }
+
+  @Test
+  void formatsFloatingPointLikeStringFormat() {
+    CompiledMessage message = CompiledMessage.compile("%.2f / %10.4f / %-8.1f|");
+    for (Locale locale : new Locale[]{Locale.ENGLISH, Locale.GERMANY}) {
+      Locale.setDefault(Category.FORMAT, locale);
+      for (double value : new double[]{0, 1.005, -2.5, 1234567.891, Double.NaN}) {
+        assertEquals(String.format("%.2f / %10.4f / %-8.1f|", value, value, value),
+            message.format(value, value, value));
+      }
+    }
+  }
+
+  @Test
+  void reportsInvalidPatternsLikeStringFormat() {
+    for (String pattern : new String[]{"%", "%-s", "%05s", "%-05d", "100% sure", "%q"}) {
+      CompiledMessage message = CompiledMessage.compile(pattern);
+      Class<? extends Throwable> expected = assertThrows(IllegalFormatException.class,
+          () -> String.format(pattern, 1)).getClass();
+      assertThrows(expected, () -> message.format(1), pattern);
+    }
+  }
+
+  @Test
+  void reportsMissingArguments() {
+    assertThrows(IllegalFormatException.class,
+        () -> CompiledMessage.compile("%s and %s").format("one"));
+  }
+
+  private static void assertSameResult(String pattern, CompiledMessage message, Object[] args) {
+    String expected;
+    try {
+      expected = String.format(pattern, args);
+    } catch (IllegalFormatException e) {
+      assertThrows(e.getClass(), () -> message.format(args), pattern);
+      return;
+    }
+    assertEquals(expected, message.format(args), pattern);
+  }
+}
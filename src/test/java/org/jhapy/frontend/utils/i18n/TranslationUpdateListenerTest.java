@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.i18n;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import org.apache.activemq.broker.BrokerRegistry;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.jhapy.frontend.client.i18n.I18NCacheUpdateQueue;
+import org.jhapy.frontend.client.i18n.TranslationUpdate;
+import org.jhapy.frontend.config.JmsConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.JmsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jms.activemq.ActiveMQAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+/**
+ * Publishes translation changes on the topic of an embedded broker and checks the listener gives
+ * them to the translation cache.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-09
+ */
+@SpringBootTest(classes = {JmsConfiguration.class, I18NCacheUpdateQueue.class,
+    TranslationUpdateListener.class}, properties = {
+    "spring.cloud.bootstrap.enabled=false",
+    "spring.cloud.config.enabled=false",
+    "spring.activemq.broker-url=vm://" + TranslationUpdateListenerTest.BROKER_NAME
+        + "?broker.persistent=false&broker.useJmx=false"})
+@ImportAutoConfiguration({ActiveMQAutoConfiguration.class, JmsAutoConfiguration.class})
+class TranslationUpdateListenerTest {
+
+  static final String BROKER_NAME = "i18n-test";
+
+  private static final long TIMEOUT = 10_000;
+
+  @Autowired
+  private I18NCacheUpdateQueue i18NCacheUpdateQueue;
+
+  @MockBean
+  private MyI18NProvider myI18NProvider;
+
+  @BeforeEach
+  void awaitSubscription() throws Exception {
+    // A message sent on a topic before the listener subscribed is lost
+    long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (!isSubscribed()) {
+      assertTrue(System.currentTimeMillis() < deadline, "The listener never subscribed");
+      Thread.sleep(50);
+    }
+  }
+
+  @Test
+  void updateIsApplied() {
+    i18NCacheUpdateQueue.translationUpdated(new TranslationUpdate(TranslationUpdate.ELEMENT,
+        TranslationUpdate.OPERATION_UPDATE, "element.name", "eng", "Name"));
+
+    TranslationUpdate received = awaitUpdate();
+    assertEquals(TranslationUpdate.ELEMENT, received.getType());
+    assertEquals(TranslationUpdate.OPERATION_UPDATE, received.getOperation());
+    assertEquals("element.name", received.getName());
+    assertEquals("eng", received.getIso3Language());
+    assertEquals("Name", received.getValue());
+  }
+
+  @Test
+  void deleteIsApplied() {
+    i18NCacheUpdateQueue.translationUpdated(new TranslationUpdate(TranslationUpdate.MESSAGE,
+        TranslationUpdate.OPERATION_DELETE, "message.welcome", "fra", null));
+
+    TranslationUpdate received = awaitUpdate();
+    assertEquals(TranslationUpdate.MESSAGE, received.getType());
+    assertTrue(received.isDelete());
+    assertEquals("message.welcome", received.getName());
+    assertEquals("fra", received.getIso3Language());
+    assertNull(received.getValue());
+  }
+
+  private TranslationUpdate awaitUpdate() {
+    ArgumentCaptor<TranslationUpdate> update = ArgumentCaptor.forClass(TranslationUpdate.class);
+    verify(myI18NProvider, timeout(TIMEOUT)).applyUpdate(update.capture());
+    return update.getValue();
+  }
+
+  private static boolean isSubscribed() throws Exception {
+    BrokerService broker = BrokerRegistry.getInstance().lookup(BROKER_NAME);
+    return broker != null && !broker.getDestination(new ActiveMQTopic(I18NCacheUpdateQueue.TOPIC))
+        .getConsumers().isEmpty();
+  }
+}
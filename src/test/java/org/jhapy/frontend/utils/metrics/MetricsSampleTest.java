@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2020 the original author or authors from the JHapy project.
+ *
+ * This file is part of the JHapy project, see https://www.jhapy.org/ for more information.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jhapy.frontend.utils.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import org.jhapy.frontend.client.registry.actuator.JhaMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Reads the <code>/jhametrics</code> response recorded for the actuator payload benchmark.
+ *
+ * @author jHapy Lead Dev.
+ * @version 1.0
+ * @since 2020-06-15
+ */
+class MetricsSampleTest {
+
+  private static final String JHAMETRICS =
+      "/org/jhapy/frontend/client/registry/actuator/jhametrics.json";
+
+  // Configured like ActuatorClient#getObjectMapper()
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+      .failOnUnknownProperties(false).build();
+
+  @Test
+  void addsUpTheHitsAndMissesOfAllTheCaches() throws IOException {
+    MetricsSample sample = MetricsSample.of(readJhaMetrics(), objectMapper);
+
+    assertEquals(286603, sample.getCacheHits());
+    assertEquals(274303, sample.getCacheMisses());
+  }
+
+  @Test
+  void readsTheRequestCount() throws IOException {
+    MetricsSample sample = MetricsSample.of(readJhaMetrics(), objectMapper);
+
+    assertEquals(959831, sample.getHttpRequestCount());
+  }
+
+  private JhaMetrics readJhaMetrics() throws IOException {
+    try (InputStream inputStream = getClass().getResourceAsStream(JHAMETRICS)) {
+      return objectMapper.readValue(inputStream, JhaMetrics.class);
+    }
+  }
+}